@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -23,6 +24,8 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
@@ -38,6 +41,18 @@ with(extensions.getByType(JacocoPluginExtension::class.java)) {
     toolVersion = "0.8.7"
 }
 
+// benchmark tasks
+// ./gradlew jmh -Pjmh.threads=8 -Pjmh.includes=PointServiceBenchmark
+// 파라미터(distribution, readRatio, stubThrottle 등)는 jmhJar 를 직접 실행해 -p 로 바꿀 수 있다.
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    threads.set(providers.gradleProperty("jmh.threads").map(String::toInt).orElse(4))
+    includes.set(providers.gradleProperty("jmh.includes").map { listOf(it) }.orElse(emptyList()))
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
+
 // bundling tasks
 tasks.getByName("bootJar") {
     enabled = true
@@ -48,5 +63,29 @@ tasks.getByName("jar") {
 // test tasks
 tasks.test {
     ignoreFailures = true
-    useJUnitPlatform()
+    useJUnitPlatform {
+        excludeTags("load")
+    }
+}
+
+// 부하 테스트는 시간이 오래 걸리므로 따로 실행한다. (./gradlew loadTest)
+// 가상 스레드와 플랫폼 스레드를 비교하도록 설치된 JDK 21 로 실행한다. -PloadTest.java=17 로 실행하면 가상 스레드 쪽은 건너뛴다.
+tasks.register<Test>("loadTest") {
+    description = "Runs load tests tagged with 'load'."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    javaLauncher.set(javaToolchains.launcherFor {
+        languageVersion.set(
+            providers.gradleProperty("loadTest.java")
+                .map { JavaLanguageVersion.of(it) }
+                .orElse(JavaLanguageVersion.of(21))
+        )
+    })
+    useJUnitPlatform {
+        includeTags("load")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
 }
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+
+/**
+ * 지연 없이 PointHistoryTable 과 같은 모양(ArrayList 에 PointHistory)으로 내역을 보관하는 테이블.
+ * PointHistoryTable 은 기록마다 최대 300ms 를 기다려 많은 행을 채울 수 없으므로, 메모리 비교의 기준으로 쓴다.
+ */
+class InMemoryPointHistoryTable extends PointHistoryTable {
+
+	private final List<PointHistory> table = new ArrayList<>();
+
+	private long cursor = 1;
+
+	@Override
+	public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+		PointHistory pointHistory = new PointHistory(cursor++, userId, amount, type, updateMillis);
+		table.add(pointHistory);
+		return pointHistory;
+	}
+
+	@Override
+	public List<PointHistory> selectAllByUserId(long userId) {
+		return table.stream().filter(pointHistory -> pointHistory.userId() == userId).toList();
+	}
+}
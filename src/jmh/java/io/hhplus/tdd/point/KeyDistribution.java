@@ -0,0 +1,51 @@
+package io.hhplus.tdd.point;
+
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크에서 요청할 유저 id 의 분포
+ * - HOT : 모든 요청이 한 유저에 몰린다.
+ * - UNIFORM : 모든 유저가 같은 확률로 요청된다.
+ * - ZIPF : 순위가 k 인 유저가 1/k 에 비례하는 확률로 요청된다.
+ */
+public enum KeyDistribution {
+	HOT, UNIFORM, ZIPF;
+
+	public KeySampler sampler(int users) {
+		return switch (this) {
+			case HOT -> random -> 1L;
+			case UNIFORM -> random -> 1L + random.nextInt(users);
+			case ZIPF -> zipf(users);
+		};
+	}
+
+	private static KeySampler zipf(int users) {
+		double[] cumulative = new double[users];
+		double sum = 0;
+		for (int rank = 1; rank <= users; rank++) {
+			sum += 1.0 / rank;
+			cumulative[rank - 1] = sum;
+		}
+		double total = sum;
+
+		return random -> {
+			double target = random.nextDouble() * total;
+			int low = 0;
+			int high = users - 1;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (cumulative[mid] < target) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low + 1L;
+		};
+	}
+
+	@FunctionalInterface
+	public interface KeySampler {
+		long next(SplittableRandom random);
+	}
+}
@@ -0,0 +1,25 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+
+/**
+ * 지연 없이 id 만 발급하는 PointHistoryTable.
+ * 조회는 TablePointHistoryRepository 의 PointHistoryIndex 가 담당하므로 내역 자체는 보관하지 않는다.
+ */
+class NoThrottlePointHistoryTable extends PointHistoryTable {
+
+	private final AtomicLong cursor = new AtomicLong(1);
+
+	@Override
+	public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+		return new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+	}
+
+	@Override
+	public List<PointHistory> selectAllByUserId(long userId) {
+		return List.of();
+	}
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.hhplus.tdd.database.UserPointTable;
+
+/**
+ * 지연 없이 동작하는 UserPointTable. 서비스 자체의 오버헤드만 측정할 때 사용한다.
+ */
+class NoThrottleUserPointTable extends UserPointTable {
+
+	private final ConcurrentHashMap<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+	@Override
+	public UserPoint selectById(Long id) {
+		UserPoint userPoint = table.get(id);
+		return userPoint == null ? UserPoint.empty(id) : userPoint;
+	}
+
+	@Override
+	public UserPoint insertOrUpdate(long id, long amount) {
+		UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+		table.put(id, userPoint);
+		return userPoint;
+	}
+}
@@ -0,0 +1,100 @@
+package io.hhplus.tdd.point;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 서비스가 내역을 기록하는 길(PointHistoryWriter 를 거쳐 저장소)로 entries 개의 내역을 채우는 시간과,
+ * 채운 뒤 GC 를 해도 남는 힙 크기를 비교한다. 남는 힙에는 저장소와 조회에 쓰는 구조가 모두 들어간다.
+ * - table : InMemoryPointHistoryTable (PointHistoryTable 과 같은 모양, 지연 없음)과 조회용 PointHistoryIndex
+ * - columnar : ColumnarPointHistoryRepository (조회도 같은 배열에서 한다)
+ * 남는 힙 크기는 iteration 이 끝날 때 출력한다. GC 횟수와 시간은 -prof gc 로 함께 본다.
+ * 예) java -Xmx4g -jar build/libs/hhplus-tdd-jvm-jmh.jar PointHistoryRepositoryBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class PointHistoryRepositoryBenchmark {
+
+	private static final TransactionType[] TYPES = TransactionType.values();
+
+	@Param({"table", "columnar"})
+	public String store;
+
+	@Param({"10000000"})
+	public int entries;
+
+	@Param({"10000"})
+	public int users;
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+	private PointHistoryRepository repository;
+
+	private PointHistoryWriter writer;
+
+	private long baselineBytes;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		repository = null;
+		writer = null;
+		baselineBytes = usedHeapAfterGc();
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() throws InterruptedException {
+		long retainedBytes = usedHeapAfterGc() - baselineBytes;
+		System.out.printf("%n[%s] retained %,d bytes (%.1f bytes/entry), user 1 has %d entries%n",
+			store, retainedBytes, (double)retainedBytes / entries, repository.countByUserId(1L));
+		writer.close();
+		writer = null;
+		repository = null;
+	}
+
+	@Benchmark
+	public PointHistoryRepository fill() {
+		PointHistoryRepository target = switch (store) {
+			case "table" -> new TablePointHistoryRepository(new InMemoryPointHistoryTable());
+			case "columnar" -> new ColumnarPointHistoryRepository();
+			default -> throw new IllegalArgumentException("unknown store: " + store);
+		};
+		PointHistoryWriter targetWriter = new PointHistoryWriter(target, PointMetrics.noop(), 10_000, 1000);
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < entries; i++) {
+			targetWriter.append(random.nextInt(users) + 1, random.nextInt(1, 1000), TYPES[random.nextInt(2)], i, 0L);
+		}
+		targetWriter.flush();
+		repository = target;
+		writer = targetWriter;
+		return target;
+	}
+
+	private long usedHeapAfterGc() {
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
@@ -0,0 +1,125 @@
+package io.hhplus.tdd.point;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * PointJournal 복구 속도를 측정한다. 한번 실행에 걸리는 시간(SingleShotTime)을 잰다.
+ * - replay : 저널 레코드를 읽어 해석하는 시간
+ * - recover : PointJournalRecovery 로 NoThrottle 테이블까지 다시 채우는 시간
+ * 스냅샷은 레코드의 snapshotRatio 만큼 기록한 시점에 만든다. useSnapshot 이 true 이면 스냅샷의 잔고, 내역, 누적 집계를 들이고
+ * 그 뒤의 저널만 재생하며, false 이면 스냅샷 없이 저널 전체를 재생한다.
+ * 예) java -jar build/libs/hhplus-tdd-jvm-jmh.jar PointJournalBenchmark -p records=5000000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PointJournalBenchmark {
+
+	private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	@Param({"1000000"})
+	public int records;
+
+	@Param({"10000"})
+	public int users;
+
+	@Param({"false", "true"})
+	public boolean useSnapshot;
+
+	@Param({"0.9"})
+	public double snapshotRatio;
+
+	private Path directory;
+
+	private Path snapshotDirectory;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException, InterruptedException {
+		directory = Files.createTempDirectory("point-journal-benchmark");
+		snapshotDirectory = Files.createTempDirectory("point-snapshot-benchmark");
+		PointJournal journal = new PointJournal(true, directory, SEGMENT_SIZE);
+		PointSnapshotter snapshotter = new PointSnapshotter(journal, true, snapshotDirectory, 60, 1);
+		SplittableRandom random = new SplittableRandom(42);
+		long[] points = new long[users];
+		int snapshotAt = (int)(records * snapshotRatio);
+		for (int i = 0; i < records; i++) {
+			if (i == snapshotAt) {
+				snapshotter.snapshot();
+			}
+			int user = random.nextInt(users);
+			long amount = random.nextInt(1, 1000);
+			points[user] += amount;
+			journal.append(user + 1, amount, TransactionType.CHARGE, i, points[user]);
+		}
+		snapshotter.close();
+		journal.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		delete(directory);
+		delete(snapshotDirectory);
+	}
+
+	@Benchmark
+	public long replay(Blackhole blackhole) throws InterruptedException {
+		PointJournal journal = new PointJournal(true, directory, SEGMENT_SIZE);
+		try {
+			return journal.replay((userId, amount, type, updateMillis, point, expiresAt) -> blackhole.consume(point));
+		} finally {
+			journal.close();
+		}
+	}
+
+	@Benchmark
+	public UserPoint recover() throws InterruptedException {
+		PointJournal journal = new PointJournal(true, directory, SEGMENT_SIZE);
+		PointSnapshotter snapshotter = new PointSnapshotter(journal, useSnapshot, snapshotDirectory, 3600, 1);
+		NoThrottleUserPointTable userPointTable = new NoThrottleUserPointTable();
+		PointMetrics metrics = PointMetrics.noop();
+		PointHistoryRepository historyRepo = new TablePointHistoryRepository(new NoThrottlePointHistoryTable());
+		PointHistoryWriter historyWriter = new PointHistoryWriter(historyRepo, metrics, 10_000, 100);
+		try {
+			new PointJournalRecovery(journal, snapshotter, userPointTable, historyWriter, new PointStatsIndex(),
+				new PointLotLedger(1000, 64), metrics).recover();
+			historyWriter.flush();
+			return userPointTable.selectById(1L);
+		} finally {
+			snapshotter.close();
+			historyWriter.close();
+			journal.close();
+		}
+	}
+
+	private static void delete(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+				Files.delete(path);
+			}
+		}
+	}
+}
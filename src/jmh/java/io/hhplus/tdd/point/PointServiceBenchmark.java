@@ -0,0 +1,124 @@
+package io.hhplus.tdd.point;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * PointService 의 charge, use, get, getHistoriesBy 처리량과 지연을 측정한다.
+ * 스레드 수는 -t (gradle 에서는 -Pjmh.threads), 파라미터는 -p 로 바꾼다.
+ * 예) java -jar build/libs/hhplus-tdd-jvm-jmh.jar PointServiceBenchmark -t 16 -p distribution=ZIPF -p stubThrottle=false
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PointServiceBenchmark {
+
+	private static final long INITIAL_POINT = PointService.MAX_POINT / 2;
+
+	private static final long AMOUNT = 10;
+
+	@Param({"HOT", "UNIFORM", "ZIPF"})
+	public KeyDistribution distribution;
+
+	@Param({"1000"})
+	public int users;
+
+	/**
+	 * mixed 벤치마크에서 조회(get) 요청의 비율. 나머지는 charge 와 use 가 반씩 차지한다.
+	 */
+	@Param({"0.8"})
+	public double readRatio;
+
+	@Param({"true"})
+	public boolean stubThrottle;
+
+	@Param({"lock", "optimistic", "actor"})
+	public String concurrencyMode;
+
+	private PointServiceFixture fixture;
+
+	private PointService pointService;
+
+	private KeyDistribution.KeySampler sampler;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		fixture = new PointServiceFixture(stubThrottle, concurrencyMode);
+		pointService = fixture.pointService;
+		sampler = distribution.sampler(users);
+		for (long userId = 1; userId <= users; userId++) {
+			pointService.charge(userId, INITIAL_POINT, System.currentTimeMillis());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		fixture.close();
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+
+		final SplittableRandom random = new SplittableRandom();
+	}
+
+	@Benchmark
+	public Object charge(ThreadState state) {
+		return chargeOrReject(sampler.next(state.random));
+	}
+
+	@Benchmark
+	public Object use(ThreadState state) {
+		return useOrReject(sampler.next(state.random));
+	}
+
+	@Benchmark
+	public UserPoint get(ThreadState state) {
+		return pointService.get(sampler.next(state.random));
+	}
+
+	@Benchmark
+	public Object getHistoriesBy(ThreadState state) {
+		return pointService.getHistoriesBy(sampler.next(state.random));
+	}
+
+	@Benchmark
+	public Object mixed(ThreadState state) {
+		long userId = sampler.next(state.random);
+		double dice = state.random.nextDouble();
+		if (dice < readRatio) {
+			return pointService.get(userId);
+		}
+		return dice < readRatio + (1 - readRatio) / 2 ? chargeOrReject(userId) : useOrReject(userId);
+	}
+
+	/**
+	 * 한 유저에 요청이 몰리면 잔고가 한도에 닿을 수 있으므로 거절도 측정 대상에 포함한다.
+	 */
+	private Object chargeOrReject(long userId) {
+		try {
+			return pointService.charge(userId, AMOUNT, System.currentTimeMillis());
+		} catch (IllegalArgumentException e) {
+			return e;
+		}
+	}
+
+	private Object useOrReject(long userId) {
+		try {
+			return pointService.use(userId, AMOUNT, System.currentTimeMillis());
+		} catch (IllegalArgumentException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package io.hhplus.tdd.point;
+
+import java.time.Duration;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+
+/**
+ * 벤치마크에서 스프링 없이 PointService 를 조립한다.
+ * stubThrottle 이 true 이면 테이블 지연을 뺀 NoThrottle 테이블을 사용한다.
+ * concurrencyMode 는 point.concurrency.mode 와 같은 값(lock, optimistic, actor)을 받는다.
+ */
+class PointServiceFixture {
+
+	final UserPointTable userPointTable;
+
+	final PointHistoryTable pointHistoryTable;
+
+	final PointMetrics metrics = PointMetrics.noop();
+
+	final PointLockProvider lockProvider = new PointLockProvider(metrics);
+
+	final PointHotUserTracker hotUserTracker = new PointHotUserTracker(64, 100, 10);
+
+	final UserPointCache userPointCache = new UserPointCache(10_000);
+
+	final PointHistoryRepository historyRepository;
+
+	final PointHistoryWriter historyWriter;
+
+	final PointStore pointStore;
+
+	final PointUpdater pointUpdater;
+
+	final PointService pointService;
+
+	PointServiceFixture(boolean stubThrottle, String concurrencyMode) {
+		this.userPointTable = stubThrottle ? new NoThrottleUserPointTable() : new UserPointTable();
+		this.pointHistoryTable = stubThrottle ? new NoThrottlePointHistoryTable() : new PointHistoryTable();
+		this.historyRepository = new TablePointHistoryRepository(pointHistoryTable);
+		this.historyWriter = new PointHistoryWriter(historyRepository, metrics, 10_000, 100);
+		this.pointStore = new PointStore(userPointTable, userPointCache, historyRepository, historyWriter,
+			new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), metrics);
+		this.pointUpdater = switch (concurrencyMode) {
+			case "lock" -> new LockPointUpdater(pointStore, lockProvider, hotUserTracker, metrics,
+				100, 0, 200, 3000, 16, false);
+			case "optimistic" -> new OptimisticPointUpdater(pointStore, metrics, 3000, 1000, 60_000);
+			case "actor" -> new ActorPointUpdater(pointStore, metrics,
+				Runtime.getRuntime().availableProcessors(), 10_000, 100);
+			default -> throw new IllegalArgumentException("알 수 없는 concurrencyMode: " + concurrencyMode);
+		};
+		this.pointService = new PointService(pointStore, pointUpdater,
+			new PointIdempotencyStore(100_000, Duration.ofMinutes(10)), hotUserTracker);
+	}
+
+	void close() throws InterruptedException {
+		if (pointUpdater instanceof ActorPointUpdater actorPointUpdater) {
+			actorPointUpdater.close();
+		}
+		if (pointUpdater instanceof LockPointUpdater lockPointUpdater) {
+			lockPointUpdater.close();
+		}
+		historyWriter.close();
+	}
+}
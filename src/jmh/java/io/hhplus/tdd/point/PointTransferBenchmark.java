@@ -0,0 +1,84 @@
+package io.hhplus.tdd.point;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 여러 유저 쌍 사이의 동시 전송 처리량과 지연을 측정한다. 전송은 lock 모드에서만 지원한다.
+ * 보내는 유저와 받는 유저를 각각 distribution 으로 뽑으므로, 같은 쌍이 서로 반대 방향으로 전송하는 경우도 포함된다.
+ * users 가 작을수록 두 락을 두고 다투는 전송이 늘어난다.
+ * 예) java -jar build/libs/hhplus-tdd-jvm-jmh.jar PointTransferBenchmark -t 16 -p users=10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PointTransferBenchmark {
+
+	private static final long INITIAL_POINT = PointService.MAX_POINT / 2;
+
+	private static final long AMOUNT = 10;
+
+	@Param({"UNIFORM", "ZIPF"})
+	public KeyDistribution distribution;
+
+	@Param({"10", "1000"})
+	public int users;
+
+	@Param({"true"})
+	public boolean stubThrottle;
+
+	private PointServiceFixture fixture;
+
+	private PointService pointService;
+
+	private KeyDistribution.KeySampler sampler;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		fixture = new PointServiceFixture(stubThrottle, "lock");
+		pointService = fixture.pointService;
+		sampler = distribution.sampler(users);
+		for (long userId = 1; userId <= users; userId++) {
+			pointService.charge(userId, INITIAL_POINT, System.currentTimeMillis());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		fixture.close();
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState {
+
+		final SplittableRandom random = new SplittableRandom();
+	}
+
+	/**
+	 * 같은 유저가 뽑히면 다음 유저에게 보낸다. 잔고가 한도에 닿아 거절된 전송도 측정 대상에 포함한다.
+	 */
+	@Benchmark
+	public Object transfer(ThreadState state) {
+		long fromId = sampler.next(state.random);
+		long toId = sampler.next(state.random);
+		if (fromId == toId) {
+			toId = fromId % users + 1;
+		}
+		try {
+			return pointService.transfer(fromId, toId, AMOUNT, System.currentTimeMillis());
+		} catch (IllegalArgumentException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,296 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 유저 id 로 나눈 메일박스마다 하나의 워커 스레드가 변경을 순서대로 적용한다.
+ * 한 유저의 변경은 항상 같은 워커가 도착한 순서대로 처리하므로 락이 필요 없다.
+ * 워커는 메일박스에 쌓인 명령을 batchSize 만큼 꺼내 유저별로 묶고, 한 유저의 연속된 명령은 한번의 insertOrUpdate 로 저장한다.
+ * 메일박스가 가득 차면 명령을 넣는 스레드가 자리가 날 때까지 대기한다.
+ * close 는 진행 중인 명령 넣기가 끝난 뒤에 종료를 표시하므로, 메일박스에 들어간 명령은 워커가 처리하거나 close 가 실패로 끝낸다.
+ * 워커가 인터럽트되어 멈추면 그 워커의 메일박스는 더 처리되지 않으므로, 남은 명령을 실패로 끝내고 종료를 표시해 더 받지 않는다.
+ * 꺼낸 명령의 결과는 저널이 디스크에 반영된 뒤에 한번에 돌려준다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "point.concurrency.mode", havingValue = "actor")
+public class ActorPointUpdater implements PointUpdater {
+
+	private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+	private final PointStore pointStore;
+
+	private final PointMetrics metrics;
+
+	private final List<BlockingQueue<Command>> mailboxes;
+
+	private final List<Thread> workers;
+
+	private final int batchSize;
+
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+	private volatile boolean closed;
+
+	public ActorPointUpdater(
+		PointStore pointStore,
+		PointMetrics metrics,
+		@Value("${point.concurrency.actor.workers:4}") int workerCount,
+		@Value("${point.concurrency.actor.mailbox-capacity:10000}") int capacity,
+		@Value("${point.concurrency.actor.batch-size:100}") int batchSize
+	) {
+		this.pointStore = pointStore;
+		this.metrics = metrics;
+		this.batchSize = batchSize;
+		this.mailboxes = new ArrayList<>(workerCount);
+		this.workers = new ArrayList<>(workerCount);
+		for (int i = 0; i < workerCount; i++) {
+			BlockingQueue<Command> mailbox = new ArrayBlockingQueue<>(capacity);
+			Thread worker = new Thread(() -> work(mailbox), "point-actor-" + i);
+			worker.setDaemon(true);
+			mailboxes.add(mailbox);
+			workers.add(worker);
+		}
+		workers.forEach(Thread::start);
+	}
+
+	@Override
+	public UserPoint update(PointOperation operation, long updateMillis) {
+		return await(enqueue(operation.userId(), List.of(operation), updateMillis)
+			.thenApply(committed -> committed.applied().single(committed.updateMillis())));
+	}
+
+	@Override
+	public List<PointOperationResult> updateAll(long userId, List<PointOperation> operations, long updateMillis) {
+		return await(enqueue(userId, operations, updateMillis)
+			.thenApply(committed -> committed.applied().toResults(committed.updateMillis())));
+	}
+
+	/**
+	 * 소멸도 메일박스에 넣어 워커가 차례대로 처리한다. 앞서 들어온 사용이 묶음을 차감한 뒤에 만료된 묶음을 빼므로,
+	 * 이미 사용한 포인트를 소멸시키지 않는다.
+	 */
+	@Override
+	public UserPoint expire(long userId, long expireMillis) {
+		return await(enqueue(userId, null, expireMillis).thenApply(committed -> committed.applied().hasApplied()
+			? committed.applied().single(committed.updateMillis()) : null));
+	}
+
+	@Override
+	public CompletableFuture<UserPoint> submit(long userId, TransactionType type, long amount, long updateMillis) {
+		return enqueue(userId, List.of(new PointOperation(userId, type, amount)), updateMillis)
+			.thenApply(committed -> committed.applied().single(committed.updateMillis()));
+	}
+
+	public int pendingCount() {
+		return mailboxes.stream().mapToInt(BlockingQueue::size).sum();
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException {
+		closeLock.writeLock().lock();
+		try {
+			closed = true;
+		} finally {
+			closeLock.writeLock().unlock();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		IllegalStateException closedException = new IllegalStateException("포인트 변경 처리가 종료되었습니다");
+		mailboxes.forEach(mailbox -> failAll(mailbox, closedException));
+	}
+
+	private CompletableFuture<Committed> enqueue(long userId, List<PointOperation> operations, long updateMillis) {
+		closeLock.readLock().lock();
+		try {
+			if (closed) {
+				throw new IllegalStateException("포인트 변경 처리가 종료되었습니다");
+			}
+			Command command = new Command(userId, operations, updateMillis);
+			mailboxes.get(Math.floorMod(Long.hashCode(userId), mailboxes.size())).put(command);
+			return command.committed;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("포인트 변경 대기 중 인터럽트되었습니다", e);
+		} finally {
+			closeLock.readLock().unlock();
+		}
+	}
+
+	private void work(BlockingQueue<Command> mailbox) {
+		List<Command> batch = new ArrayList<>(batchSize);
+		try {
+			while (!closed || !mailbox.isEmpty()) {
+				Command first = mailbox.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				mailbox.drainTo(batch, batchSize - 1);
+
+				Map<Long, List<Command>> commandsByUser = new LinkedHashMap<>();
+				batch.forEach(command ->
+					commandsByUser.computeIfAbsent(command.userId, key -> new ArrayList<>()).add(command));
+				commandsByUser.forEach(this::apply);
+				complete(batch);
+				batch.clear();
+			}
+		} catch (InterruptedException e) {
+			log.warn("포인트 변경 워커가 인터럽트되었습니다. 남은 명령 {}건을 실패로 끝내고 더 받지 않습니다", mailbox.size());
+			abandon(mailbox, batch);
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException | Error e) {
+			log.error("포인트 변경 워커가 멈췄습니다. 남은 명령 {}건을 실패로 끝내고 더 받지 않습니다", mailbox.size(), e);
+			abandon(mailbox, batch);
+			throw e;
+		}
+	}
+
+	/**
+	 * 멈춘 워커가 꺼낸 명령과 메일박스의 명령을 실패로 끝내고 종료를 표시한다. 이미 끝난 명령은 그대로 둔다.
+	 * 가득 찬 메일박스에 넣으려고 대기하는 스레드가 closeLock 을 쥐고 있을 수 있으므로, 종료를 표시할 때까지 메일박스를 비운다.
+	 */
+	private void abandon(BlockingQueue<Command> mailbox, List<Command> batch) {
+		IllegalStateException stopped = new IllegalStateException("포인트 변경 워커가 멈춰 처리하지 못했습니다");
+		batch.forEach(command -> command.committed.completeExceptionally(stopped));
+		while (!closeLock.writeLock().tryLock()) {
+			failAll(mailbox, stopped);
+			Thread.onSpinWait();
+		}
+		try {
+			closed = true;
+		} finally {
+			closeLock.writeLock().unlock();
+		}
+		failAll(mailbox, stopped);
+	}
+
+	private static void failAll(BlockingQueue<Command> mailbox, RuntimeException cause) {
+		List<Command> remaining = new ArrayList<>();
+		mailbox.drainTo(remaining);
+		remaining.forEach(command -> command.committed.completeExceptionally(cause));
+	}
+
+	/**
+	 * 한 유저의 명령을 도착한 순서대로 적용하고, 적용된 항목이 있으면 잔고를 한번만 저장한다.
+	 * 소멸 명령은 앞선 명령의 묶음 차감이 끝난 뒤에 만료된 묶음을 빼야 하므로, 그 앞뒤 명령과 나눠 따로 저장한다.
+	 */
+	private void apply(long userId, List<Command> commands) {
+		int from = 0;
+		while (from < commands.size()) {
+			int to = from + 1;
+			if (!commands.get(from).expiry) {
+				while (to < commands.size() && !commands.get(to).expiry) {
+					to++;
+				}
+			}
+			applyCommands(userId, commands.subList(from, to));
+			from = to;
+		}
+	}
+
+	private void applyCommands(long userId, List<Command> commands) {
+		try {
+			long point = pointStore.find(userId).point();
+			List<AppliedOperations> results = new ArrayList<>(commands.size());
+			boolean changed = false;
+			for (Command command : commands) {
+				if (command.expiry) {
+					long amount = pointStore.expireLots(userId, command.updateMillis);
+					command.operations = amount == 0
+						? List.of() : List.of(new PointOperation(userId, TransactionType.EXPIRE, amount));
+				}
+				AppliedOperations applied = AppliedOperations.apply(userId, point, command.operations);
+				applied.recordRejections(metrics);
+				point = applied.point();
+				changed |= applied.hasApplied();
+				results.add(applied);
+			}
+
+			long savedMillis = changed ? pointStore.save(userId, point).updateMillis() : 0L;
+			for (int i = 0; i < commands.size(); i++) {
+				Command command = commands.get(i);
+				pointStore.appendHistories(userId, results.get(i), command.updateMillis);
+				command.result = new Committed(results.get(i), savedMillis);
+			}
+		} catch (RuntimeException e) {
+			log.error("포인트 변경 처리에 실패했습니다. userId={}", userId, e);
+			commands.forEach(command -> command.committed.completeExceptionally(e));
+		}
+	}
+
+	/**
+	 * 묶음 전체의 저널이 디스크에 반영된 뒤에 결과를 돌려준다. 이미 실패한 명령은 그대로 둔다.
+	 */
+	private void complete(List<Command> batch) {
+		try {
+			pointStore.awaitDurable();
+		} catch (RuntimeException e) {
+			batch.forEach(command -> command.committed.completeExceptionally(e));
+			return;
+		}
+		batch.forEach(command -> {
+			if (command.result != null) {
+				command.committed.complete(command.result);
+			}
+		});
+	}
+
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private record Committed(AppliedOperations applied, long updateMillis) {
+	}
+
+	/**
+	 * operations 가 null 이면 소멸 명령이며, 워커가 처리할 때 만료된 묶음으로 operations 를 정한다.
+	 */
+	private static final class Command {
+
+		private final long userId;
+
+		private final boolean expiry;
+
+		private List<PointOperation> operations;
+
+		private final long updateMillis;
+
+		private final CompletableFuture<Committed> committed = new CompletableFuture<>();
+
+		private Committed result;
+
+		private Command(long userId, List<PointOperation> operations, long updateMillis) {
+			this.userId = userId;
+			this.expiry = operations == null;
+			this.operations = operations;
+			this.updateMillis = updateMillis;
+		}
+	}
+}
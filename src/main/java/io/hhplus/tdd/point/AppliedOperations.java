@@ -0,0 +1,124 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 유저의 잔고에 여러 변경을 순서대로 적용한 결과.
+ * 규칙에 어긋난 항목은 잔고에 반영하지 않고 실패로 남긴 채 다음 항목을 계속 적용한다.
+ * 소멸은 잔고가 0 아래로 내려가지 않게 줄어들 수 있으므로, 요청한 금액이 아니라 실제로 줄어든 금액의 항목으로 남긴다.
+ */
+final class AppliedOperations {
+
+	private final long userId;
+
+	private final List<PointOperation> operations;
+
+	private final long[] points;
+
+	private final IllegalArgumentException[] failures;
+
+	private final List<PointOperation> applied;
+
+	private final long point;
+
+	private AppliedOperations(long userId, List<PointOperation> operations, long[] points,
+		IllegalArgumentException[] failures, List<PointOperation> applied, long point) {
+		this.userId = userId;
+		this.operations = operations;
+		this.points = points;
+		this.failures = failures;
+		this.applied = applied;
+		this.point = point;
+	}
+
+	static AppliedOperations apply(long userId, long point, List<PointOperation> operations) {
+		long[] points = new long[operations.size()];
+		IllegalArgumentException[] failures = new IllegalArgumentException[operations.size()];
+		List<PointOperation> applied = new ArrayList<>(operations.size());
+		List<PointOperation> effective = new ArrayList<>(operations);
+
+		for (int i = 0; i < operations.size(); i++) {
+			PointOperation operation = operations.get(i);
+			try {
+				if (operation.type() == null) {
+					throw new IllegalArgumentException("포인트 변경 종류가 없습니다");
+				}
+				if (operation.expiresAt() != null && operation.type() != TransactionType.CHARGE) {
+					throw new IllegalArgumentException("유효기간은 충전에만 지정할 수 있습니다");
+				}
+				long next = PointPolicy.apply(point, operation.type(), operation.amount());
+				if (operation.type() == TransactionType.EXPIRE && point - next != operation.amount()) {
+					operation = new PointOperation(userId, TransactionType.EXPIRE, point - next);
+					effective.set(i, operation);
+				}
+				point = next;
+				points[i] = point;
+				applied.add(operation);
+			} catch (IllegalArgumentException e) {
+				failures[i] = e;
+			}
+		}
+		return new AppliedOperations(userId, effective, points, failures, applied, point);
+	}
+
+	static AppliedOperations apply(long userId, long point, TransactionType type, long amount) {
+		return apply(userId, point, List.of(new PointOperation(userId, type, amount)));
+	}
+
+	/**
+	 * 모든 항목을 적용한 뒤의 잔고
+	 */
+	long point() {
+		return point;
+	}
+
+	boolean hasApplied() {
+		return !applied.isEmpty();
+	}
+
+	/**
+	 * 적용된 항목과 그 항목까지 적용한 잔고를 순서대로 넘긴다.
+	 */
+	void forEachApplied(AppliedConsumer consumer) {
+		for (int i = 0; i < operations.size(); i++) {
+			if (failures[i] == null) {
+				consumer.accept(operations.get(i), points[i]);
+			}
+		}
+	}
+
+	void recordRejections(PointMetrics metrics) {
+		for (IllegalArgumentException failure : failures) {
+			if (failure instanceof PointPolicyException policyException) {
+				metrics.recordRejected(policyException.getReason());
+			}
+		}
+	}
+
+	List<PointOperationResult> toResults(long updateMillis) {
+		List<PointOperationResult> results = new ArrayList<>(operations.size());
+		for (int i = 0; i < operations.size(); i++) {
+			results.add(failures[i] == null
+				? PointOperationResult.succeeded(operations.get(i), new UserPoint(userId, points[i], updateMillis))
+				: PointOperationResult.failed(operations.get(i), failures[i].getMessage()));
+		}
+		return results;
+	}
+
+	/**
+	 * 단건 변경의 결과. 실패했다면 규칙 위반 예외를 그대로 던진다.
+	 */
+	UserPoint single(long updateMillis) {
+		if (failures[0] != null) {
+			throw failures[0];
+		}
+		return new UserPoint(userId, points[0], updateMillis);
+	}
+
+	@FunctionalInterface
+	interface AppliedConsumer {
+
+		void accept(PointOperation operation, long point);
+	}
+}
@@ -0,0 +1,176 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 내역을 행마다 객체로 두지 않고 열(금액, 변경 시각, 종류, 이전 행)별 primitive 배열에 담는다.
+ * 배열은 CHUNK_SIZE 행 단위 청크로 늘려, 커질 때 전체를 복사하지 않는다. 종류는 TransactionType 의 ordinal 을 byte 로 저장한다.
+ * 행의 위치(offset)가 곧 id - 1 이다.
+ *
+ * 유저마다 마지막 행의 위치만 두고, 각 행은 같은 유저의 이전 행 위치를 가리킨다(offset chain).
+ * 유저의 내역을 읽을 때 전체 행을 훑지 않고 그 유저의 행만 따라간다.
+ * forEachByUserId 는 PointHistory 를 만들지 않고 열의 값을 그대로 넘긴다.
+ * 조회도 이 배열에서 하므로 PointHistoryIndex 처럼 내역을 따로 복사해 두지 않는다.
+ *
+ * 행 하나는 21 byte(금액 8, 시각 8, 종류 1, 이전 행 4)이며 객체 헤더와 참조가 없다.
+ * 기록과 조회는 하나의 모니터로 직렬화한다. 기록은 PointHistoryWriter 의 스레드 하나가 하므로 다툼이 거의 없다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.history.store", havingValue = "columnar")
+public class ColumnarPointHistoryRepository implements PointHistoryRepository {
+
+	private static final int CHUNK_BITS = 16;
+
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private static final int NO_PREVIOUS = -1;
+
+	private static final TransactionType[] TYPES = TransactionType.values();
+
+	private final Map<Long, UserChain> chains = new HashMap<>();
+
+	private long[][] amounts = new long[16][];
+
+	private long[][] updateMillis = new long[16][];
+
+	private byte[][] types = new byte[16][];
+
+	private int[][] previous = new int[16][];
+
+	private int size;
+
+	@Override
+	public synchronized PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+		if (size == Integer.MAX_VALUE) {
+			throw new IllegalStateException("포인트 내역 저장소가 가득 찼습니다");
+		}
+		int chunk = size >>> CHUNK_BITS;
+		int index = size & CHUNK_MASK;
+		if (index == 0) {
+			addChunk(chunk);
+		}
+		UserChain chain = chains.computeIfAbsent(userId, key -> new UserChain());
+		this.amounts[chunk][index] = amount;
+		this.updateMillis[chunk][index] = updateMillis;
+		this.types[chunk][index] = (byte)type.ordinal();
+		this.previous[chunk][index] = chain.last;
+		chain.last = size;
+		chain.count++;
+		size++;
+		return new PointHistory(size, userId, amount, type, updateMillis);
+	}
+
+	@Override
+	public List<PointHistory> selectAllByUserId(long userId) {
+		List<PointHistory> histories = new ArrayList<>();
+		forEachByUserId(userId, (id, amount, type, millis) ->
+			histories.add(new PointHistory(id, userId, amount, type, millis)));
+		return histories;
+	}
+
+	/**
+	 * 기록한 순서대로 넘긴다. visitor 는 모니터 안에서 호출된다.
+	 */
+	@Override
+	public synchronized void forEachByUserId(long userId, HistoryVisitor visitor) {
+		for (int row : offsets(userId)) {
+			int chunk = row >>> CHUNK_BITS;
+			int index = row & CHUNK_MASK;
+			visitor.visit(row + 1L, amounts[chunk][index], TYPES[types[chunk][index]], updateMillis[chunk][index]);
+		}
+	}
+
+	/**
+	 * 행의 위치가 id - 1 이므로, 커서 다음 행은 유저의 행 위치에서 이분 탐색으로 찾는다.
+	 */
+	@Override
+	public synchronized PointHistoryPage findPage(long userId, PointHistoryQuery query) {
+		int[] offsets = offsets(userId);
+		List<PointHistory> result = new ArrayList<>(Math.min(query.size(), offsets.length));
+		int i = query.cursor() == null ? 0 : firstIndexAfter(offsets, query.cursor());
+		for (; i < offsets.length; i++) {
+			int chunk = offsets[i] >>> CHUNK_BITS;
+			int index = offsets[i] & CHUNK_MASK;
+			TransactionType type = TYPES[types[chunk][index]];
+			if (!query.matches(updateMillis[chunk][index], type)) {
+				continue;
+			}
+			if (result.size() == query.size()) {
+				return new PointHistoryPage(result, result.get(result.size() - 1).id());
+			}
+			result.add(new PointHistory(offsets[i] + 1L, userId, amounts[chunk][index], type,
+				updateMillis[chunk][index]));
+		}
+		return new PointHistoryPage(result, null);
+	}
+
+	@Override
+	public synchronized int countByUserId(long userId) {
+		UserChain chain = chains.get(userId);
+		return chain == null ? 0 : chain.count;
+	}
+
+	@Override
+	public synchronized long[] userIds() {
+		return chains.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * 마지막 행부터 이전 행을 따라가 유저의 행 위치를 기록한 순서대로 모은다.
+	 */
+	private int[] offsets(long userId) {
+		UserChain chain = chains.get(userId);
+		if (chain == null) {
+			return new int[0];
+		}
+		int[] offsets = new int[chain.count];
+		int offset = chain.last;
+		for (int i = chain.count - 1; i >= 0; i--) {
+			offsets[i] = offset;
+			offset = previous[offset >>> CHUNK_BITS][offset & CHUNK_MASK];
+		}
+		return offsets;
+	}
+
+	private static int firstIndexAfter(int[] offsets, long cursor) {
+		if (cursor >= Integer.MAX_VALUE) {
+			return offsets.length;
+		}
+		int index = Arrays.binarySearch(offsets, (int)Math.max(cursor, 0L));
+		return index >= 0 ? index : -(index + 1);
+	}
+
+	private void addChunk(int chunk) {
+		if (chunk == amounts.length) {
+			int capacity = chunk << 1;
+			amounts = Arrays.copyOf(amounts, capacity);
+			updateMillis = Arrays.copyOf(updateMillis, capacity);
+			types = Arrays.copyOf(types, capacity);
+			previous = Arrays.copyOf(previous, capacity);
+		}
+		amounts[chunk] = new long[CHUNK_SIZE];
+		updateMillis[chunk] = new long[CHUNK_SIZE];
+		types[chunk] = new byte[CHUNK_SIZE];
+		previous[chunk] = new int[CHUNK_SIZE];
+	}
+
+	private static final class UserChain {
+
+		private int last = NO_PREVIOUS;
+
+		private int count;
+	}
+}
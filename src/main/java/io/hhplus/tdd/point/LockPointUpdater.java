@@ -0,0 +1,313 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * 유저별 락을 잡은 상태에서 잔고를 읽고, 검증하고, 저장한다.
+ * 변경 요청은 먼저 유저별 대기열에 넣고 락을 잡는다. 락을 잡은 스레드는 대기열에 쌓인 요청을 batchSize 만큼 꺼내
+ * 도착한 순서대로 검증한 뒤 잔고를 한번만 저장한다(group commit). 다른 스레드가 대신 처리한 요청은 락을 잡은 뒤 결과만 가져간다.
+ * window 가 0 보다 크면 락을 잡은 스레드가 그만큼 기다렸다가 꺼내 한번에 묶이는 요청을 늘린다.
+ * 락을 잡을 때마다 PointHotUserTracker 에 대기 시간을 남기고, 요청이 몰리는 유저는 hotWindow 만큼 기다렸다가 더 크게 묶는다.
+ * lockTimeout 안에 락을 얻지 못하면 요청을 대기열에서 빼고 PointOverloadedException 으로 실패한다.
+ * 이미 다른 스레드가 꺼내 처리 중인 요청은 뺄 수 없으므로 그 결과를 기다린다.
+ *
+ * 전송은 두 유저의 락을 id 가 작은 유저부터 잡는다. 모든 전송이 같은 순서로 잡으므로 서로 반대 방향의 전송끼리 교착되지 않는다.
+ * 두 락을 잡은 뒤 두 잔고를 함께 검증하고, 두 유저의 조회와 저장은 transferExecutor 에서 병렬로 한다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.concurrency.mode", havingValue = "lock", matchIfMissing = true)
+public class LockPointUpdater implements PointUpdater {
+
+	private final ConcurrentHashMap<Long, ConcurrentLinkedQueue<Request>> pendingByUser = new ConcurrentHashMap<>();
+
+	private final PointStore pointStore;
+
+	private final PointLockProvider lockProvider;
+
+	private final PointHotUserTracker hotUserTracker;
+
+	private final PointMetrics metrics;
+
+	private final int batchSize;
+
+	private final long windowNanos;
+
+	private final long hotWindowNanos;
+
+	private final long lockTimeoutNanos;
+
+	private final ExecutorService transferExecutor;
+
+	public LockPointUpdater(
+		PointStore pointStore,
+		PointLockProvider lockProvider,
+		PointHotUserTracker hotUserTracker,
+		PointMetrics metrics,
+		@Value("${point.concurrency.group-commit.batch-size:100}") int batchSize,
+		@Value("${point.concurrency.group-commit.window-micros:0}") long windowMicros,
+		@Value("${point.concurrency.group-commit.hot-window-micros:200}") long hotWindowMicros,
+		@Value("${point.concurrency.lock-timeout-millis:3000}") long lockTimeoutMillis,
+		@Value("${point.concurrency.transfer.parallelism:16}") int transferParallelism,
+		@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+	) {
+		this.pointStore = pointStore;
+		this.lockProvider = lockProvider;
+		this.hotUserTracker = hotUserTracker;
+		this.metrics = metrics;
+		this.batchSize = batchSize;
+		this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+		this.hotWindowNanos = Math.max(windowNanos, TimeUnit.MICROSECONDS.toNanos(hotWindowMicros));
+		this.lockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(lockTimeoutMillis);
+		this.transferExecutor = PointExecutors.newExecutor("point-transfer", transferParallelism, virtualThreads);
+	}
+
+	@Override
+	public UserPoint update(PointOperation operation, long updateMillis) {
+		Request request = commit(operation.userId(), new Request(List.of(operation), updateMillis));
+		return request.applied.single(request.savedMillis);
+	}
+
+	@Override
+	public List<PointOperationResult> updateAll(long userId, List<PointOperation> operations, long updateMillis) {
+		Request request = commit(userId, new Request(operations, updateMillis));
+		return request.applied.toResults(request.savedMillis);
+	}
+
+	/**
+	 * 소멸도 변경 요청처럼 대기열에 넣고, 앞서 들어온 요청이 모두 저장된 뒤 차례가 되었을 때 만료된 묶음을 뺀다.
+	 * 앞선 사용이 묶음을 먼저 차감하므로, 이미 사용한 포인트를 소멸시키지 않는다.
+	 */
+	@Override
+	public UserPoint expire(long userId, long expireMillis) {
+		Request request = commit(userId, new Request(null, expireMillis));
+		return request.applied.hasApplied() ? request.applied.single(request.savedMillis) : null;
+	}
+
+	/**
+	 * 보내는 유저의 잔고가 부족하거나 받는 유저의 잔고가 MAX_POINT 를 넘으면 두 잔고 모두 바꾸지 않고 PointPolicyException 이 발생한다.
+	 * 자기 자신에게 보내거나 금액이 0 이하면 락을 잡지 않고 IllegalArgumentException 이 발생한다.
+	 */
+	@Override
+	public PointTransfer transfer(long fromId, long toId, long amount, long updateMillis) {
+		PointPolicy.checkTransfer(fromId, toId, amount);
+		long firstId = Math.min(fromId, toId);
+		long secondId = Math.max(fromId, toId);
+		return lockProvider.executeWithLock(firstId, lockTimeoutNanos, () ->
+			lockProvider.executeWithLock(secondId, lockTimeoutNanos, () ->
+				transferLocked(fromId, toId, amount, updateMillis)));
+	}
+
+	@PreDestroy
+	public void close() {
+		transferExecutor.shutdown();
+	}
+
+	/**
+	 * 아직 처리되지 않은 유저의 변경 요청 수
+	 */
+	public int pendingCount(long userId) {
+		ConcurrentLinkedQueue<Request> requests = pendingByUser.get(userId);
+		return requests == null ? 0 : requests.size();
+	}
+
+	/**
+	 * 요청이 처리될 때까지 반환하지 않는다. 함께 묶인 요청의 처리 중 예외가 발생하면 묶인 요청 모두 그 예외로 실패한다.
+	 * 요청의 결과 필드는 락 안에서만 쓰고 읽으므로 락이 가시성을 보장한다.
+	 */
+	private Request commit(long userId, Request request) {
+		pendingByUser.compute(userId, (key, requests) -> {
+			ConcurrentLinkedQueue<Request> userRequests = requests == null ? new ConcurrentLinkedQueue<>() : requests;
+			userRequests.add(request);
+			return userRequests;
+		});
+
+		long enqueuedAt = System.nanoTime();
+		Supplier<Request> drain = () -> {
+			hotUserTracker.observe(userId, System.nanoTime() - enqueuedAt);
+			long window = hotUserTracker.isHot(userId) ? hotWindowNanos : windowNanos;
+			if (!request.done && window > 0) {
+				LockSupport.parkNanos(window);
+			}
+			while (!request.done) {
+				commitBatch(userId, pendingByUser.get(userId));
+			}
+			removeIfEmpty(userId);
+			if (request.failure != null) {
+				throw request.failure;
+			}
+			return request;
+		};
+
+		try {
+			return lockProvider.executeWithLock(userId, lockTimeoutNanos, drain);
+		} catch (PointOverloadedException e) {
+			ConcurrentLinkedQueue<Request> requests = pendingByUser.get(userId);
+			if (requests != null && requests.remove(request)) {
+				removeIfEmpty(userId);
+				throw e;
+			}
+			return lockProvider.executeWithLock(userId, drain);
+		}
+	}
+
+	private void removeIfEmpty(long userId) {
+		pendingByUser.computeIfPresent(userId, (key, requests) -> requests.isEmpty() ? null : requests);
+	}
+
+	/**
+	 * 대기열의 요청을 도착한 순서대로 적용하고, 적용된 항목이 있으면 잔고를 한번 저장한 뒤 항목마다 내역을 남긴다.
+	 * 소멸 요청은 앞선 요청의 묶음 차감이 끝난 뒤에 만료된 묶음을 빼야 하므로, 그 앞뒤 요청과 나눠 따로 저장한다.
+	 */
+	private void commitBatch(long userId, ConcurrentLinkedQueue<Request> requests) {
+		List<Request> batch = new ArrayList<>(Math.min(batchSize, requests.size()));
+		Request polled;
+		while (batch.size() < batchSize && (polled = requests.poll()) != null) {
+			batch.add(polled);
+		}
+
+		int from = 0;
+		while (from < batch.size()) {
+			int to = from + 1;
+			if (!batch.get(from).expiry) {
+				while (to < batch.size() && !batch.get(to).expiry) {
+					to++;
+				}
+			}
+			commitRequests(userId, batch.subList(from, to));
+			from = to;
+		}
+		metrics.recordGroupCommit(batch.size());
+	}
+
+	private void commitRequests(long userId, List<Request> batch) {
+		try {
+			long point = pointStore.find(userId).point();
+			boolean changed = false;
+			for (Request pending : batch) {
+				if (pending.expiry) {
+					long amount = pointStore.expireLots(userId, pending.updateMillis);
+					pending.operations = amount == 0
+						? List.of() : List.of(new PointOperation(userId, TransactionType.EXPIRE, amount));
+				}
+				pending.applied = AppliedOperations.apply(userId, point, pending.operations);
+				pending.applied.recordRejections(metrics);
+				point = pending.applied.point();
+				changed |= pending.applied.hasApplied();
+			}
+
+			long savedMillis = changed ? pointStore.save(userId, point).updateMillis() : 0L;
+			for (Request pending : batch) {
+				pointStore.appendHistories(userId, pending.applied, pending.updateMillis);
+				pending.savedMillis = savedMillis;
+			}
+			if (changed) {
+				pointStore.awaitDurable();
+			}
+		} catch (RuntimeException e) {
+			batch.forEach(pending -> pending.failure = e);
+		} finally {
+			batch.forEach(pending -> pending.done = true);
+		}
+	}
+
+	/**
+	 * 두 유저의 락 안에서만 호출한다. 한쪽 저장이 실패하면 저장된 다른 쪽을 원래 잔고로 되돌린다.
+	 */
+	private PointTransfer transferLocked(long fromId, long toId, long amount, long updateMillis) {
+		CompletableFuture<UserPoint> toFound = CompletableFuture.supplyAsync(() -> pointStore.find(toId),
+			transferExecutor);
+		long fromPoint = pointStore.find(fromId).point();
+		long toPoint = join(toFound).point();
+
+		AppliedOperations used = AppliedOperations.apply(fromId, fromPoint, TransactionType.USE, amount);
+		used.recordRejections(metrics);
+		used.single(updateMillis);
+		AppliedOperations charged = AppliedOperations.apply(toId, toPoint, TransactionType.CHARGE, amount);
+		charged.recordRejections(metrics);
+		charged.single(updateMillis);
+
+		CompletableFuture<UserPoint> toSaved = CompletableFuture.supplyAsync(
+			() -> pointStore.save(toId, charged.point()), transferExecutor);
+		UserPoint fromSaved;
+		try {
+			fromSaved = pointStore.save(fromId, used.point());
+		} catch (RuntimeException e) {
+			restore(toSaved, toId, toPoint);
+			throw e;
+		}
+		UserPoint toSavedPoint;
+		try {
+			toSavedPoint = join(toSaved);
+		} catch (RuntimeException e) {
+			pointStore.save(fromId, fromPoint);
+			throw e;
+		}
+
+		pointStore.appendHistories(fromId, used, updateMillis);
+		pointStore.appendHistories(toId, charged, updateMillis);
+		pointStore.awaitDurable();
+		return new PointTransfer(fromSaved, toSavedPoint);
+	}
+
+	private void restore(CompletableFuture<UserPoint> saved, long userId, long point) {
+		try {
+			join(saved);
+		} catch (RuntimeException e) {
+			return;
+		}
+		pointStore.save(userId, point);
+	}
+
+	private static UserPoint join(CompletableFuture<UserPoint> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * operations 가 null 이면 소멸 요청이며, 차례가 되었을 때 만료된 묶음으로 operations 를 정한다.
+	 */
+	private static final class Request {
+
+		private final boolean expiry;
+
+		private List<PointOperation> operations;
+
+		private final long updateMillis;
+
+		private AppliedOperations applied;
+
+		private long savedMillis;
+
+		private RuntimeException failure;
+
+		private boolean done;
+
+		private Request(List<PointOperation> operations, long updateMillis) {
+			this.expiry = operations == null;
+			this.operations = operations;
+			this.updateMillis = updateMillis;
+		}
+
+	}
+}
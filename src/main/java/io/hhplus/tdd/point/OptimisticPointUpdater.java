@@ -0,0 +1,329 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 유저별 잔고를 버전과 함께 메모리에 두고 CAS 로 갱신한다.
+ * 검증과 갱신은 하나의 compareAndSet 으로 원자적으로 이뤄지고, 다른 스레드가 먼저 갱신했으면 새 잔고로 다시 검증한다.
+ * 테이블 저장은 버전 순서를 지키기 위해 한번에 한 스레드만 하며, 그 사이 쌓인 버전은 한번의 insertOrUpdate 로 저장한다.
+ * 호출한 스레드는 자기 버전이 저장될 때까지 기다렸다가 반환한다.
+ * 저장되지 않은 버전이 maxPending 개 쌓였으면 갱신 전에 자리가 나기를 기다리고, timeoutMillis 안에 나지 않으면
+ * PointOverloadedException 으로 실패한다. 이미 갱신한 버전은 저장이 끝나거나 실패할 때까지 제한 없이 기다린다.
+ * 저장에 실패하면 저장되지 않은 버전을 모두 버리고 잔고를 메모리에서 내린다. 버린 버전을 올린 호출은 모두 실패하고,
+ * 다음 변경은 테이블의 잔고를 다시 올려 시작하므로 실패한 변경이 나중에 함께 저장되지 않는다.
+ * idleMillis 동안 쓰이지 않고 모두 저장된 유저의 잔고는 메모리에서 내린다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.concurrency.mode", havingValue = "optimistic")
+public class OptimisticPointUpdater implements PointUpdater {
+
+	private static final int SPINS_BEFORE_PARK = 64;
+
+	private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	/**
+	 * 메모리에서 내린 잔고의 상태. 이 상태를 본 스레드는 유저의 잔고를 다시 올려 처음부터 시도한다.
+	 */
+	private static final Version RETIRED = new Version(-1L, 0L, null, 0L, null);
+
+	private final ConcurrentHashMap<Long, Account> accounts = new ConcurrentHashMap<>();
+
+	private final PointStore pointStore;
+
+	private final PointMetrics metrics;
+
+	private final long timeoutNanos;
+
+	private final int maxPending;
+
+	private final long idleNanos;
+
+	private final AtomicLong evictedAt = new AtomicLong(System.nanoTime());
+
+	public OptimisticPointUpdater(
+		PointStore pointStore,
+		PointMetrics metrics,
+		@Value("${point.concurrency.optimistic.timeout-millis:3000}") long timeoutMillis,
+		@Value("${point.concurrency.optimistic.max-pending:1000}") int maxPending,
+		@Value("${point.concurrency.optimistic.idle-millis:60000}") long idleMillis
+	) {
+		this.pointStore = pointStore;
+		this.metrics = metrics;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		this.maxPending = maxPending;
+		this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+	}
+
+	@Override
+	public UserPoint update(PointOperation operation, long updateMillis) {
+		Committed committed = compareAndSet(operation.userId(), List.of(operation), updateMillis);
+		return committed.applied().single(committed.account().persistedMillis);
+	}
+
+	@Override
+	public List<PointOperationResult> updateAll(long userId, List<PointOperation> operations, long updateMillis) {
+		Committed committed = compareAndSet(userId, operations, updateMillis);
+		return committed.applied().toResults(committed.account().persistedMillis);
+	}
+
+	/**
+	 * 메모리에 올라와 있는 유저 잔고 수
+	 */
+	public int accountCount() {
+		return accounts.size();
+	}
+
+	/**
+	 * 묶음은 저장할 때 차감하므로, 소멸은 저장하는 스레드의 자리를 맡아 쌓인 버전을 모두 저장한 뒤에 만료된 묶음을 구한다.
+	 * 그 사이 다른 스레드가 새 버전을 올렸다면 그 버전부터 저장하고 다시 구한다.
+	 * 소멸 버전을 올린 뒤에야 묶음을 빼므로, 저장되지 않은 사용이 차감할 묶음을 소멸시키지 않는다.
+	 * 저장하는 스레드의 자리를 timeoutMillis 안에 맡지 못하면 PointOverloadedException 으로 실패한다.
+	 */
+	@Override
+	public UserPoint expire(long userId, long expireMillis) {
+		long deadline = System.nanoTime() + timeoutNanos;
+		Account account = account(userId);
+		int spins = 0;
+		while (true) {
+			if (account.state.get() == RETIRED) {
+				account = account(userId);
+				continue;
+			}
+			if (!account.persisting.compareAndSet(false, true)) {
+				spins = backOff(spins, deadline);
+				continue;
+			}
+			try {
+				while (true) {
+					persistPending(userId, account);
+					Version current = account.state.get();
+					if (current == RETIRED) {
+						break;
+					}
+					if (current.version != account.persistedVersion) {
+						continue;
+					}
+					long amount = pointStore.findExpiredLots(userId, expireMillis);
+					if (amount == 0) {
+						return null;
+					}
+					AppliedOperations applied =
+						AppliedOperations.apply(userId, current.point, TransactionType.EXPIRE, amount);
+					Version next = new Version(current.version + 1, applied.point(), applied, expireMillis, current);
+					if (!account.state.compareAndSet(current, next)) {
+						continue;
+					}
+					pointStore.expireLots(userId, expireMillis);
+					persistPending(userId, account);
+					return applied.single(account.persistedMillis);
+				}
+			} finally {
+				account.persisting.set(false);
+			}
+		}
+	}
+
+	private Committed compareAndSet(long userId, List<PointOperation> operations, long updateMillis) {
+		long deadline = System.nanoTime() + timeoutNanos;
+		Account account = account(userId);
+		int spins = 0;
+		while (true) {
+			Version current = account.state.get();
+			if (current == RETIRED) {
+				account = account(userId);
+				continue;
+			}
+			if (current.version - account.persistedVersion >= maxPending) {
+				spins = backOff(spins, deadline);
+				continue;
+			}
+			AppliedOperations applied = AppliedOperations.apply(userId, current.point, operations);
+			if (!applied.hasApplied()) {
+				applied.recordRejections(metrics);
+				return new Committed(account, applied);
+			}
+
+			Version next = new Version(current.version + 1, applied.point(), applied, updateMillis, current);
+			if (account.state.compareAndSet(current, next)) {
+				applied.recordRejections(metrics);
+				persist(userId, account, next.version);
+				return new Committed(account, applied);
+			}
+		}
+	}
+
+	private Account account(long userId) {
+		evictIdle();
+		Account account = accounts.get(userId);
+		if (account == null) {
+			Account loaded = new Account(pointStore.find(userId));
+			Account existing = accounts.putIfAbsent(userId, loaded);
+			account = existing == null ? loaded : existing;
+		}
+		account.usedAt = System.nanoTime();
+		return account;
+	}
+
+	/**
+	 * idleMillis 마다 한 스레드만 돌며, 그동안 쓰이지 않았고 모두 저장된 잔고를 RETIRED 로 바꾼 뒤 내린다.
+	 * RETIRED 로의 compareAndSet 이 다른 스레드의 갱신과 경쟁하므로, 저장되지 않은 버전이 있는 잔고는 내리지 않는다.
+	 */
+	private void evictIdle() {
+		long now = System.nanoTime();
+		long last = evictedAt.get();
+		if (now - last < idleNanos || !evictedAt.compareAndSet(last, now)) {
+			return;
+		}
+		accounts.forEach((userId, account) -> {
+			Version current = account.state.get();
+			if (now - account.usedAt >= idleNanos && current != RETIRED
+				&& current.version == account.persistedVersion && !account.persisting.get()
+				&& account.state.compareAndSet(current, RETIRED)) {
+				accounts.remove(userId, account);
+			}
+		});
+	}
+
+	/**
+	 * version 이 저장될 때까지 반환하지 않는다.
+	 * 저장 중인 스레드가 없으면 직접 맡아 아직 저장되지 않은 버전을 모두 저장한다.
+	 * 다른 스레드의 저장이 실패해 version 이 버려졌으면 실패한다.
+	 */
+	private void persist(long userId, Account account, long version) {
+		int spins = 0;
+		while (account.persistedVersion < version) {
+			if (account.failure != null) {
+				throw new IllegalStateException("함께 저장하던 포인트 변경의 저장에 실패해 변경을 되돌렸습니다", account.failure);
+			}
+			if (account.persisting.compareAndSet(false, true)) {
+				try {
+					persistPending(userId, account);
+				} finally {
+					account.persisting.set(false);
+				}
+			} else {
+				spins = backOff(spins);
+			}
+		}
+	}
+
+	/**
+	 * 처음 SPINS_BEFORE_PARK 번은 돌며 기다리고, 그 뒤로는 쉬는 시간을 두배씩 늘려 MAX_PARK_NANOS 까지 쉰다.
+	 */
+	private static int backOff(int spins) {
+		if (spins < SPINS_BEFORE_PARK) {
+			Thread.onSpinWait();
+		} else {
+			int doublings = Math.min(spins - SPINS_BEFORE_PARK, 7);
+			LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << doublings, MAX_PARK_NANOS));
+		}
+		return spins + 1;
+	}
+
+	private int backOff(int spins, long deadline) {
+		if (System.nanoTime() - deadline >= 0) {
+			throw new PointOverloadedException(PointOverloadedException.Reason.PERSIST_TIMEOUT,
+				"저장되지 않은 변경이 " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms 안에 줄지 않았습니다");
+		}
+		return backOff(spins);
+	}
+
+	private void persistPending(long userId, Account account) {
+		Version latest = account.state.get();
+		if (latest.version <= account.persistedVersion) {
+			return;
+		}
+
+		Deque<Version> pending = new ArrayDeque<>();
+		for (Version version = latest; version != null && version.version > account.persistedVersion;
+			 version = version.previous) {
+			pending.push(version);
+		}
+
+		UserPoint saved;
+		try {
+			saved = pointStore.save(userId, latest.point);
+			for (Version version : pending) {
+				pointStore.appendHistories(userId, version.applied, version.updateMillis);
+			}
+			pointStore.awaitDurable();
+		} catch (RuntimeException e) {
+			discard(userId, account, e);
+			throw e;
+		}
+		latest.previous = null;
+		account.persistedMillis = saved.updateMillis();
+		account.persistedVersion = latest.version;
+	}
+
+	/**
+	 * 저장되지 않은 버전을 모두 버린다. persisting 을 맡은 스레드만 호출한다.
+	 * failure 를 먼저 남기므로, RETIRED 를 보기 전에 버전을 올린 스레드는 저장을 기다리다 failure 를 보고 실패한다.
+	 */
+	private void discard(long userId, Account account, RuntimeException failure) {
+		account.failure = failure;
+		account.state.set(RETIRED);
+		accounts.remove(userId, account);
+	}
+
+	private static final class Account {
+
+		private final AtomicReference<Version> state;
+
+		private final AtomicBoolean persisting = new AtomicBoolean();
+
+		private volatile long persistedVersion;
+
+		private volatile long persistedMillis;
+
+		private volatile long usedAt;
+
+		private volatile RuntimeException failure;
+
+		private Account(UserPoint userPoint) {
+			this.state = new AtomicReference<>(new Version(0L, userPoint.point(), null, 0L, null));
+			this.persistedMillis = userPoint.updateMillis();
+		}
+	}
+
+	private record Committed(Account account, AppliedOperations applied) {
+	}
+
+	/**
+	 * previous 는 아직 저장되지 않은 버전을 거슬러 올라가기 위한 연결이며, 저장이 끝나면 끊는다.
+	 */
+	private static final class Version {
+
+		private final long version;
+
+		private final long point;
+
+		private final AppliedOperations applied;
+
+		private final long updateMillis;
+
+		private Version previous;
+
+		private Version(long version, long point, AppliedOperations applied, long updateMillis, Version previous) {
+			this.version = version;
+			this.point = point;
+			this.applied = applied;
+			this.updateMillis = updateMillis;
+			this.previous = previous;
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package io.hhplus.tdd.point;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 충전/사용 요청의 동시 처리 수를 제한한다. 한도를 넘는 요청은 대기시키지 않고 PointOverloadedException 으로 바로 거절한다.
+ * - 충전/사용별 한도는 처리 시간에 따라 AIMD 로 조절한다. 처리 시간이 targetLatency 이하면 한도를 조금씩(1/한도) 늘리고,
+ *   넘거나 과부하로 실패하면 backoff 배로 줄인다. 줄이는 것은 targetLatency 에 한번까지만 한다.
+ * - 유저별 한도는 고정값(perUserLimit)이다. 한 유저의 요청이 한도를 모두 차지하지 못하게 한다.
+ * 비활성화(point.admission.enabled=false) 상태에서는 모든 요청을 받는다.
+ */
+@Component
+public class PointAdmissionControl {
+
+	private static final double BACKOFF = 0.9;
+
+	private final boolean enabled;
+
+	private final int perUserLimit;
+
+	private final Map<TransactionType, Limiter> limiters = new EnumMap<>(TransactionType.class);
+
+	private final ConcurrentHashMap<Long, Integer> inFlightByUser = new ConcurrentHashMap<>();
+
+	public PointAdmissionControl(
+		@Value("${point.admission.enabled:true}") boolean enabled,
+		@Value("${point.admission.initial-limit:100}") int initialLimit,
+		@Value("${point.admission.min-limit:10}") int minLimit,
+		@Value("${point.admission.max-limit:1000}") int maxLimit,
+		@Value("${point.admission.per-user-limit:50}") int perUserLimit,
+		@Value("${point.admission.target-latency-millis:1000}") long targetLatencyMillis
+	) {
+		this.enabled = enabled;
+		this.perUserLimit = perUserLimit;
+		long targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+		for (TransactionType type : TransactionType.values()) {
+			limiters.put(type, new Limiter(initialLimit, minLimit, maxLimit, targetLatencyNanos));
+		}
+	}
+
+	/**
+	 * 한도 안이면 자리를 잡고 Permit 을 반환한다. 처리가 끝나면 반드시 Permit.release 를 호출한다.
+	 */
+	public Permit acquire(TransactionType type, long userId) {
+		if (!enabled) {
+			return Permit.NONE;
+		}
+		Limiter limiter = limiters.get(type);
+		if (!limiter.tryAcquire()) {
+			throw new PointOverloadedException(PointOverloadedException.Reason.ENDPOINT_LIMIT,
+				"동시에 처리 중인 " + type + " 요청이 한도(" + limiter.limit() + ")를 넘었습니다");
+		}
+		if (!tryAcquireUser(userId)) {
+			limiter.release();
+			throw new PointOverloadedException(PointOverloadedException.Reason.USER_LIMIT,
+				"유저의 동시 처리 요청이 한도(" + perUserLimit + ")를 넘었습니다. userId=" + userId);
+		}
+		return new Permit(this, limiter, userId, System.nanoTime());
+	}
+
+	public int limit(TransactionType type) {
+		return limiters.get(type).limit();
+	}
+
+	private boolean tryAcquireUser(long userId) {
+		boolean[] acquired = new boolean[1];
+		inFlightByUser.compute(userId, (key, inFlight) -> {
+			int current = inFlight == null ? 0 : inFlight;
+			if (current >= perUserLimit) {
+				return inFlight;
+			}
+			acquired[0] = true;
+			return current + 1;
+		});
+		return acquired[0];
+	}
+
+	private void releaseUser(long userId) {
+		inFlightByUser.computeIfPresent(userId, (key, inFlight) -> inFlight == 1 ? null : inFlight - 1);
+	}
+
+	/**
+	 * 잡은 자리. release 에 처리 결과를 넘겨 한도 조절에 반영한다.
+	 */
+	public static final class Permit {
+
+		private static final Permit NONE = new Permit(null, null, 0L, 0L);
+
+		private final PointAdmissionControl owner;
+
+		private final Limiter limiter;
+
+		private final long userId;
+
+		private final long acquiredAt;
+
+		private Permit(PointAdmissionControl owner, Limiter limiter, long userId, long acquiredAt) {
+			this.owner = owner;
+			this.limiter = limiter;
+			this.userId = userId;
+			this.acquiredAt = acquiredAt;
+		}
+
+		/**
+		 * failure 가 PointOverloadedException 이나 RejectedExecutionException 이면 과부하로 보고 한도를 줄인다.
+		 * 규칙 위반 같은 다른 실패는 처리 시간만 반영한다.
+		 */
+		public void release(Throwable failure) {
+			if (owner == null) {
+				return;
+			}
+			owner.releaseUser(userId);
+			limiter.release();
+			limiter.onSample(System.nanoTime() - acquiredAt,
+				failure instanceof PointOverloadedException || failure instanceof RejectedExecutionException);
+		}
+	}
+
+	private static final class Limiter {
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final int minLimit;
+
+		private final int maxLimit;
+
+		private final long targetLatencyNanos;
+
+		private volatile double limit;
+
+		private long lastDecreasedAt;
+
+		private Limiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+			this.limit = initialLimit;
+			this.minLimit = minLimit;
+			this.maxLimit = maxLimit;
+			this.targetLatencyNanos = targetLatencyNanos;
+			this.lastDecreasedAt = System.nanoTime() - targetLatencyNanos;
+		}
+
+		private int limit() {
+			return (int)limit;
+		}
+
+		private boolean tryAcquire() {
+			while (true) {
+				int current = inFlight.get();
+				if (current >= limit()) {
+					return false;
+				}
+				if (inFlight.compareAndSet(current, current + 1)) {
+					return true;
+				}
+			}
+		}
+
+		private void release() {
+			inFlight.decrementAndGet();
+		}
+
+		private synchronized void onSample(long latencyNanos, boolean overloaded) {
+			if (overloaded || latencyNanos > targetLatencyNanos) {
+				long now = System.nanoTime();
+				if (now - lastDecreasedAt >= targetLatencyNanos) {
+					limit = Math.max(minLimit, limit * BACKOFF);
+					lastDecreasedAt = now;
+				}
+				return;
+			}
+			limit = Math.min(maxLimit, limit + 1.0 / limit);
+		}
+	}
+}
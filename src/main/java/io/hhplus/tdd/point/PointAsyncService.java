@@ -0,0 +1,113 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * PointService 를 전용 실행기에서 호출하고 CompletableFuture 로 결과를 돌려준다.
+ * 테이블 지연을 기다리는 동안 요청 스레드를 붙잡지 않고, 여러 조회를 병렬로 조합할 수 있다.
+ * 실행기의 대기열은 queueCapacity 로 제한하며, 가득 차면 RejectedExecutionException 이 발생한다.
+ * 충전/사용은 PointAdmissionControl 의 한도 안에서만 실행기에 넘기고, 한도를 넘으면 바로 PointOverloadedException 이 발생한다.
+ */
+@Service
+public class PointAsyncService {
+
+	private final PointService pointService;
+
+	private final PointAdmissionControl admissionControl;
+
+	private final ExecutorService executor;
+
+	public PointAsyncService(
+		PointService pointService,
+		PointAdmissionControl admissionControl,
+		@Value("${point.async.parallelism:64}") int parallelism,
+		@Value("${point.async.queue-capacity:10000}") int queueCapacity,
+		@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+	) {
+		this.pointService = pointService;
+		this.admissionControl = admissionControl;
+		this.executor = PointExecutors.newBoundedExecutor("point-async", parallelism, queueCapacity, virtualThreads);
+	}
+
+	public CompletableFuture<UserPoint> get(long id) {
+		return CompletableFuture.supplyAsync(() -> pointService.get(id), executor);
+	}
+
+	public CompletableFuture<List<PointHistory>> getHistoriesBy(long id) {
+		return CompletableFuture.supplyAsync(() -> pointService.getHistoriesBy(id), executor);
+	}
+
+	/**
+	 * 잔고와 내역을 병렬로 조회해 합친다.
+	 */
+	public CompletableFuture<PointSummary> getSummary(long id) {
+		return get(id).thenCombine(getHistoriesBy(id), PointSummary::new);
+	}
+
+	/**
+	 * idempotencyKey 가 null 이면 멱등 키 없이 충전한다.
+	 */
+	public CompletableFuture<UserPoint> charge(long id, long amount, long chargedAt, String idempotencyKey) {
+		return admitted(TransactionType.CHARGE, id, () -> idempotencyKey == null
+			? pointService.charge(id, amount, chargedAt)
+			: pointService.charge(id, amount, chargedAt, idempotencyKey));
+	}
+
+	/**
+	 * expiresAt 이 null 이면 소멸하지 않는 포인트를 충전한다.
+	 */
+	public CompletableFuture<UserPoint> charge(long id, long amount, long chargedAt, Long expiresAt,
+		String idempotencyKey) {
+		if (expiresAt == null) {
+			return charge(id, amount, chargedAt, idempotencyKey);
+		}
+		return admitted(TransactionType.CHARGE, id, () -> idempotencyKey == null
+			? pointService.chargeWithExpiry(id, amount, chargedAt, expiresAt)
+			: pointService.chargeWithExpiry(id, amount, chargedAt, expiresAt, idempotencyKey));
+	}
+
+	/**
+	 * idempotencyKey 가 null 이면 멱등 키 없이 사용한다.
+	 */
+	public CompletableFuture<UserPoint> use(long id, long amount, long usedAt, String idempotencyKey) {
+		return admitted(TransactionType.USE, id, () -> idempotencyKey == null
+			? pointService.use(id, amount, usedAt)
+			: pointService.use(id, amount, usedAt, idempotencyKey));
+	}
+
+	/**
+	 * 보내는 유저의 잔고를 쓰므로 사용(USE) 한도 안에서 실행한다.
+	 */
+	public CompletableFuture<PointTransfer> transfer(long fromId, long toId, long amount, long transferredAt) {
+		return admitted(TransactionType.USE, fromId, () -> pointService.transfer(fromId, toId, amount, transferredAt));
+	}
+
+	/**
+	 * 자리를 잡은 뒤 실행기에 넘기고, 완료되면 처리 시간과 결과를 남기며 자리를 돌려준다.
+	 */
+	private <T> CompletableFuture<T> admitted(TransactionType type, long id, Supplier<T> action) {
+		PointAdmissionControl.Permit permit = admissionControl.acquire(type, id);
+		try {
+			return CompletableFuture.supplyAsync(action, executor)
+				.whenComplete((result, failure) -> permit.release(
+					failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure));
+		} catch (RuntimeException e) {
+			permit.release(e);
+			throw e;
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,124 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 여러 유저의 포인트 변경을 한번에 처리한다.
+ * 유저별로 묶어 PointService.applyAll 로 넘기고, 서로 다른 유저는 병렬로 처리한다.
+ * 한 유저의 처리가 예외로 끝나면 그 유저의 항목만 예외 메시지와 함께 실패로 남기고, 다른 유저의 결과는 그대로 돌려준다.
+ * 항목이 maxSize 개를 넘으면 IllegalArgumentException 으로 거절한다.
+ * 충전/사용과 같이 PointAdmissionControl 의 한도 안에서만 처리한다. 유저마다 자리를 하나씩 잡으며, 사용이 있으면 사용(USE) 한도,
+ * 없으면 충전(CHARGE) 한도에서 잡는다. 한 유저라도 자리를 잡지 못하면 아무것도 처리하지 않고 PointOverloadedException 이 발생한다.
+ */
+@Slf4j
+@Service
+public class PointBatchService {
+
+	private final PointService pointService;
+
+	private final PointAdmissionControl admissionControl;
+
+	private final int maxSize;
+
+	private final ExecutorService executor;
+
+	public PointBatchService(
+		PointService pointService,
+		PointAdmissionControl admissionControl,
+		@Value("${point.batch.max-size:1000}") int maxSize,
+		@Value("${point.batch.parallelism:8}") int parallelism,
+		@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+	) {
+		this.pointService = pointService;
+		this.admissionControl = admissionControl;
+		this.maxSize = maxSize;
+		this.executor = PointExecutors.newExecutor("point-batch", parallelism, virtualThreads);
+	}
+
+	/**
+	 * 결과는 요청한 순서대로 반환한다.
+	 */
+	public List<PointOperationResult> applyAll(List<PointOperation> operations, long updateMillis) {
+		if (operations.size() > maxSize) {
+			throw new IllegalArgumentException("한번에 처리할 수 있는 항목은 " + maxSize + "개 이하입니다");
+		}
+		Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+		for (int i = 0; i < operations.size(); i++) {
+			indexesByUser.computeIfAbsent(operations.get(i).userId(), key -> new ArrayList<>()).add(i);
+		}
+		Map<Long, PointAdmissionControl.Permit> permits = admit(operations, indexesByUser);
+
+		PointOperationResult[] results = new PointOperationResult[operations.size()];
+		List<CompletableFuture<?>> futures = new ArrayList<>(indexesByUser.size());
+		try {
+			indexesByUser.forEach((userId, indexes) -> {
+				PointAdmissionControl.Permit permit = permits.remove(userId);
+				futures.add(CompletableFuture.runAsync(() -> {
+					List<PointOperation> userOperations = indexes.stream().map(operations::get).toList();
+					List<PointOperationResult> userResults = apply(userId, userOperations, updateMillis, permit);
+					for (int i = 0; i < indexes.size(); i++) {
+						results[indexes.get(i)] = userResults.get(i);
+					}
+				}, executor));
+			});
+		} catch (RuntimeException e) {
+			permits.values().forEach(permit -> permit.release(e));
+			throw e;
+		}
+
+		CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * 유저마다 자리를 잡는다. 잡지 못한 유저가 있으면 잡은 자리를 모두 돌려주고 실패한다.
+	 */
+	private Map<Long, PointAdmissionControl.Permit> admit(List<PointOperation> operations,
+		Map<Long, List<Integer>> indexesByUser) {
+		Map<Long, PointAdmissionControl.Permit> permits = new LinkedHashMap<>();
+		try {
+			indexesByUser.forEach((userId, indexes) -> {
+				boolean uses = indexes.stream().anyMatch(i -> operations.get(i).type() == TransactionType.USE);
+				permits.put(userId, admissionControl.acquire(uses ? TransactionType.USE : TransactionType.CHARGE,
+					userId));
+			});
+		} catch (RuntimeException e) {
+			permits.values().forEach(permit -> permit.release(e));
+			throw e;
+		}
+		return permits;
+	}
+
+	private List<PointOperationResult> apply(long userId, List<PointOperation> operations, long updateMillis,
+		PointAdmissionControl.Permit permit) {
+		RuntimeException failure = null;
+		try {
+			return pointService.applyAll(userId, operations, updateMillis);
+		} catch (RuntimeException e) {
+			failure = e;
+			log.error("포인트 일괄 처리에 실패했습니다. userId={}", userId, e);
+			return operations.stream()
+				.map(operation -> PointOperationResult.failed(operation, e.getMessage()))
+				.toList();
+		} finally {
+			permit.release(failure);
+		}
+	}
+
+	@PreDestroy
+	public void close() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,7 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 커밋된 변경 하나. history 는 기록된 내역, userPoint 는 그 변경을 반영한 직후의 잔고다.
+ */
+public record PointChange(PointHistory history, UserPoint userPoint) {
+}
@@ -0,0 +1,362 @@
+package io.hhplus.tdd.point;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 커밋된 잔고와 내역의 변경을 구독자에게 내보낸다.
+ * PointHistoryWriter 가 내역을 기록할 때마다 변경을 capacity 크기의 링 버퍼에 넣는다. 내역 id 순서대로 들어간다.
+ * 구독자는 링 버퍼에서 자기 위치(cursor)부터 읽어 보내며, 내역 id 를 주면 그 다음 변경부터 이어 받는다.
+ *
+ * 보내기는 구독자마다 실행기에서 BATCH_SIZE 개씩 하고, 기록 스레드는 링 버퍼에 넣고 보내기를 예약만 한다.
+ * 따라서 느린 구독자가 있어도 기록 스레드와 충전/사용은 기다리지 않는다.
+ * 한 번의 보내기가 sendTimeout 을 넘기면 감시 스레드가 그 보내기를 인터럽트하고 구독을 끝내, 실행기 스레드가
+ * 한 구독자에게 묶여 다른 구독자가 받지 못하는 일을 막는다. 감시는 sendTimeout 의 절반마다 하므로 최대 1.5 배까지 기다린다.
+ * 구독자가 capacity 개 넘게 뒤처지면 덮어쓴 변경은 건너뛰고, 이어 보낼 내역 id 를 담은 lagged 이벤트를 먼저 보낸다.
+ * 내역 기록에 끝내 실패해 빠진 변경이 있으면, 그 다음 변경 앞에 모든 구독자에게 lagged 이벤트를 보낸다.
+ * 보내기에 실패한 구독은 목록에서 빼고 Sink 를 오류로 끝낸다.
+ */
+@Slf4j
+@Component
+public class PointChangeFeed {
+
+	private static final int BATCH_SIZE = 100;
+
+	private final PointChange[] ring;
+
+	/**
+	 * ring 과 같은 위치의 변경 앞에 기록하지 못해 빠진 변경이 있는지
+	 */
+	private final boolean[] lossBefore;
+
+	/**
+	 * 빠진 변경이 있었고 아직 다음 변경이 들어오지 않았는지. this 의 모니터 안에서만 바뀐다.
+	 */
+	private boolean lost;
+
+	private final int mask;
+
+	private final ExecutorService executor;
+
+	private final long timeoutMillis;
+
+	private final long sendTimeoutMillis;
+
+	private final ScheduledExecutorService watchdog;
+
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	/**
+	 * 지금까지 넣은 변경 수. 다음 변경이 들어갈 위치이며 ring 과 함께 this 의 모니터 안에서만 바뀐다.
+	 */
+	private volatile long head;
+
+	public PointChangeFeed(
+		PointHistoryWriter historyWriter,
+		@Value("${point.feed.capacity:65536}") int capacity,
+		@Value("${point.feed.parallelism:8}") int parallelism,
+		@Value("${point.feed.timeout:30m}") Duration timeout,
+		@Value("${point.feed.send-timeout:10s}") Duration sendTimeout,
+		@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+	) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("변경 피드의 크기는 0 보다 커야 합니다");
+		}
+		int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+		this.ring = new PointChange[size];
+		this.lossBefore = new boolean[size];
+		this.mask = size - 1;
+		this.executor = PointExecutors.newExecutor("point-feed", parallelism, virtualThreads);
+		this.timeoutMillis = timeout.toMillis();
+		this.sendTimeoutMillis = sendTimeout.toMillis();
+		this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "point-feed-watchdog");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long tickMillis = Math.max(1L, sendTimeoutMillis / 2);
+		this.watchdog.scheduleWithFixedDelay(this::interruptSlowSends, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+		historyWriter.addListener(new PointHistoryWriter.Listener() {
+
+			@Override
+			public void written(PointHistory history, long point) {
+				publish(history, point);
+			}
+
+			@Override
+			public void lost(long userId) {
+				markLost();
+			}
+		});
+	}
+
+	/**
+	 * userId 가 null 이면 모든 유저의 변경을 보낸다.
+	 * afterId 가 null 이면 지금 이후의 변경부터, 아니면 내역 id 가 afterId 보다 큰 변경부터 보낸다.
+	 */
+	public SseEmitter subscribe(Long userId, Long afterId) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscription subscription = subscribe(userId, afterId, new SseSink(emitter));
+		emitter.onCompletion(() -> unsubscribe(subscription));
+		emitter.onTimeout(() -> {
+			unsubscribe(subscription);
+			emitter.complete();
+		});
+		emitter.onError(e -> unsubscribe(subscription));
+		return emitter;
+	}
+
+	Subscription subscribe(Long userId, Long afterId, Sink sink) {
+		Subscription subscription;
+		synchronized (this) {
+			subscription = new Subscription(userId, afterId == null ? head : sequenceAfter(afterId), sink);
+		}
+		subscriptions.add(subscription);
+		schedule(subscription);
+		return subscription;
+	}
+
+	void unsubscribe(Subscription subscription) {
+		subscriptions.remove(subscription);
+	}
+
+	public int subscriberCount() {
+		return subscriptions.size();
+	}
+
+	void publish(PointHistory history, long point) {
+		synchronized (this) {
+			ring[(int)(head & mask)] =
+				new PointChange(history, new UserPoint(history.userId(), point, history.updateMillis()));
+			lossBefore[(int)(head & mask)] = lost;
+			lost = false;
+			head++;
+		}
+		for (Subscription subscription : subscriptions) {
+			schedule(subscription);
+		}
+	}
+
+	synchronized void markLost() {
+		lost = true;
+	}
+
+	@PreDestroy
+	public void close() {
+		watchdog.shutdownNow();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * 내역 id 가 afterId 보다 큰 첫 변경의 위치. 링 버퍼의 변경은 내역 id 순서이므로 이분 탐색한다.
+	 * 모두 afterId 이하이면 head 를 반환한다.
+	 * afterId 다음 변경이 이미 덮어써졌으면 남은 가장 오래된 위치의 앞을 반환해, drain 이 lagged 부터 보내게 한다.
+	 */
+	private long sequenceAfter(long afterId) {
+		long tail = Math.max(0L, head - ring.length);
+		long low = tail;
+		long high = head;
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+			if (ring[(int)(middle & mask)].history().id() <= afterId) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		if (low == tail && tail > 0 && ring[(int)(tail & mask)].history().id() > afterId + 1) {
+			return tail - 1;
+		}
+		return low;
+	}
+
+	/**
+	 * 보내기가 예약되어 있지 않을 때만 실행기에 맡긴다. 한 구독자의 보내기는 한번에 하나만 실행된다.
+	 */
+	private void schedule(Subscription subscription) {
+		if (subscription.scheduled.compareAndSet(false, true)) {
+			try {
+				subscription.drain = executor.submit(() -> drain(subscription));
+			} catch (RejectedExecutionException e) {
+				subscription.scheduled.set(false);
+				end(subscription, e);
+			}
+		}
+	}
+
+	/**
+	 * sendTimeout 이 넘도록 보내고 있는 구독의 보내기를 인터럽트한다. 구독은 보내던 스레드가 돌아온 뒤 drain 에서 끝낸다.
+	 * SseEmitter 는 보내는 동안 잠겨 있어 이 스레드에서 끝내면 감시 스레드도 함께 묶이기 때문이다.
+	 */
+	private void interruptSlowSends() {
+		long now = System.nanoTime();
+		for (Subscription subscription : subscriptions) {
+			long startedNanos = subscription.drainStartedNanos;
+			if (startedNanos != 0 && !subscription.timedOut
+				&& now - startedNanos > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis)) {
+				log.warn("변경 피드 구독자에게 {}ms 안에 보내지 못해 구독을 끝냅니다", sendTimeoutMillis);
+				subscription.timedOut = true;
+				Future<?> drain = subscription.drain;
+				if (drain != null) {
+					drain.cancel(true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 구독을 목록에서 빼고 Sink 를 오류로 끝낸다. 한 구독에 한번만 끝낸다.
+	 */
+	private void end(Subscription subscription, Throwable cause) {
+		if (subscription.ended.compareAndSet(false, true)) {
+			unsubscribe(subscription);
+			subscription.sink.fail(cause);
+		}
+	}
+
+	/**
+	 * cursor 부터 최대 BATCH_SIZE 개를 보낸다. 남은 변경이 있으면 다시 예약해 다른 구독자에게 차례를 넘긴다.
+	 */
+	private void drain(Subscription subscription) {
+		subscription.drainStartedNanos = System.nanoTime();
+		try {
+			send(subscription);
+		} catch (IOException | RuntimeException e) {
+			if (!subscription.timedOut) {
+				log.debug("변경 피드 구독자에게 보내지 못해 구독을 끝냅니다", e);
+				end(subscription, e);
+				return;
+			}
+		} finally {
+			subscription.drainStartedNanos = 0;
+		}
+		if (subscription.timedOut) {
+			end(subscription, new TimeoutException("변경을 " + sendTimeoutMillis + "ms 안에 보내지 못했습니다"));
+			return;
+		}
+		subscription.scheduled.set(false);
+		if (head > subscription.cursor && subscriptions.contains(subscription)) {
+			schedule(subscription);
+		}
+	}
+
+	private void send(Subscription subscription) throws IOException {
+		PointChange[] batch = new PointChange[BATCH_SIZE];
+		boolean[] losses = new boolean[BATCH_SIZE];
+		long from;
+		int count;
+		synchronized (this) {
+			from = Math.max(subscription.cursor, head - ring.length);
+			count = (int)Math.min(BATCH_SIZE, head - from);
+			for (int i = 0; i < count; i++) {
+				batch[i] = ring[(int)((from + i) & mask)];
+				losses[i] = lossBefore[(int)((from + i) & mask)];
+			}
+		}
+		boolean lagged = from > subscription.cursor;
+		subscription.cursor = from + count;
+		for (int i = 0; i < count && !subscription.timedOut; i++) {
+			if (lagged || losses[i]) {
+				subscription.sink.lagged(batch[i].history().id());
+				lagged = false;
+			}
+			if (subscription.matches(batch[i])) {
+				subscription.sink.send(batch[i]);
+			}
+		}
+	}
+
+	/**
+	 * 변경을 받을 곳
+	 */
+	interface Sink {
+
+		void send(PointChange change) throws IOException;
+
+		/**
+		 * 뒤처져 덮어쓴 변경을 건너뛰었다. nextId 는 다음으로 보낼 변경의 내역 id 다.
+		 */
+		void lagged(long nextId) throws IOException;
+
+		/**
+		 * 더 보낼 수 없어 구독을 끝낸다.
+		 */
+		void fail(Throwable cause);
+	}
+
+	/**
+	 * cursor 는 drain 에서만 읽고 쓰며, scheduled 로 한번에 하나의 drain 만 실행된다.
+	 * drainStartedNanos 는 실행 중인 drain 이 시작한 시각이며, 실행 중이 아니면 0 이다.
+	 */
+	static final class Subscription {
+
+		private final Long userId;
+
+		private final Sink sink;
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private final AtomicBoolean ended = new AtomicBoolean();
+
+		private long cursor;
+
+		private volatile Future<?> drain;
+
+		private volatile long drainStartedNanos;
+
+		private volatile boolean timedOut;
+
+		private Subscription(Long userId, long cursor, Sink sink) {
+			this.userId = userId;
+			this.cursor = cursor;
+			this.sink = sink;
+		}
+
+		private boolean matches(PointChange change) {
+			return userId == null || userId == change.history().userId();
+		}
+	}
+
+	/**
+	 * 변경은 change 이벤트로, 이벤트 id 는 내역 id 로 보낸다. 재연결할 때 Last-Event-ID 로 이어 받을 수 있다.
+	 */
+	private record SseSink(SseEmitter emitter) implements Sink {
+
+		@Override
+		public void send(PointChange change) throws IOException {
+			emitter.send(SseEmitter.event()
+				.id(String.valueOf(change.history().id()))
+				.name("change")
+				.data(change));
+		}
+
+		@Override
+		public void lagged(long nextId) throws IOException {
+			emitter.send(SseEmitter.event()
+				.name("lagged")
+				.data(nextId));
+		}
+
+		@Override
+		public void fail(Throwable cause) {
+			emitter.completeWithError(cause);
+		}
+	}
+}
@@ -1,56 +1,215 @@
 package io.hhplus.tdd.point;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 잔고, 내역 조회와 충전/사용은 PointAsyncService 의 CompletableFuture 를 그대로 반환해,
+ * 테이블을 기다리는 동안 요청 스레드를 돌려준다.
+ */
 @RestController
 @RequestMapping("/point")
 @Slf4j
 @RequiredArgsConstructor
 public class PointController {
 
+	private static final int EXPORT_CHUNK_SIZE = 500;
+
+	private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	private static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
 	private final PointService pointService;
 
+	private final PointAsyncService pointAsyncService;
+
+	private final PointBatchService pointBatchService;
+
+	private final PointReconciliationJob pointReconciliationJob;
+
+	private final PointChangeFeed pointChangeFeed;
+
+	private final ObjectMapper objectMapper;
+
 	/**
 	 * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
 	 */
 	@GetMapping("{id}")
-	public UserPoint point(@PathVariable long id) {
-		return pointService.get(id);
+	public CompletableFuture<UserPoint> point(@PathVariable long id) {
+		return pointAsyncService.get(id);
 	}
 
 	/**
 	 * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
 	 */
 	@GetMapping("{id}/histories")
-	public List<PointHistory> history(@PathVariable long id) {
+	public CompletableFuture<List<PointHistory>> history(@PathVariable long id) {
+
+		return pointAsyncService.getHistoriesBy(id);
+	}
+
+	/**
+	 * 요청이 몰리는 유저와 락 대기 시간을 요청 수가 많은 순서대로 조회한다.
+	 */
+	@GetMapping("hot-users")
+	public List<PointHotUserTracker.HotUser> hotUsers(@RequestParam(defaultValue = "10") int limit) {
+		if (limit < 1) {
+			throw new IllegalArgumentException("조회할 유저 수는 1 이상이어야 합니다");
+		}
+		return pointService.getHotUsers(limit);
+	}
 
-		return pointService.getHistoriesBy(id);
+	/**
+	 * 특정 유저의 누적 충전/사용 금액과 횟수, 마지막 변경 시각을 조회한다.
+	 */
+	@GetMapping("{id}/stats")
+	public PointStats stats(@PathVariable long id) {
+		return pointService.getStats(id);
+	}
+
+	/**
+	 * 커밋된 잔고와 내역의 변경을 SSE 로 받는다. userId 가 있으면 그 유저의 변경만 받는다.
+	 * after 에 내역 id 를 주면 그 다음 변경부터 이어 받는다. 없으면 재연결할 때의 Last-Event-ID 를 사용한다.
+	 */
+	@GetMapping(value = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter changes(
+		@RequestParam(required = false) Long userId,
+		@RequestParam(required = false) Long after,
+		@RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) Long lastEventId
+	) {
+		return pointChangeFeed.subscribe(userId, after != null ? after : lastEventId);
+	}
+
+	/**
+	 * 실행 중이거나 마지막으로 실행한 대사의 진행 상황과 처리량을 조회한다.
+	 */
+	@GetMapping("reconciliation")
+	public PointReconciliationReport reconciliationProgress() {
+		return pointReconciliationJob.progress();
+	}
+
+	/**
+	 * 특정 유저의 잔고와 내역을 병렬로 조회해 함께 반환한다.
+	 */
+	@GetMapping("{id}/summary")
+	public CompletableFuture<PointSummary> summary(@PathVariable long id) {
+		return pointAsyncService.getSummary(id);
+	}
+
+	/**
+	 * 특정 유저의 포인트 내역을 id 커서 기반으로 페이지 단위 조회한다.
+	 */
+	@GetMapping(value = "{id}/histories", params = "size")
+	public PointHistoryPage historyPage(
+		@PathVariable long id,
+		@RequestParam(required = false) Long cursor,
+		@RequestParam int size,
+		@RequestParam(required = false) Long from,
+		@RequestParam(required = false) Long to,
+		@RequestParam(required = false) TransactionType type
+	) {
+		return pointService.getHistoryPage(id, new PointHistoryQuery(cursor, size, from, to, type));
+	}
+
+	/**
+	 * 특정 유저의 포인트 내역 전체를 NDJSON 으로 내보낸다.
+	 * 내역을 한번에 모으지 않고 EXPORT_CHUNK_SIZE 만큼씩 읽어 바로 쓴다.
+	 */
+	@GetMapping(value = "{id}/histories", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public StreamingResponseBody exportHistory(
+		@PathVariable long id,
+		@RequestParam(required = false) Long from,
+		@RequestParam(required = false) Long to,
+		@RequestParam(required = false) TransactionType type
+	) {
+		PointHistoryQuery query = new PointHistoryQuery(null, EXPORT_CHUNK_SIZE, from, to, type);
+
+		return outputStream -> {
+			Long cursor = null;
+			do {
+				PointHistoryPage page = pointService.getHistoryPage(id, query.withCursor(cursor));
+				for (PointHistory pointHistory : page.histories()) {
+					outputStream.write(objectMapper.writeValueAsBytes(pointHistory));
+					outputStream.write('\n');
+				}
+				outputStream.flush();
+				cursor = page.nextCursor();
+			} while (cursor != null);
+		};
 	}
 
 	/**
 	 * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+	 * Idempotency-Key 헤더가 있으면 같은 키로 다시 요청해도 한번만 충전한다.
+	 * expiresAt(epoch millis)이 있으면 그 시각에 남은 만큼 소멸한다.
 	 */
 	@PatchMapping("{id}/charge")
-	public UserPoint charge(@PathVariable long id, @RequestBody long amount) {
-
-		return pointService.charge(id, amount, System.currentTimeMillis());
+	public CompletableFuture<UserPoint> charge(
+		@PathVariable long id,
+		@RequestBody long amount,
+		@RequestParam(required = false) Long expiresAt,
+		@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+	) {
+		return pointAsyncService.charge(id, amount, System.currentTimeMillis(), expiresAt, idempotencyKey);
 	}
 
 	/**
 	 * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
+	 * Idempotency-Key 헤더가 있으면 같은 키로 다시 요청해도 한번만 사용한다.
 	 */
 	@PatchMapping("{id}/use")
-	public UserPoint use(@PathVariable long id, @RequestBody long amount) {
-		return pointService.use(id, amount, System.currentTimeMillis());
+	public CompletableFuture<UserPoint> use(
+		@PathVariable long id,
+		@RequestBody long amount,
+		@RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+	) {
+		return pointAsyncService.use(id, amount, System.currentTimeMillis(), idempotencyKey);
+	}
+
+	/**
+	 * 특정 유저의 포인트를 다른 유저에게 보낸다. 보낸 유저와 받은 유저의 잔고를 함께 반환한다.
+	 * 받는 유저가 없으면 400 을 반환한다.
+	 */
+	@PostMapping("{id}/transfer")
+	public CompletableFuture<PointTransfer> transfer(@PathVariable long id, @RequestBody PointTransferRequest request) {
+		if (request.toId() == null) {
+			throw new IllegalArgumentException("받는 유저를 지정해야 합니다");
+		}
+		return pointAsyncService.transfer(id, request.toId(), request.amount(), System.currentTimeMillis());
+	}
+
+	/**
+	 * 여러 유저의 포인트를 한번에 충전/사용한다. 항목별 성공 여부를 요청 순서대로 반환한다.
+	 */
+	@PostMapping("batch")
+	public List<PointOperationResult> batch(@RequestBody List<PointOperation> operations) {
+		return pointBatchService.applyAll(operations, System.currentTimeMillis());
+	}
+
+	/**
+	 * 모든 유저의 잔고가 내역의 합과 같은지 대사하고, 다른 유저를 파일로 남긴다.
+	 * 이미 실행 중이면 새로 시작하지 않고 실행 중인 대사가 끝나기를 기다린다.
+	 */
+	@PostMapping("reconciliation")
+	public CompletableFuture<PointReconciliationReport> reconcile() {
+		return pointReconciliationJob.start();
 	}
 }
@@ -0,0 +1,76 @@
+package io.hhplus.tdd.point;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 포인트 서비스 내부에서 사용하는 실행기를 만든다.
+ * virtual 이 true 이고 Java 21 이상에서 실행 중이면 작업마다 가상 스레드를 사용하는 실행기를,
+ * 그렇지 않으면 parallelism 크기의 고정 스레드 풀을 만든다.
+ * 소스는 Java 17 기준이므로 가상 스레드 실행기는 리플렉션으로 생성한다.
+ */
+@Slf4j
+public final class PointExecutors {
+
+	private PointExecutors() {
+	}
+
+	public static ExecutorService newExecutor(String name, int parallelism, boolean virtual) {
+		if (virtual) {
+			ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+			if (virtualExecutor != null) {
+				return virtualExecutor;
+			}
+			log.warn("가상 스레드를 지원하지 않는 런타임입니다. {} 는 고정 스레드 풀로 실행합니다", name);
+		}
+		return Executors.newFixedThreadPool(parallelism, namedThreadFactory(name));
+	}
+
+	/**
+	 * newExecutor 와 같지만 고정 스레드 풀의 대기열을 queueCapacity 로 제한한다.
+	 * 대기열이 가득 차면 RejectedExecutionException 이 발생한다. 가상 스레드 실행기는 대기열이 없으므로 제한하지 않는다.
+	 */
+	public static ExecutorService newBoundedExecutor(String name, int parallelism, int queueCapacity, boolean virtual) {
+		if (virtual) {
+			ExecutorService virtualExecutor = newVirtualThreadPerTaskExecutor();
+			if (virtualExecutor != null) {
+				return virtualExecutor;
+			}
+			log.warn("가상 스레드를 지원하지 않는 런타임입니다. {} 는 고정 스레드 풀로 실행합니다", name);
+		}
+		return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(queueCapacity), namedThreadFactory(name), new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	public static boolean isVirtualThreadSupported() {
+		return Runtime.version().feature() >= 21;
+	}
+
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (!isVirtualThreadSupported()) {
+			return null;
+		}
+		try {
+			return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			return null;
+		}
+	}
+
+	private static ThreadFactory namedThreadFactory(String name) {
+		AtomicInteger sequence = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
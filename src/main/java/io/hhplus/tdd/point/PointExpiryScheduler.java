@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point;
+
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * tickMillis 마다 PointLotLedger 의 타이밍 휠을 현재 시각까지 옮기고, 만료된 묶음이 있는 유저마다 한번씩 소멸시킨다.
+ * 한 tick 안에 같은 유저의 묶음이 여러 개 만료되어도 EXPIRE 내역은 하나만 남는다.
+ * 소멸에 실패한 유저는 다음 tick 에 다시 시도한다.
+ */
+@Slf4j
+@Component
+public class PointExpiryScheduler {
+
+	private final PointLotLedger lotLedger;
+
+	private final PointUpdater pointUpdater;
+
+	private final ScheduledExecutorService scheduler;
+
+	public PointExpiryScheduler(
+		PointLotLedger lotLedger,
+		PointUpdater pointUpdater,
+		@Value("${point.expiry.tick-millis:1000}") long tickMillis
+	) {
+		this.lotLedger = lotLedger;
+		this.pointUpdater = pointUpdater;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "point-expiry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::expireDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 만료된 유저를 소멸시키고 소멸한 유저 수를 반환한다.
+	 */
+	public int expireDue() {
+		long now = System.currentTimeMillis();
+		Set<Long> userIds = lotLedger.advance(now);
+		int expired = 0;
+		for (long userId : userIds) {
+			try {
+				if (pointUpdater.expire(userId, now) != null) {
+					expired++;
+				}
+			} catch (RuntimeException e) {
+				log.warn("포인트 소멸에 실패해 다음 tick 에 다시 시도합니다. userId={}", userId, e);
+				lotLedger.retry(userId, now);
+			}
+		}
+		return expired;
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException {
+		scheduler.shutdown();
+		scheduler.awaitTermination(10, TimeUnit.SECONDS);
+	}
+}
@@ -0,0 +1,154 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 유효기간이 지나는 유저를 찾는 계층형 타이밍 휠.
+ * 가장 아래 휠은 tickMillis 간격의 wheelSize 개 칸으로 나뉘고, 위의 휠은 아래 휠 한 바퀴를 한 칸으로 삼는다.
+ * 등록은 만료 시각이 들어갈 가장 아래의 휠 한 칸에 넣는 것으로 끝나고(O(1)),
+ * 시간이 위 휠의 칸에 이르면 그 칸의 항목을 아래 휠로 옮긴다. 항목은 휠의 층 수만큼만 옮겨지므로 항목당 비용은 상수다.
+ * 전체 내역이나 유저를 훑지 않으므로 만료를 찾는 비용이 전체 원장 크기에 비례하지 않는다.
+ *
+ * 항목은 만료 시각이 든 칸이 끝난 뒤(만료 시각 이후)에만 나오며, 늦어도 tickMillis 안에 나온다.
+ * 이미 지난 시각으로 등록하면 다음 tick 에 나온다.
+ */
+final class PointExpiryWheel {
+
+	private final long tickMillis;
+
+	private final int wheelSize;
+
+	private final List<Bucket[]> levels = new ArrayList<>();
+
+	private final List<Long> levelTicks = new ArrayList<>();
+
+	/**
+	 * tickMillis 단위로 맞춘 현재 시각. 만료 시각이 이보다 이른 항목은 모두 나왔다.
+	 */
+	private long currentTime;
+
+	private int size;
+
+	PointExpiryWheel(long tickMillis, int wheelSize, long startMillis) {
+		if (tickMillis <= 0 || wheelSize < 2) {
+			throw new IllegalArgumentException("tick 은 0 보다 크고 휠 크기는 2 이상이어야 합니다");
+		}
+		this.tickMillis = tickMillis;
+		this.wheelSize = wheelSize;
+		this.currentTime = Math.floorDiv(startMillis, tickMillis) * tickMillis;
+		addLevel();
+	}
+
+	synchronized void schedule(long userId, long expiresAt) {
+		insert(userId, Math.max(expiresAt, currentTime));
+		size++;
+	}
+
+	/**
+	 * nowMillis 까지 시간을 옮기고, 그 사이 만료 시각이 지난 항목의 유저를 중복 없이 반환한다.
+	 * tick 마다 끝난 칸을 먼저 비운 뒤 위 휠의 칸을 옮겨, 옮긴 항목이 아직 비우지 않은 칸에 섞이지 않게 한다.
+	 */
+	synchronized Set<Long> advance(long nowMillis) {
+		Set<Long> expired = new LinkedHashSet<>();
+		while (currentTime + tickMillis <= nowMillis) {
+			currentTime += tickMillis;
+			Bucket due = levels.get(0)[slot(currentTime / tickMillis - 1)];
+			size -= due.size;
+			due.drain((userId, expiresAt) -> expired.add(userId));
+			for (int level = levels.size() - 1; level >= 1; level--) {
+				long tick = levelTicks.get(level);
+				if (currentTime % tick == 0) {
+					Bucket bucket = levels.get(level)[slot(currentTime / tick)];
+					bucket.drain((userId, expiresAt) -> insert(userId, expiresAt));
+				}
+			}
+		}
+		return expired;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * 만료 시각의 칸 번호와 현재 시각의 칸 번호 차이가 wheelSize 보다 작은 가장 아래 휠에 넣는다.
+	 * expiresAt 은 currentTime 이상이어야 한다.
+	 */
+	private void insert(long userId, long expiresAt) {
+		for (int level = 0; ; level++) {
+			if (level == levels.size()) {
+				addLevel();
+			}
+			long tick = levelTicks.get(level);
+			long index = expiresAt / tick;
+			if (index - currentTime / tick < wheelSize) {
+				levels.get(level)[slot(index)].add(userId, expiresAt);
+				return;
+			}
+		}
+	}
+
+	private int slot(long index) {
+		return (int)Math.floorMod(index, (long)wheelSize);
+	}
+
+	private void addLevel() {
+		Bucket[] buckets = new Bucket[wheelSize];
+		for (int i = 0; i < wheelSize; i++) {
+			buckets[i] = new Bucket();
+		}
+		levelTicks.add(levels.isEmpty()
+			? tickMillis
+			: Math.multiplyExact(levelTicks.get(levels.size() - 1), (long)wheelSize));
+		levels.add(buckets);
+	}
+
+	/**
+	 * 한 칸의 항목을 병렬 배열로 담는다.
+	 */
+	private static final class Bucket {
+
+		private static final int INITIAL_CAPACITY = 4;
+
+		private long[] userIds = new long[INITIAL_CAPACITY];
+
+		private long[] expiresAts = new long[INITIAL_CAPACITY];
+
+		private int size;
+
+		private void add(long userId, long expiresAt) {
+			if (size == userIds.length) {
+				userIds = Arrays.copyOf(userIds, size << 1);
+				expiresAts = Arrays.copyOf(expiresAts, size << 1);
+			}
+			userIds[size] = userId;
+			expiresAts[size] = expiresAt;
+			size++;
+		}
+
+		/**
+		 * 비운 뒤에 항목을 넘기므로, consumer 가 이 칸에 다시 넣어도 된다.
+		 */
+		private void drain(EntryConsumer consumer) {
+			long[] drainedUserIds = userIds;
+			long[] drainedExpiresAts = expiresAts;
+			int drained = size;
+			userIds = new long[INITIAL_CAPACITY];
+			expiresAts = new long[INITIAL_CAPACITY];
+			size = 0;
+			for (int i = 0; i < drained; i++) {
+				consumer.accept(drainedUserIds[i], drainedExpiresAts[i]);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface EntryConsumer {
+
+		void accept(long userId, long expiresAt);
+	}
+}
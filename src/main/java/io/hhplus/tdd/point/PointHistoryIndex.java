@@ -0,0 +1,128 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저별 포인트 내역 인덱스.
+ * PointHistoryTable.selectAllByUserId 는 전체 내역을 훑으므로, 기록된 내역을 유저별 배열에 모아
+ * 해당 유저의 내역 수만큼만 읽도록 한다. TablePointHistoryRepository 가 기록할 때 채운다.
+ */
+public class PointHistoryIndex {
+
+	private final ConcurrentHashMap<Long, UserHistories> histories = new ConcurrentHashMap<>();
+
+	public void add(PointHistory pointHistory) {
+		histories.computeIfAbsent(pointHistory.userId(), key -> new UserHistories())
+			.add(pointHistory);
+	}
+
+	public List<PointHistory> findAllByUserId(long userId) {
+		UserHistories userHistories = histories.get(userId);
+		return userHistories == null ? List.of() : userHistories.toList(userId);
+	}
+
+	public PointHistoryPage findPage(long userId, PointHistoryQuery query) {
+		UserHistories userHistories = histories.get(userId);
+		return userHistories == null ? new PointHistoryPage(List.of(), null) : userHistories.page(userId, query);
+	}
+
+	public int countByUserId(long userId) {
+		UserHistories userHistories = histories.get(userId);
+		return userHistories == null ? 0 : userHistories.size();
+	}
+
+	/**
+	 * 유저의 내역으로 계산한 잔고(충전 - 사용 - 소멸). 내역이 없으면 0 이다.
+	 */
+	public long netAmountByUserId(long userId) {
+		UserHistories userHistories = histories.get(userId);
+		return userHistories == null ? 0L : userHistories.netAmount();
+	}
+
+	/**
+	 * 내역이 있는 유저의 id 를 오름차순으로 반환한다.
+	 */
+	public long[] userIds() {
+		return histories.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+	}
+
+	/**
+	 * 한 유저의 내역을 id 오름차순으로 병렬 배열에 담는다.
+	 * 내역 종류는 TransactionType 의 ordinal 로 저장한다.
+	 */
+	private static final class UserHistories {
+
+		private static final int INITIAL_CAPACITY = 8;
+
+		private static final TransactionType[] TYPES = TransactionType.values();
+
+		private long[] ids = new long[INITIAL_CAPACITY];
+
+		private long[] amounts = new long[INITIAL_CAPACITY];
+
+		private long[] updateMillis = new long[INITIAL_CAPACITY];
+
+		private byte[] types = new byte[INITIAL_CAPACITY];
+
+		private int size;
+
+		private synchronized void add(PointHistory pointHistory) {
+			if (size == ids.length) {
+				int capacity = size << 1;
+				ids = Arrays.copyOf(ids, capacity);
+				amounts = Arrays.copyOf(amounts, capacity);
+				updateMillis = Arrays.copyOf(updateMillis, capacity);
+				types = Arrays.copyOf(types, capacity);
+			}
+			ids[size] = pointHistory.id();
+			amounts[size] = pointHistory.amount();
+			updateMillis[size] = pointHistory.updateMillis();
+			types[size] = (byte)pointHistory.type().ordinal();
+			size++;
+		}
+
+		private synchronized List<PointHistory> toList(long userId) {
+			List<PointHistory> result = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				result.add(new PointHistory(ids[i], userId, amounts[i], TYPES[types[i]], updateMillis[i]));
+			}
+			return result;
+		}
+
+		private synchronized PointHistoryPage page(long userId, PointHistoryQuery query) {
+			List<PointHistory> result = new ArrayList<>(Math.min(query.size(), size));
+			int i = query.cursor() == null ? 0 : firstIndexAfter(query.cursor());
+			for (; i < size && result.size() < query.size(); i++) {
+				if (query.matches(updateMillis[i], TYPES[types[i]])) {
+					result.add(new PointHistory(ids[i], userId, amounts[i], TYPES[types[i]], updateMillis[i]));
+				}
+			}
+			for (; i < size; i++) {
+				if (query.matches(updateMillis[i], TYPES[types[i]])) {
+					return new PointHistoryPage(result, result.get(result.size() - 1).id());
+				}
+			}
+			return new PointHistoryPage(result, null);
+		}
+
+		private synchronized long netAmount() {
+			long net = 0L;
+			for (int i = 0; i < size; i++) {
+				net += PointPolicy.delta(TYPES[types[i]], amounts[i]);
+			}
+			return net;
+		}
+
+		private int firstIndexAfter(long cursor) {
+			int index = Arrays.binarySearch(ids, 0, size, cursor);
+			return index >= 0 ? index + 1 : -(index + 1);
+		}
+
+		private synchronized int size() {
+			return size;
+		}
+	}
+}
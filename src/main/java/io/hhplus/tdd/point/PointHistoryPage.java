@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * nextCursor 가 null 이면 마지막 페이지다.
+ */
+public record PointHistoryPage(
+	List<PointHistory> histories,
+	Long nextCursor
+) {
+}
@@ -0,0 +1,35 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 내역 페이지 조회 조건
+ * - cursor : 이 id 보다 큰 내역부터 조회한다. null 이면 처음부터 조회한다.
+ * - size : 한 페이지에 담을 최대 내역 수
+ * - from, to : updateMillis 범위 (from 이상, to 미만). null 이면 제한하지 않는다.
+ * - type : 내역 종류. null 이면 모든 종류를 조회한다.
+ */
+public record PointHistoryQuery(
+	Long cursor,
+	int size,
+	Long from,
+	Long to,
+	TransactionType type
+) {
+
+	public static final int MAX_SIZE = 1000;
+
+	public PointHistoryQuery {
+		if (size < 1 || size > MAX_SIZE) {
+			throw new IllegalArgumentException("페이지 크기는 1 이상 " + MAX_SIZE + " 이하여야 합니다");
+		}
+	}
+
+	public PointHistoryQuery withCursor(Long cursor) {
+		return new PointHistoryQuery(cursor, size, from, to, type);
+	}
+
+	public boolean matches(long updateMillis, TransactionType type) {
+		return (from == null || updateMillis >= from)
+			&& (to == null || updateMillis < to)
+			&& (this.type == null || this.type == type);
+	}
+}
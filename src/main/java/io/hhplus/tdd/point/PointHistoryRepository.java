@@ -0,0 +1,55 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 포인트 내역 저장소. point.history.store 설정으로 구현을 고른다.
+ * - table (기본값) : TablePointHistoryRepository, PointHistoryTable 에 그대로 기록한다.
+ * - columnar : ColumnarPointHistoryRepository, 내역을 열 단위 primitive 배열에 담는다.
+ * id 는 1 부터 기록한 순서대로 발급한다.
+ * 내역 조회(PointStore, PointReconciliationJob)도 저장소에서 한다.
+ */
+public interface PointHistoryRepository {
+
+	PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
+
+	/**
+	 * 유저의 내역을 기록한 순서대로 반환한다.
+	 */
+	List<PointHistory> selectAllByUserId(long userId);
+
+	/**
+	 * 유저의 내역을 기록한 순서대로 넘긴다. 구현에 따라 PointHistory 를 만들지 않고 값만 넘긴다.
+	 */
+	default void forEachByUserId(long userId, HistoryVisitor visitor) {
+		selectAllByUserId(userId).forEach(history ->
+			visitor.visit(history.id(), history.amount(), history.type(), history.updateMillis()));
+	}
+
+	/**
+	 * 유저의 내역 중 query 에 맞는 내역을 id 오름차순으로 한 페이지만큼 반환한다.
+	 */
+	PointHistoryPage findPage(long userId, PointHistoryQuery query);
+
+	int countByUserId(long userId);
+
+	/**
+	 * 유저의 내역으로 계산한 잔고(충전 - 사용 - 소멸). 내역이 없으면 0 이다.
+	 */
+	default long netAmountByUserId(long userId) {
+		long[] net = {0L};
+		forEachByUserId(userId, (id, amount, type, updateMillis) -> net[0] += PointPolicy.delta(type, amount));
+		return net[0];
+	}
+
+	/**
+	 * 내역이 있는 유저의 id 를 오름차순으로 반환한다.
+	 */
+	long[] userIds();
+
+	@FunctionalInterface
+	interface HistoryVisitor {
+
+		void visit(long id, long amount, TransactionType type, long updateMillis);
+	}
+}
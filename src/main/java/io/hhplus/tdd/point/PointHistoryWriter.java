@@ -0,0 +1,325 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 포인트 내역을 대기열에 쌓아두고 별도 스레드에서 PointHistoryRepository 에 기록한다.
+ * 기록 스레드는 하나이므로 대기열에 들어온 순서, 즉 유저별 커밋 순서대로 기록된다.
+ * 대기열이 가득 차면 append 를 호출한 스레드가 자리가 날 때까지 대기한다.
+ * append 는 이미 잔고를 저장한 뒤에 호출되므로, 대기 중에 인터럽트되어도 내역을 버리지 않고 대기열에 넣은 뒤 인터럽트 상태만 되살린다.
+ * close 는 진행 중인 append 가 끝난 뒤에 종료를 표시하므로, append 가 성공한 내역은 모두 기록 스레드나 close 가 기록한다.
+ * 기록에 실패하면 잠시 쉬었다가 MAX_INSERT_ATTEMPTS 번까지 다시 시도하고, 그래도 실패하면 실패 지표를 남기고 Listener 에 알린다.
+ * 기록된 내역은 변경 직후의 잔고와 함께 기록한 순서대로 등록된 Listener 에 넘긴다.
+ */
+@Slf4j
+@Component
+public class PointHistoryWriter {
+
+	private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+	private static final int MAX_INSERT_ATTEMPTS = 3;
+
+	private static final long INSERT_RETRY_BACKOFF_MILLIS = 10L;
+
+	private final PointHistoryRepository pointHistoryRepo;
+
+	private final PointMetrics metrics;
+
+	private final BlockingQueue<PendingHistory> queue;
+
+	private final ConcurrentHashMap<Long, ConcurrentLinkedQueue<PendingHistory>> pendingByUser =
+		new ConcurrentHashMap<>();
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+	private final int batchSize;
+
+	private final Thread drainer;
+
+	private volatile PendingHistory last;
+
+	private volatile boolean closed;
+
+	public PointHistoryWriter(
+		PointHistoryRepository pointHistoryRepo,
+		PointMetrics metrics,
+		@Value("${point.history.writer.capacity:10000}") int capacity,
+		@Value("${point.history.writer.batch-size:100}") int batchSize
+	) {
+		this.pointHistoryRepo = pointHistoryRepo;
+		this.metrics = metrics;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.batchSize = batchSize;
+		this.drainer = new Thread(this::drain, "point-history-writer");
+		this.drainer.setDaemon(true);
+		this.drainer.start();
+	}
+
+	/**
+	 * point 는 이 변경을 반영한 직후의 잔고다.
+	 */
+	public void append(long userId, long amount, TransactionType type, long updateMillis, long point) {
+		closeLock.readLock().lock();
+		try {
+			if (closed) {
+				throw new IllegalStateException("포인트 내역 기록이 종료되었습니다");
+			}
+			PendingHistory pending = new PendingHistory(userId, amount, type, updateMillis, point);
+			pendingByUser.compute(userId, (key, histories) -> {
+				ConcurrentLinkedQueue<PendingHistory> userHistories =
+					histories == null ? new ConcurrentLinkedQueue<>() : histories;
+				userHistories.add(pending);
+				return userHistories;
+			});
+			last = pending;
+			putUninterruptibly(pending);
+		} finally {
+			closeLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 기록된 내역에 아직 기록되지 않은 내역을 이어 붙여 반환한다.
+	 * 아직 기록되지 않은 내역은 id 가 0 이다.
+	 */
+	public List<PointHistory> readWithPending(long userId, LongFunction<List<PointHistory>> persistedReader) {
+		ConcurrentLinkedQueue<PendingHistory> userPending = pendingByUser.get(userId);
+		List<PendingHistory> pendingSnapshot = userPending == null ? List.of() : List.copyOf(userPending);
+		List<PointHistory> persisted = persistedReader.apply(userId);
+		if (pendingSnapshot.isEmpty()) {
+			return persisted;
+		}
+
+		Set<Long> persistedIds = new HashSet<>();
+		persisted.forEach(history -> persistedIds.add(history.id()));
+
+		List<PointHistory> histories = new ArrayList<>(persisted);
+		for (PendingHistory pending : pendingSnapshot) {
+			if (!pending.started) {
+				histories.add(pending.toProvisional());
+				continue;
+			}
+			PointHistory written = pending.written.join();
+			if (written != null && !persistedIds.contains(written.id())) {
+				histories.add(written);
+			}
+		}
+		return histories;
+	}
+
+	/**
+	 * 호출 시점까지 append 된 내역이 모두 기록될 때까지 대기한다.
+	 */
+	public void flush() {
+		PendingHistory pending = last;
+		if (pending != null) {
+			pending.written.join();
+		}
+	}
+
+	/**
+	 * 내역이 기록될 때마다 호출된다. 기록 스레드에서 호출하므로 listener 는 대기하지 않아야 한다.
+	 * flush 가 끝나면 그때까지 기록된 내역의 호출도 끝나 있다.
+	 */
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public int pendingCount() {
+		return queue.size();
+	}
+
+	public int remainingCapacity() {
+		return queue.remainingCapacity();
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException {
+		closeLock.writeLock().lock();
+		try {
+			closed = true;
+		} finally {
+			closeLock.writeLock().unlock();
+		}
+		drainer.join();
+
+		List<PendingHistory> remaining = new ArrayList<>();
+		queue.drainTo(remaining);
+		remaining.forEach(this::write);
+	}
+
+	private void drain() {
+		List<PendingHistory> batch = new ArrayList<>(batchSize);
+		while (!closed || !queue.isEmpty()) {
+			try {
+				PendingHistory first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				batch.forEach(this::write);
+			} catch (InterruptedException e) {
+				log.warn("포인트 내역 기록 스레드가 인터럽트되었습니다. 남은 내역 {}건", queue.size());
+				return;
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void putUninterruptibly(PendingHistory pending) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					queue.put(pending);
+					return;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void write(PendingHistory pending) {
+		pending.started = true;
+		PointHistory written = null;
+		try {
+			written = insert(pending);
+			if (written != null) {
+				notifyListeners(written, pending.point);
+			} else {
+				notifyLost(pending.userId);
+			}
+		} finally {
+			complete(pending, written);
+		}
+	}
+
+	/**
+	 * 실패하면 다시 시도한다. 모두 실패하거나 다시 시도하기 전에 인터럽트되면 null 을 반환한다.
+	 */
+	private PointHistory insert(PendingHistory pending) {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				long startedAt = metrics.start();
+				PointHistory written =
+					pointHistoryRepo.insert(pending.userId, pending.amount, pending.type, pending.updateMillis);
+				metrics.recordPointHistoryInsert(startedAt);
+				return written;
+			} catch (RuntimeException e) {
+				if (attempt >= MAX_INSERT_ATTEMPTS || !backOff()) {
+					metrics.recordPointHistoryInsertFailure();
+					log.error("포인트 내역 기록에 실패했습니다. userId={}, 시도 {}회", pending.userId, attempt, e);
+					return null;
+				}
+				log.warn("포인트 내역 기록에 실패해 다시 시도합니다. userId={}, 시도 {}회", pending.userId, attempt, e);
+			}
+		}
+	}
+
+	private static boolean backOff() {
+		try {
+			Thread.sleep(INSERT_RETRY_BACKOFF_MILLIS);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void notifyListeners(PointHistory written, long point) {
+		for (Listener listener : listeners) {
+			try {
+				listener.written(written, point);
+			} catch (RuntimeException e) {
+				log.warn("포인트 내역 기록 알림에 실패했습니다. historyId={}", written.id(), e);
+			}
+		}
+	}
+
+	private void notifyLost(long userId) {
+		for (Listener listener : listeners) {
+			try {
+				listener.lost(userId);
+			} catch (RuntimeException e) {
+				log.warn("포인트 내역 유실 알림에 실패했습니다. userId={}", userId, e);
+			}
+		}
+	}
+
+	private void complete(PendingHistory pending, PointHistory written) {
+		pending.written.complete(written);
+		pendingByUser.computeIfPresent(pending.userId, (key, histories) -> {
+			histories.remove(pending);
+			return histories.isEmpty() ? null : histories;
+		});
+	}
+
+	private static final class PendingHistory {
+
+		private final long userId;
+
+		private final long amount;
+
+		private final TransactionType type;
+
+		private final long updateMillis;
+
+		private final long point;
+
+		private final CompletableFuture<PointHistory> written = new CompletableFuture<>();
+
+		private volatile boolean started;
+
+		private PendingHistory(long userId, long amount, TransactionType type, long updateMillis, long point) {
+			this.userId = userId;
+			this.amount = amount;
+			this.type = type;
+			this.updateMillis = updateMillis;
+			this.point = point;
+		}
+
+		private PointHistory toProvisional() {
+			return new PointHistory(0L, userId, amount, type, updateMillis);
+		}
+	}
+
+	@FunctionalInterface
+	public interface Listener {
+
+		void written(PointHistory history, long point);
+
+		/**
+		 * 다시 시도해도 기록하지 못해 written 을 호출하지 않을 내역이 있다.
+		 */
+		default void lost(long userId) {
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 유저 락을 잡은 유저 id 를 Space-Saving 으로 세어 요청이 몰리는 유저(hot user)를 찾는다.
+ * capacity 개의 카운터만 유지하며, 카운터가 가득 찬 상태에서 새 유저가 오면 가장 작은 카운터를 넘겨받는다.
+ * 넘겨받은 카운터는 이전 값을 error 로 남기므로 count - error 가 실제 횟수의 하한이다.
+ * 하한이 threshold 이상인 유저를 hot 으로 본다.
+ *
+ * 최근 흐름을 반영하도록 decay 주기마다 모든 값을 절반으로 줄인다.
+ * 관찰은 다른 스레드가 갱신 중이면 건너뛰어 요청 스레드를 막지 않는다. isHot 은 잠그지 않고 읽는다.
+ */
+@Component
+public class PointHotUserTracker {
+
+	private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final int capacity;
+
+	private final long threshold;
+
+	private final long decayNanos;
+
+	private long lastDecayedAt = System.nanoTime();
+
+	public PointHotUserTracker(
+		@Value("${point.hot-user.capacity:64}") int capacity,
+		@Value("${point.hot-user.threshold:100}") long threshold,
+		@Value("${point.hot-user.decay-seconds:10}") long decaySeconds
+	) {
+		this.capacity = capacity;
+		this.threshold = threshold;
+		this.decayNanos = TimeUnit.SECONDS.toNanos(decaySeconds);
+	}
+
+	/**
+	 * userId 가 락을 잡기까지 lockWaitNanos 만큼 기다렸음을 기록한다.
+	 */
+	public void observe(long userId, long lockWaitNanos) {
+		if (!lock.tryLock()) {
+			return;
+		}
+		try {
+			decayIfDue(System.nanoTime());
+			Counter counter = counters.get(userId);
+			if (counter == null) {
+				counter = admit(userId);
+			}
+			counter.count++;
+			counter.samples++;
+			counter.totalWaitNanos += lockWaitNanos;
+			counter.maxWaitNanos = Math.max(counter.maxWaitNanos, lockWaitNanos);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public boolean isHot(long userId) {
+		Counter counter = counters.get(userId);
+		return counter != null && counter.count - counter.error >= threshold;
+	}
+
+	/**
+	 * 횟수가 많은 순서대로 최대 limit 명.
+	 */
+	public List<HotUser> top(int limit) {
+		List<HotUser> hotUsers = new ArrayList<>();
+		lock.lock();
+		try {
+			counters.forEach((userId, counter) -> hotUsers.add(new HotUser(userId, counter.count, counter.error,
+				counter.samples == 0 ? 0L : counter.totalWaitNanos / counter.samples, counter.maxWaitNanos,
+				counter.count - counter.error >= threshold)));
+		} finally {
+			lock.unlock();
+		}
+		hotUsers.sort(Comparator.comparingLong(HotUser::count).reversed());
+		return hotUsers.size() > limit ? hotUsers.subList(0, limit) : hotUsers;
+	}
+
+	/**
+	 * 빈 카운터가 없으면 가장 작은 카운터를 넘겨받는다. lock 안에서만 호출한다.
+	 */
+	private Counter admit(long userId) {
+		Counter counter = new Counter();
+		if (counters.size() >= capacity) {
+			Long minUserId = null;
+			long minCount = Long.MAX_VALUE;
+			for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+				if (entry.getValue().count < minCount) {
+					minCount = entry.getValue().count;
+					minUserId = entry.getKey();
+				}
+			}
+			counters.remove(minUserId);
+			counter.count = minCount;
+			counter.error = minCount;
+		}
+		counters.put(userId, counter);
+		return counter;
+	}
+
+	/**
+	 * lock 안에서만 호출한다.
+	 */
+	private void decayIfDue(long now) {
+		if (now - lastDecayedAt < decayNanos) {
+			return;
+		}
+		lastDecayedAt = now;
+		counters.values().removeIf(counter -> {
+			counter.count >>= 1;
+			counter.error >>= 1;
+			counter.samples >>= 1;
+			counter.totalWaitNanos >>= 1;
+			return counter.count == 0;
+		});
+	}
+
+	/**
+	 * lockWait 값은 카운터를 넘겨받은 뒤 직접 관찰한 것만 평균낸다.
+	 */
+	public record HotUser(
+		long userId,
+		long count,
+		long error,
+		long averageLockWaitNanos,
+		long maxLockWaitNanos,
+		boolean hot
+	) {
+	}
+
+	/**
+	 * 값은 lock 안에서만 바꾸고, count 와 error 는 isHot 이 잠그지 않고 읽는다.
+	 */
+	private static final class Counter {
+
+		private volatile long count;
+
+		private volatile long error;
+
+		private long samples;
+
+		private long totalWaitNanos;
+
+		private long maxWaitNanos;
+	}
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 이미 사용된 멱등 키로 다른 종류나 금액의 포인트 변경을 요청했다.
+ */
+public class PointIdempotencyException extends IllegalStateException {
+
+	public PointIdempotencyException(String message) {
+		super(message);
+	}
+}
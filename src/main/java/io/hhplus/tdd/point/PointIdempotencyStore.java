@@ -0,0 +1,173 @@
+package io.hhplus.tdd.point;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 멱등 키(Idempotency-Key)로 같은 충전/사용 요청이 다시 들어오면 처음 결과를 그대로 돌려준다.
+ * 재요청은 테이블을 읽지도, 유저 락을 잡지도 않는다.
+ * 같은 키의 요청이 처리 중이면 새로 처리하지 않고 처리 중인 결과를 함께 기다린다.
+ * 처리에 실패한 키는 지워서, 재요청하면 다시 처리한다.
+ *
+ * 키는 유저마다 따로 관리하며, 같은 키로 다른 종류나 금액, 유효기간의 요청이 오면 PointIdempotencyException 이 발생한다.
+ * 항목은 들어온 순서대로, ttl 이 지났거나 capacity 를 넘으면 제거한다.
+ * 처리가 끝난 항목은 future 대신 잔고와 변경 시각만 남긴다.
+ */
+@Component
+public class PointIdempotencyStore {
+
+	private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+	private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final int capacity;
+
+	private final long ttlNanos;
+
+	public PointIdempotencyStore(
+		@Value("${point.idempotency.capacity:100000}") int capacity,
+		@Value("${point.idempotency.ttl:10m}") Duration ttl
+	) {
+		this.capacity = capacity;
+		this.ttlNanos = ttl.toNanos();
+	}
+
+	/**
+	 * 처음 보는 키면 action 을 실행하고 결과를 남긴다. 이미 있는 키면 남겨둔 결과를 반환한다.
+	 */
+	public UserPoint execute(long userId, String idempotencyKey, TransactionType type, long amount,
+		Supplier<UserPoint> action) {
+		return execute(userId, idempotencyKey, type, amount, null, action);
+	}
+
+	/**
+	 * chargeExpiresAt 은 유효기간이 있는 충전의 유효기간이며, 같은 키의 요청은 유효기간도 같아야 한다.
+	 */
+	public UserPoint execute(long userId, String idempotencyKey, TransactionType type, long amount,
+		Long chargeExpiresAt, Supplier<UserPoint> action) {
+		Key key = new Key(userId, idempotencyKey);
+		while (true) {
+			long now = System.nanoTime();
+			Entry created = new Entry(key, type, amount, chargeExpiresAt, now + ttlNanos);
+			Entry existing = entries.putIfAbsent(key, created);
+			if (existing == null) {
+				insertionOrder.add(created);
+				queued.incrementAndGet();
+				evict(now);
+				return run(created, action);
+			}
+			if (existing.isExpired(now)) {
+				entries.remove(key, existing);
+				continue;
+			}
+			if (existing.type != type || existing.amount != amount
+				|| !Objects.equals(existing.chargeExpiresAt, chargeExpiresAt)) {
+				throw new PointIdempotencyException(
+					"같은 멱등 키로 다른 요청이 들어왔습니다. userId=" + userId + ", key=" + idempotencyKey);
+			}
+			return existing.result();
+		}
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private UserPoint run(Entry entry, Supplier<UserPoint> action) {
+		try {
+			UserPoint userPoint = action.get();
+			entry.complete(userPoint);
+			return userPoint;
+		} catch (RuntimeException e) {
+			entries.remove(entry.key, entry);
+			entry.inFlight.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * 가장 먼저 들어온 항목부터, 만료되었거나 capacity 를 넘는 만큼 제거한다.
+	 * ttl 이 모두 같으므로 들어온 순서가 곧 만료 순서다.
+	 */
+	private void evict(long now) {
+		Entry eldest;
+		while ((eldest = insertionOrder.peek()) != null
+			&& (eldest.isExpired(now) || queued.get() > capacity)) {
+			if (insertionOrder.remove(eldest)) {
+				queued.decrementAndGet();
+				entries.remove(eldest.key, eldest);
+			}
+		}
+	}
+
+	private record Key(long userId, String idempotencyKey) {
+	}
+
+	private static final class Entry {
+
+		private final Key key;
+
+		private final TransactionType type;
+
+		private final long amount;
+
+		private final Long chargeExpiresAt;
+
+		private final long expiresAt;
+
+		private volatile CompletableFuture<UserPoint> inFlight = new CompletableFuture<>();
+
+		private long point;
+
+		private long updateMillis;
+
+		private Entry(Key key, TransactionType type, long amount, Long chargeExpiresAt, long expiresAt) {
+			this.key = key;
+			this.type = type;
+			this.amount = amount;
+			this.chargeExpiresAt = chargeExpiresAt;
+			this.expiresAt = expiresAt;
+		}
+
+		private boolean isExpired(long now) {
+			return now - expiresAt >= 0;
+		}
+
+		/**
+		 * 결과를 남기고 future 를 놓는다. inFlight 를 null 로 쓰기 전에 잔고를 써서, null 을 읽은 스레드는 잔고를 볼 수 있다.
+		 */
+		private void complete(UserPoint userPoint) {
+			CompletableFuture<UserPoint> future = inFlight;
+			point = userPoint.point();
+			updateMillis = userPoint.updateMillis();
+			inFlight = null;
+			future.complete(userPoint);
+		}
+
+		private UserPoint result() {
+			CompletableFuture<UserPoint> future = inFlight;
+			if (future == null) {
+				return new UserPoint(key.userId, point, updateMillis);
+			}
+			try {
+				return future.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException cause) {
+					throw cause;
+				}
+				throw e;
+			}
+		}
+	}
+}
@@ -0,0 +1,445 @@
+package io.hhplus.tdd.point;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 포인트 변경을 고정 길이 레코드로 남기는 append-only 저널.
+ * 파일은 segmentSize 크기의 세그먼트로 나누어 메모리 매핑하고, 가득 차면 다음 세그먼트로 넘어간다.
+ * 기록은 매핑된 메모리에 쓰는 것으로 끝나고, 디스크 반영(force)은 별도 스레드가 모아서 한다(group fsync).
+ * sync 를 호출한 스레드는 그때까지 기록된 레코드가 디스크에 반영될 때까지 기다린다.
+ * 비활성화(point.journal.enabled=false) 상태에서는 아무것도 기록하지 않는다.
+ *
+ * 레코드 (40 byte, big endian)
+ * userId(8) | amount(8) | updateMillis(8) | point(8) | type(1) | kind(1) | 예약(2) | crc32(4)
+ * crc 가 맞지 않는 레코드를 만나면 그 세그먼트의 끝으로 본다. 기록 도중 종료되어 잘린 레코드는 이렇게 버려진다.
+ * 유효기간이 있는 충전은 변경 레코드(kind 0) 바로 앞에 유효기간 레코드(kind 1)를 같은 임계 구역, 같은 세그먼트에 남긴다.
+ * 유효기간 레코드는 amount 자리에 expiresAt 을 담고, 재생할 때 바로 뒤의 같은 유저의 변경 레코드와 합쳐 하나로 넘긴다.
+ * 둘 사이에서 종료되면 유효기간 레코드만 마지막 세그먼트 끝에 남는다. 다시 열 때 이 레코드를 잘라내 다음 기록이 덮어쓰게 한다.
+ *
+ * 레코드에는 재시작해도 이어지는 일련번호(sequence)가 붙는다. 세그먼트 파일 이름이 그 세그먼트 첫 레코드의 일련번호다.
+ * sequence() 로 받은 번호 앞의 레코드는 모두 세그먼트에 쓰여 있으므로, 그 범위는 기록과 동시에 replay 로 읽을 수 있다.
+ */
+@Slf4j
+@Component
+public class PointJournal {
+
+	static final int RECORD_SIZE = 40;
+
+	private static final int CHECKSUM_OFFSET = RECORD_SIZE - Integer.BYTES;
+
+	private static final int KIND_OFFSET = 33;
+
+	private static final byte KIND_CHANGE = 0;
+
+	private static final byte KIND_EXPIRY = 1;
+
+	private static final String SEGMENT_SUFFIX = ".journal";
+
+	private static final PointJournal DISABLED = new PointJournal();
+
+	private static final TransactionType[] TYPES = TransactionType.values();
+
+	private final boolean enabled;
+
+	private final Path directory;
+
+	private final int segmentSize;
+
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	private final ReentrantLock syncLock = new ReentrantLock();
+
+	private final Condition syncRequested = syncLock.newCondition();
+
+	private final Condition synced = syncLock.newCondition();
+
+	private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+
+	private final CRC32 crc = new CRC32();
+
+	private final Thread flusher;
+
+	private FileChannel channel;
+
+	private MappedByteBuffer segment;
+
+	private volatile long written;
+
+	private volatile long durable;
+
+	private volatile boolean closed;
+
+	private volatile boolean recovering;
+
+	public PointJournal(
+		@Value("${point.journal.enabled:false}") boolean enabled,
+		@Value("${point.journal.directory:data/journal}") Path directory,
+		@Value("${point.journal.segment-size:67108864}") int segmentSize
+	) {
+		this.enabled = enabled;
+		this.directory = directory;
+		this.segmentSize = segmentSize / RECORD_SIZE * RECORD_SIZE;
+		if (!enabled) {
+			this.flusher = null;
+			return;
+		}
+		if (this.segmentSize < RECORD_SIZE * 2) {
+			throw new IllegalArgumentException("세그먼트 크기는 레코드 크기(" + RECORD_SIZE + ")의 두 배 이상이어야 합니다");
+		}
+
+		try {
+			Files.createDirectories(directory);
+			List<Path> segments = segments();
+			if (segments.isEmpty()) {
+				open(0L, 0);
+			} else {
+				Path last = segments.get(segments.size() - 1);
+				open(baseOf(last), validLength(last));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("포인트 저널을 열 수 없습니다. directory=" + directory, e);
+		}
+
+		this.flusher = new Thread(this::flushLoop, "point-journal-flusher");
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	private PointJournal() {
+		this.enabled = false;
+		this.directory = null;
+		this.segmentSize = 0;
+		this.flusher = null;
+	}
+
+	public static PointJournal disabled() {
+		return DISABLED;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void append(long userId, long amount, TransactionType type, long updateMillis, long point) {
+		append(userId, amount, type, updateMillis, point, null);
+	}
+
+	/**
+	 * expiresAt 이 있으면 변경 레코드 앞에 유효기간 레코드를 함께 남긴다.
+	 */
+	public void append(long userId, long amount, TransactionType type, long updateMillis, long point,
+		Long expiresAt) {
+		if (!enabled) {
+			return;
+		}
+		if (closed) {
+			throw new IllegalStateException("포인트 저널이 종료되었습니다");
+		}
+
+		writeLock.lock();
+		try {
+			if (expiresAt != null) {
+				if (segment.remaining() < RECORD_SIZE * 2) {
+					rotate();
+				}
+				write(userId, expiresAt, 0L, 0L, type, KIND_EXPIRY);
+			}
+			write(userId, amount, updateMillis, point, type, KIND_CHANGE);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * 지금까지 기록된 레코드 수. 이 번호 앞의 레코드는 모두 세그먼트에 쓰여 있다.
+	 */
+	public long sequence() {
+		writeLock.lock();
+		try {
+			return written;
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * 복구를 시작한다. endRecovery 를 호출할 때까지 isRecovering 이 true 이며, PointStore 는 잔고와 내역을 다루지 않는다.
+	 */
+	public void beginRecovery() {
+		recovering = true;
+	}
+
+	public void endRecovery() {
+		recovering = false;
+	}
+
+	public boolean isRecovering() {
+		return recovering;
+	}
+
+	/**
+	 * 호출 시점까지 append 된 레코드가 디스크에 반영될 때까지 대기한다.
+	 */
+	public void sync() {
+		if (!enabled) {
+			return;
+		}
+		long target = written;
+		syncLock.lock();
+		try {
+			while (durable < target) {
+				if (closed) {
+					throw new IllegalStateException("포인트 저널이 종료되었습니다");
+				}
+				syncRequested.signal();
+				synced.await();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("포인트 저널 반영 대기 중 인터럽트되었습니다", e);
+		} finally {
+			syncLock.unlock();
+		}
+	}
+
+	/**
+	 * 모든 변경 레코드를 기록된 순서대로 읽는다.
+	 */
+	public long replay(RecordVisitor visitor) {
+		return replay(0L, visitor);
+	}
+
+	/**
+	 * fromSequence 번째 레코드부터 기록된 순서대로 읽는다. 읽은 변경 레코드 수를 반환한다.
+	 * 기록과 동시에 호출하지 않는다. 애플리케이션 시작 시 복구에 사용한다.
+	 * 기록 중에는 sequence() 로 받은 번호까지로 범위를 정해 replay(fromSequence, toSequence, visitor) 를 쓴다.
+	 */
+	public long replay(long fromSequence, RecordVisitor visitor) {
+		return replay(fromSequence, Long.MAX_VALUE, visitor);
+	}
+
+	/**
+	 * fromSequence 번째부터 toSequence 번째 앞까지의 레코드를 기록된 순서대로 읽는다.
+	 * sequence() 는 유효기간 레코드와 그 변경 레코드 사이를 가르지 않으므로, 그 번호로 나눠 읽어도 둘은 같은 쪽에 있다.
+	 */
+	public long replay(long fromSequence, long toSequence, RecordVisitor visitor) {
+		if (!enabled) {
+			return 0L;
+		}
+		long count = 0;
+		long expiryUserId = 0L;
+		Long expiresAt = null;
+		try {
+			List<Path> segments = segments();
+			for (int i = 0; i < segments.size(); i++) {
+				long base = baseOf(segments.get(i));
+				if (base >= toSequence) {
+					break;
+				}
+				if (i + 1 < segments.size() && baseOf(segments.get(i + 1)) <= fromSequence) {
+					continue;
+				}
+				try (FileChannel readChannel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+					MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+					CRC32 checksum = new CRC32();
+					long start = Math.max(0L, fromSequence - base) * RECORD_SIZE;
+					if (start >= buffer.limit()) {
+						continue;
+					}
+					long end = toSequence - base < buffer.limit() / RECORD_SIZE
+						? (toSequence - base) * RECORD_SIZE : buffer.limit();
+					for (int position = (int)start; position < end && isValid(buffer, position, checksum);
+						position += RECORD_SIZE) {
+						long userId = buffer.getLong(position);
+						if (buffer.get(position + KIND_OFFSET) == KIND_EXPIRY) {
+							expiryUserId = userId;
+							expiresAt = buffer.getLong(position + 8);
+							continue;
+						}
+						visitor.visit(userId, buffer.getLong(position + 8), TYPES[buffer.get(position + 32)],
+							buffer.getLong(position + 16), buffer.getLong(position + 24),
+							expiryUserId == userId ? expiresAt : null);
+						expiresAt = null;
+						count++;
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("포인트 저널을 읽을 수 없습니다. directory=" + directory, e);
+		}
+		return count;
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException {
+		if (!enabled || closed) {
+			return;
+		}
+		closed = true;
+		syncLock.lock();
+		try {
+			syncRequested.signal();
+		} finally {
+			syncLock.unlock();
+		}
+		flusher.join();
+
+		writeLock.lock();
+		try {
+			segment.force();
+			durable = written;
+			channel.close();
+		} catch (IOException e) {
+			log.error("포인트 저널을 닫는 중 실패했습니다. directory={}", directory, e);
+		} finally {
+			writeLock.unlock();
+		}
+		syncLock.lock();
+		try {
+			synced.signalAll();
+		} finally {
+			syncLock.unlock();
+		}
+	}
+
+	private void flushLoop() {
+		while (!closed) {
+			syncLock.lock();
+			try {
+				while (!closed && durable >= written) {
+					syncRequested.await(100, TimeUnit.MILLISECONDS);
+				}
+			} catch (InterruptedException e) {
+				log.warn("포인트 저널 반영 스레드가 인터럽트되었습니다");
+				return;
+			} finally {
+				syncLock.unlock();
+			}
+			if (closed) {
+				return;
+			}
+
+			long target;
+			MappedByteBuffer current;
+			writeLock.lock();
+			try {
+				target = written;
+				current = segment;
+			} finally {
+				writeLock.unlock();
+			}
+			current.force();
+
+			syncLock.lock();
+			try {
+				durable = target;
+				synced.signalAll();
+			} finally {
+				syncLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * 레코드 하나를 현재 세그먼트에 쓴다. 세그먼트가 가득 찼으면 다음 세그먼트로 넘어간다. writeLock 안에서만 호출한다.
+	 */
+	private void write(long userId, long amount, long updateMillis, long point, TransactionType type, byte kind) {
+		if (!segment.hasRemaining()) {
+			rotate();
+		}
+		record.clear();
+		record.putLong(userId).putLong(amount).putLong(updateMillis).putLong(point)
+			.put((byte)type.ordinal()).put(kind).put((byte)0).put((byte)0);
+		crc.reset();
+		crc.update(record.array(), 0, CHECKSUM_OFFSET);
+		record.putInt((int)crc.getValue());
+		segment.put(record.flip());
+		written++;
+	}
+
+	/**
+	 * 현재 세그먼트를 디스크에 반영하고 다음 세그먼트를 연다. writeLock 안에서만 호출한다.
+	 */
+	private void rotate() {
+		try {
+			segment.force();
+			channel.close();
+			open(written, 0);
+		} catch (IOException e) {
+			throw new UncheckedIOException("포인트 저널 세그먼트를 바꿀 수 없습니다. directory=" + directory, e);
+		}
+	}
+
+	private void open(long base, int position) throws IOException {
+		channel = FileChannel.open(directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX)),
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		segment.position(position);
+		written = base + position / RECORD_SIZE;
+		durable = written;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+		}
+	}
+
+	private int validLength(Path path) throws IOException {
+		try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+			CRC32 checksum = new CRC32();
+			int position = 0;
+			while (isValid(buffer, position, checksum)) {
+				position += RECORD_SIZE;
+			}
+			if (position > 0 && buffer.get(position - RECORD_SIZE + KIND_OFFSET) == KIND_EXPIRY) {
+				log.warn("변경 레코드 없이 남은 유효기간 레코드를 버립니다. file={}", path);
+				position -= RECORD_SIZE;
+			}
+			return position;
+		}
+	}
+
+	private static boolean isValid(ByteBuffer buffer, int position, CRC32 checksum) {
+		if (position + RECORD_SIZE > buffer.limit()) {
+			return false;
+		}
+		checksum.reset();
+		checksum.update(buffer.slice(position, CHECKSUM_OFFSET));
+		return (int)checksum.getValue() == buffer.getInt(position + CHECKSUM_OFFSET);
+	}
+
+	private static long baseOf(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	@FunctionalInterface
+	public interface RecordVisitor {
+
+		/**
+		 * expiresAt 은 유효기간이 있는 충전에만 있고, 그 밖에는 null 이다.
+		 */
+		void visit(long userId, long amount, TransactionType type, long updateMillis, long point, Long expiresAt);
+	}
+}
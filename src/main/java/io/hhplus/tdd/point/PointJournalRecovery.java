@@ -0,0 +1,127 @@
+package io.hhplus.tdd.point;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.database.UserPointTable;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 애플리케이션 시작 시 PointJournal 을 읽어 테이블을 다시 채운다.
+ * 테이블 저장은 느리므로 시작을 막지 않도록 별도 스레드에서 복구한다. 복구가 끝날 때까지 PointStore 는 요청을 거절하고
+ * PointRecoveryHealthIndicator 는 readiness 를 OUT_OF_SERVICE 로 알린다. 복구에 실패하면 계속 거절한다.
+ * 스냅샷이 있으면 스냅샷의 잔고, 내역, 누적 집계, 유효기간 묶음을 그대로 들이고 watermark 뒤의 레코드만 재생한다.
+ * 없으면 저널을 처음부터 재생한다. 유저별 마지막 잔고는 UserPointTable 에 한번씩 저장한다.
+ * 내역은 PointHistoryWriter 에 기록된 순서대로 넘겨 PointHistoryRepository 에 기록하고, 재생한 레코드는 누적 집계에도 반영한다.
+ * 유효기간 묶음도 재생한 레코드로 쌓는다. 충전은 묶음을 더하고 사용은 차감하며, 소멸은 그 시각까지 만료된 묶음을 뺀다.
+ * 복구 중에는 저널에 다시 기록하지 않으며, 복구가 끝나면 주기적인 스냅샷을 시작한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PointJournalRecovery {
+
+	private final PointJournal journal;
+
+	private final PointSnapshotter snapshotter;
+
+	private final UserPointTable userPointRepo;
+
+	private final PointHistoryWriter historyWriter;
+
+	private final PointStatsIndex statsIndex;
+
+	private final PointLotLedger lotLedger;
+
+	private final PointMetrics metrics;
+
+	private volatile CompletableFuture<Void> recovered = CompletableFuture.completedFuture(null);
+
+	@PostConstruct
+	public void start() {
+		if (!journal.isEnabled()) {
+			return;
+		}
+		journal.beginRecovery();
+		CompletableFuture<Void> recovering = new CompletableFuture<>();
+		recovered = recovering;
+		Thread recoverer = new Thread(() -> {
+			try {
+				recover();
+				recovering.complete(null);
+			} catch (RuntimeException e) {
+				log.error("포인트 복구에 실패했습니다. 복구될 때까지 요청을 거절합니다.", e);
+				recovering.completeExceptionally(e);
+			}
+		}, "point-recovery");
+		recoverer.setDaemon(true);
+		recoverer.start();
+	}
+
+	/**
+	 * start 로 시작한 복구가 끝나면 완료된다. 복구하지 않았으면 이미 완료되어 있다.
+	 */
+	public CompletableFuture<Void> recovered() {
+		return recovered;
+	}
+
+	/**
+	 * 호출한 스레드에서 복구를 마친다.
+	 */
+	public void recover() {
+		if (!journal.isEnabled()) {
+			return;
+		}
+		journal.beginRecovery();
+		long startedAt = System.nanoTime();
+		Map<Long, Long> points = new HashMap<>();
+		long watermark = 0L;
+		Optional<PointSnapshotter.Snapshot> snapshot = snapshotter.loadLatest();
+		if (snapshot.isPresent()) {
+			restore(snapshot.get(), points);
+			watermark = snapshot.get().watermark();
+		}
+
+		long records = journal.replay(watermark, (userId, amount, type, updateMillis, point, expiresAt) -> {
+			points.put(userId, point);
+			replayHistory(userId, amount, type, updateMillis, point, expiresAt);
+		});
+		points.forEach(userPointRepo::insertOrUpdate);
+		metrics.recordRecovery(startedAt);
+		log.info("포인트 복구 완료. 스냅샷 watermark {}, 재생한 레코드 {}건, 유저 {}명, {}ms", watermark, records,
+			points.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+		journal.endRecovery();
+		snapshotter.start();
+	}
+
+	private void restore(PointSnapshotter.Snapshot snapshot, Map<Long, Long> points) {
+		for (int i = 0; i < snapshot.userIds().length; i++) {
+			points.put(snapshot.userIds()[i], snapshot.points()[i]);
+		}
+		PointSnapshotter.Histories histories = snapshot.histories();
+		for (int i = 0; i < histories.size(); i++) {
+			historyWriter.append(histories.userIds()[i], histories.amounts()[i], histories.types()[i],
+				histories.updateMillis()[i], histories.points()[i]);
+		}
+		snapshot.stats().forEach(statsIndex::restore);
+		PointSnapshotter.Lots lots = snapshot.lots();
+		for (int i = 0; i < lots.userIds().length; i++) {
+			lotLedger.restore(lots.userIds()[i], lots.remaining()[i], lots.expiresAt()[i]);
+		}
+	}
+
+	private void replayHistory(long userId, long amount, TransactionType type, long updateMillis, long point,
+		Long expiresAt) {
+		historyWriter.append(userId, amount, type, updateMillis, point);
+		statsIndex.record(userId, type, amount, updateMillis);
+		lotLedger.replay(userId, type, amount, updateMillis, expiresAt);
+	}
+}
@@ -1,16 +1,94 @@
 package io.hhplus.tdd.point;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 import org.springframework.stereotype.Component;
 
+/**
+ * 유저별 락을 제공한다.
+ * 락은 사용 중인 유저에 대해서만 유지되며, 마지막 사용자가 반납하면 레지스트리에서 제거된다.
+ * 대기는 ReentrantLock 으로만 하므로 가상 스레드에서 실행해도 캐리어 스레드를 붙잡지(pinning) 않는다.
+ * compute 안에서는 참조 수만 바꾸고 대기하지 않는다.
+ */
 @Component
 public class PointLockProvider {
 
-	private final ReentrantLock lock = new ReentrantLock(true);
+	private final ConcurrentHashMap<Long, UserLock> locks = new ConcurrentHashMap<>();
 
-	public ReentrantLock provide() {
-		return lock;
+	private final PointMetrics metrics;
+
+	public PointLockProvider(PointMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public <T> T executeWithLock(long userId, Supplier<T> action) {
+		return executeWithLock(userId, 0L, action);
+	}
+
+	/**
+	 * timeoutNanos 가 0 보다 크면 그 시간 안에 락을 얻지 못했을 때 PointOverloadedException 이 발생한다.
+	 */
+	public <T> T executeWithLock(long userId, long timeoutNanos, Supplier<T> action) {
+		UserLock userLock = acquire(userId);
+
+		try {
+			long waitStartedAt = metrics.start();
+			lock(userLock, timeoutNanos);
+			long acquiredAt = metrics.recordLockWait(waitStartedAt);
+			try {
+				return action.get();
+			} finally {
+				userLock.lock.unlock();
+				metrics.recordLockHold(acquiredAt);
+			}
+		} finally {
+			release(userId);
+		}
+	}
+
+	public int activeLockCount() {
+		return locks.size();
+	}
+
+	private static void lock(UserLock userLock, long timeoutNanos) {
+		if (timeoutNanos <= 0) {
+			userLock.lock.lock();
+			return;
+		}
+		try {
+			if (!userLock.lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+				throw new PointOverloadedException(PointOverloadedException.Reason.LOCK_TIMEOUT,
+					"유저 락을 " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms 안에 얻지 못했습니다");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("유저 락 대기 중 인터럽트되었습니다", e);
+		}
+	}
+
+	private UserLock acquire(long userId) {
+		return locks.compute(userId, (key, userLock) -> {
+			UserLock acquired = userLock == null ? new UserLock() : userLock;
+			acquired.references++;
+			return acquired;
+		});
+	}
+
+	private void release(long userId) {
+		locks.computeIfPresent(userId, (key, userLock) -> --userLock.references == 0 ? null : userLock);
+	}
+
+	/**
+	 * references 는 ConcurrentHashMap 의 compute 안에서만 변경된다.
+	 */
+	private static final class UserLock {
+
+		private final ReentrantLock lock = new ReentrantLock(true);
+
+		private int references;
 	}
 
 }
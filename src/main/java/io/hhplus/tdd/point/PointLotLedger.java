@@ -0,0 +1,183 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 유효기간이 있는 충전을 유저별 묶음(lot)으로 관리한다.
+ * 사용하면 유효기간이 있는 묶음부터 충전한 순서대로(FIFO) 차감하고, 남은 사용 금액은 유효기간이 없는 잔고에서 차감한 것으로 본다.
+ * 따라서 남은 묶음의 합은 잔고를 넘지 않는다.
+ * 묶음을 더할 때 PointExpiryWheel 에 만료 시각을 등록해, 만료된 유저를 찾을 때 전체 묶음을 훑지 않는다.
+ * 이미 다 사용한 묶음의 등록은 지우지 않고, 만료 시각에 나왔을 때 소멸할 묶음이 없는 것으로 끝난다.
+ *
+ * 묶음은 메모리에만 있고, 재시작하면 PointJournalRecovery 가 스냅샷의 묶음에 그 뒤의 저널을 재생해 다시 쌓는다.
+ */
+@Component
+public class PointLotLedger {
+
+	private final ConcurrentHashMap<Long, ArrayDeque<Lot>> lotsByUser = new ConcurrentHashMap<>();
+
+	private final PointExpiryWheel wheel;
+
+	public PointLotLedger(
+		@Value("${point.expiry.tick-millis:1000}") long tickMillis,
+		@Value("${point.expiry.wheel-size:64}") int wheelSize
+	) {
+		this.wheel = new PointExpiryWheel(tickMillis, wheelSize, System.currentTimeMillis());
+	}
+
+	/**
+	 * 적용된 변경을 묶음에 반영한다. 유효기간이 있는 충전은 묶음을 더하고, 사용은 묶음을 차감한다.
+	 * 한 유저의 변경은 잔고에 적용된 순서대로 호출해야 한다.
+	 */
+	public void record(long userId, PointOperation operation) {
+		switch (operation.type()) {
+			case CHARGE -> {
+				if (operation.expiresAt() != null) {
+					add(userId, operation.amount(), operation.expiresAt());
+				}
+			}
+			case USE -> consume(userId, operation.amount());
+			case EXPIRE -> {
+			}
+		}
+	}
+
+	/**
+	 * 저널 레코드 하나를 묶음에 반영한다. 소멸은 그 시각까지 만료된 묶음을 빼고, 충전과 사용은 record 와 같다.
+	 */
+	public void replay(long userId, TransactionType type, long amount, long updateMillis, Long expiresAt) {
+		if (type == TransactionType.EXPIRE) {
+			expire(userId, updateMillis);
+		} else {
+			record(userId, new PointOperation(userId, type, amount, expiresAt));
+		}
+	}
+
+	/**
+	 * 스냅샷에 담긴 묶음을 다시 더한다. 한 유저의 묶음은 충전한 순서대로 호출해야 한다.
+	 */
+	public void restore(long userId, long remaining, long expiresAt) {
+		add(userId, remaining, expiresAt);
+	}
+
+	/**
+	 * 남은 묶음을 유저별로 충전한 순서대로 넘긴다.
+	 */
+	public void forEachLot(LotVisitor visitor) {
+		for (Long userId : lotsByUser.keySet()) {
+			lotsByUser.computeIfPresent(userId, (key, lots) -> {
+				lots.forEach(lot -> visitor.visit(key, lot.remaining, lot.expiresAt));
+				return lots;
+			});
+		}
+	}
+
+	/**
+	 * nowMillis 까지 만료된 묶음을 빼고 그 남은 금액의 합을 반환한다. 만료된 묶음이 없으면 0 이다.
+	 */
+	public long expire(long userId, long nowMillis) {
+		long[] expired = new long[1];
+		lotsByUser.computeIfPresent(userId, (key, lots) -> {
+			Iterator<Lot> iterator = lots.iterator();
+			while (iterator.hasNext()) {
+				Lot lot = iterator.next();
+				if (lot.expiresAt <= nowMillis) {
+					expired[0] += lot.remaining;
+					iterator.remove();
+				}
+			}
+			return lots.isEmpty() ? null : lots;
+		});
+		return expired[0];
+	}
+
+	/**
+	 * nowMillis 까지 만료된 묶음의 남은 금액 합. expire 와 달리 묶음을 빼지 않는다.
+	 */
+	public long expiredPoint(long userId, long nowMillis) {
+		long[] expired = new long[1];
+		lotsByUser.computeIfPresent(userId, (key, lots) -> {
+			lots.forEach(lot -> expired[0] += lot.expiresAt <= nowMillis ? lot.remaining : 0L);
+			return lots;
+		});
+		return expired[0];
+	}
+
+	/**
+	 * 아직 소멸하지 않은 묶음의 남은 금액 합
+	 */
+	public long expiringPoint(long userId) {
+		long[] remaining = new long[1];
+		lotsByUser.computeIfPresent(userId, (key, lots) -> {
+			lots.forEach(lot -> remaining[0] += lot.remaining);
+			return lots;
+		});
+		return remaining[0];
+	}
+
+	/**
+	 * nowMillis 까지 만료 시각이 지난 묶음이 있었던 유저를 중복 없이 반환한다.
+	 */
+	public Set<Long> advance(long nowMillis) {
+		return wheel.advance(nowMillis);
+	}
+
+	/**
+	 * 소멸에 실패한 유저를 다음 tick 에 다시 꺼내도록 등록한다.
+	 */
+	public void retry(long userId, long nowMillis) {
+		wheel.schedule(userId, nowMillis);
+	}
+
+	private void add(long userId, long amount, long expiresAt) {
+		lotsByUser.compute(userId, (key, lots) -> {
+			ArrayDeque<Lot> userLots = lots == null ? new ArrayDeque<>() : lots;
+			userLots.addLast(new Lot(amount, expiresAt));
+			return userLots;
+		});
+		wheel.schedule(userId, expiresAt);
+	}
+
+	private void consume(long userId, long amount) {
+		lotsByUser.computeIfPresent(userId, (key, lots) -> {
+			long left = amount;
+			while (left > 0 && !lots.isEmpty()) {
+				Lot oldest = lots.peekFirst();
+				long consumed = Math.min(left, oldest.remaining);
+				oldest.remaining -= consumed;
+				left -= consumed;
+				if (oldest.remaining == 0) {
+					lots.pollFirst();
+				}
+			}
+			return lots.isEmpty() ? null : lots;
+		});
+	}
+
+	/**
+	 * remaining 은 ConcurrentHashMap 의 compute 안에서만 변경된다.
+	 */
+	private static final class Lot {
+
+		private final long expiresAt;
+
+		private long remaining;
+
+		private Lot(long remaining, long expiresAt) {
+			this.remaining = remaining;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	@FunctionalInterface
+	public interface LotVisitor {
+
+		void visit(long userId, long remaining, long expiresAt);
+	}
+}
@@ -0,0 +1,264 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 포인트 처리 구간별 지표
+ * - point.lock.wait / point.lock.hold : 유저 락 획득 대기 시간, 보유 시간
+ * - point.table.latency : 테이블 호출 시간 (table, operation 태그)
+ * - point.table.coalesced : 진행 중인 잔고 조회의 결과를 나눠 받아 생략한 테이블 호출 수
+ * - point.rejected : 규칙 위반으로 거절된 변경 수 (reason 태그)
+ * - point.group-commit.size : 한번의 저장으로 묶인 변경 요청 수
+ * - point.cache.requests / evictions / size : 잔고 캐시 조회 수 (result 태그 hit, miss), 용량을 넘어 밀려난 수, 담긴 잔고 수
+ * - point.recovery : 시작할 때 스냅샷과 저널로 잔고와 내역을 복구하는 데 걸린 시간
+ * - point.reconciliation : 잔고와 내역의 대사 한번에 걸린 시간
+ * - point.reconciliation.users / histories / mismatches : 대사한 유저 수, 읽은 내역 수, 잔고가 내역과 다른 유저 수
+ * 미터는 생성 시점에 등록해 두고, 비활성화(point.metrics.enabled=false) 상태에서는 등록하지도, 시간을 재지도 않는다.
+ * 캐시 지표는 UserPointCache 의 누적 값을 읽는 미터라 bindCache 로 캐시를 받을 때 등록한다.
+ */
+@Component
+public class PointMetrics {
+
+	private static final PointMetrics NOOP = new PointMetrics();
+
+	private final MeterRegistry registry;
+
+	private final boolean enabled;
+
+	private final Timer lockWait;
+
+	private final Timer lockHold;
+
+	private final Timer userPointSelect;
+
+	private final Timer userPointInsertOrUpdate;
+
+	private final Timer pointHistoryInsert;
+
+	private final Counter pointHistoryInsertFailure;
+
+	private final Counter coalescedSelect;
+
+	private final Counter maxPointRejected;
+
+	private final Counter insufficientPointRejected;
+
+	private final DistributionSummary groupCommitSize;
+
+	private final Timer recovery;
+
+	private final Timer reconciliation;
+
+	private final Counter reconciledUsers;
+
+	private final Counter reconciledHistories;
+
+	private final Counter reconciliationMismatches;
+
+	public PointMetrics(MeterRegistry registry, @Value("${point.metrics.enabled:true}") boolean enabled) {
+		this.registry = registry;
+		this.enabled = enabled;
+		this.lockWait = enabled ? timer(registry, "point.lock.wait", "유저 락 획득 대기 시간") : null;
+		this.lockHold = enabled ? timer(registry, "point.lock.hold", "유저 락 보유 시간") : null;
+		this.userPointSelect = enabled ? tableTimer(registry, "user_point", "select") : null;
+		this.userPointInsertOrUpdate = enabled ? tableTimer(registry, "user_point", "insert_or_update") : null;
+		this.pointHistoryInsert = enabled ? tableTimer(registry, "point_history", "insert") : null;
+		this.pointHistoryInsertFailure =
+			enabled ? counter(registry, "point.history.insert.failures", "다시 시도해도 기록하지 못한 내역 수") : null;
+		this.coalescedSelect = enabled ? Counter.builder("point.table.coalesced")
+			.description("진행 중인 조회의 결과를 나눠 받아 생략한 테이블 호출 수")
+			.tag("table", "user_point")
+			.tag("operation", "select")
+			.register(registry) : null;
+		this.maxPointRejected = enabled ? rejectedCounter(registry, PointPolicyException.Reason.MAX_POINT) : null;
+		this.insufficientPointRejected =
+			enabled ? rejectedCounter(registry, PointPolicyException.Reason.INSUFFICIENT_POINT) : null;
+		this.groupCommitSize = enabled ? DistributionSummary.builder("point.group-commit.size")
+			.description("한번의 저장으로 묶인 변경 요청 수")
+			.register(registry) : null;
+		this.recovery = enabled ? timer(registry, "point.recovery", "시작 시 잔고와 내역 복구 시간") : null;
+		this.reconciliation = enabled ? timer(registry, "point.reconciliation", "잔고와 내역 대사 시간") : null;
+		this.reconciledUsers = enabled ? counter(registry, "point.reconciliation.users", "대사한 유저 수") : null;
+		this.reconciledHistories =
+			enabled ? counter(registry, "point.reconciliation.histories", "대사하며 읽은 내역 수") : null;
+		this.reconciliationMismatches =
+			enabled ? counter(registry, "point.reconciliation.mismatches", "잔고가 내역의 합과 다른 유저 수") : null;
+	}
+
+	private PointMetrics() {
+		this.registry = null;
+		this.enabled = false;
+		this.lockWait = null;
+		this.lockHold = null;
+		this.userPointSelect = null;
+		this.userPointInsertOrUpdate = null;
+		this.pointHistoryInsert = null;
+		this.pointHistoryInsertFailure = null;
+		this.coalescedSelect = null;
+		this.maxPointRejected = null;
+		this.insufficientPointRejected = null;
+		this.groupCommitSize = null;
+		this.recovery = null;
+		this.reconciliation = null;
+		this.reconciledUsers = null;
+		this.reconciledHistories = null;
+		this.reconciliationMismatches = null;
+	}
+
+	public static PointMetrics noop() {
+		return NOOP;
+	}
+
+	/**
+	 * 측정 시작 시각. 비활성화 상태면 0 을 반환한다.
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * 락 대기 시간을 기록하고, 보유 시간 측정을 위해 현재 시각을 반환한다.
+	 */
+	public long recordLockWait(long startNanos) {
+		return record(lockWait, startNanos);
+	}
+
+	public void recordLockHold(long startNanos) {
+		record(lockHold, startNanos);
+	}
+
+	public void recordUserPointSelect(long startNanos) {
+		record(userPointSelect, startNanos);
+	}
+
+	public void recordUserPointInsertOrUpdate(long startNanos) {
+		record(userPointInsertOrUpdate, startNanos);
+	}
+
+	public void recordPointHistoryInsert(long startNanos) {
+		record(pointHistoryInsert, startNanos);
+	}
+
+	public void recordPointHistoryInsertFailure() {
+		if (enabled) {
+			pointHistoryInsertFailure.increment();
+		}
+	}
+
+	public void recordCoalescedSelect() {
+		if (enabled) {
+			coalescedSelect.increment();
+		}
+	}
+
+	public void recordRejected(PointPolicyException.Reason reason) {
+		if (!enabled) {
+			return;
+		}
+		switch (reason) {
+			case MAX_POINT -> maxPointRejected.increment();
+			case INSUFFICIENT_POINT -> insufficientPointRejected.increment();
+		}
+	}
+
+	public void recordGroupCommit(int size) {
+		if (enabled) {
+			groupCommitSize.record(size);
+		}
+	}
+
+	public void recordRecovery(long startNanos) {
+		record(recovery, startNanos);
+	}
+
+	public void recordReconciliation(long startNanos) {
+		record(reconciliation, startNanos);
+	}
+
+	public void recordReconciled(int users, long histories) {
+		if (enabled) {
+			reconciledUsers.increment(users);
+			reconciledHistories.increment(histories);
+		}
+	}
+
+	public void recordReconciliationMismatch() {
+		if (enabled) {
+			reconciliationMismatches.increment();
+		}
+	}
+
+	/**
+	 * 잔고 캐시의 적중, 실패, 밀려난 수와 크기를 지표로 내보낸다. 값은 지표를 읽을 때 캐시에서 가져온다.
+	 */
+	public void bindCache(UserPointCache cache) {
+		if (!enabled) {
+			return;
+		}
+		cacheRequestCounter(cache, "hit", UserPointCache.Stats::hits);
+		cacheRequestCounter(cache, "miss", UserPointCache.Stats::misses);
+		FunctionCounter.builder("point.cache.evictions", cache, target -> target.stats().evictions())
+			.description("용량을 넘어 잔고 캐시에서 밀려난 잔고 수")
+			.register(registry);
+		Gauge.builder("point.cache.size", cache, target -> target.stats().size())
+			.description("잔고 캐시에 담긴 잔고 수")
+			.register(registry);
+	}
+
+	private long record(Timer timer, long startNanos) {
+		if (!enabled) {
+			return 0L;
+		}
+		long now = System.nanoTime();
+		timer.record(now - startNanos, TimeUnit.NANOSECONDS);
+		return now;
+	}
+
+	private static Timer timer(MeterRegistry registry, String name, String description) {
+		return Timer.builder(name)
+			.description(description)
+			.publishPercentileHistogram()
+			.register(registry);
+	}
+
+	private static Counter counter(MeterRegistry registry, String name, String description) {
+		return Counter.builder(name)
+			.description(description)
+			.register(registry);
+	}
+
+	private void cacheRequestCounter(UserPointCache cache, String result,
+		ToLongFunction<UserPointCache.Stats> count) {
+		FunctionCounter.builder("point.cache.requests", cache, target -> count.applyAsLong(target.stats()))
+			.description("잔고 캐시 조회 수")
+			.tag("result", result)
+			.register(registry);
+	}
+
+	private static Timer tableTimer(MeterRegistry registry, String table, String operation) {
+		return Timer.builder("point.table.latency")
+			.description("테이블 호출 시간")
+			.tag("table", table)
+			.tag("operation", operation)
+			.publishPercentileHistogram()
+			.register(registry);
+	}
+
+	private static Counter rejectedCounter(MeterRegistry registry, PointPolicyException.Reason reason) {
+		return Counter.builder("point.rejected")
+			.description("규칙 위반으로 거절된 포인트 변경 수")
+			.tag("reason", reason.name().toLowerCase())
+			.register(registry);
+	}
+}
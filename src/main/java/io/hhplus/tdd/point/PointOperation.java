@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point;
+
+/**
+ * expiresAt 이 있는 충전은 그 시각에 남은 만큼 소멸한다(EXPIRE). 없으면 소멸하지 않는다.
+ */
+public record PointOperation(
+	long userId,
+	TransactionType type,
+	long amount,
+	Long expiresAt
+) {
+
+	public PointOperation(long userId, TransactionType type, long amount) {
+		this(userId, type, amount, null);
+	}
+}
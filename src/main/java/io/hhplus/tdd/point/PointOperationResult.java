@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 처리의 항목별 결과. 성공하면 userPoint 에 해당 항목까지 반영된 잔고가, 실패하면 message 에 사유가 담긴다.
+ */
+public record PointOperationResult(
+	long userId,
+	TransactionType type,
+	long amount,
+	boolean success,
+	UserPoint userPoint,
+	String message
+) {
+
+	public static PointOperationResult succeeded(PointOperation operation, UserPoint userPoint) {
+		return new PointOperationResult(operation.userId(), operation.type(), operation.amount(), true, userPoint,
+			null);
+	}
+
+	public static PointOperationResult failed(PointOperation operation, String message) {
+		return new PointOperationResult(operation.userId(), operation.type(), operation.amount(), false, null,
+			message);
+	}
+}
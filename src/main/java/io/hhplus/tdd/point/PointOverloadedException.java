@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 처리량을 넘어 받지 않고 거절한 포인트 변경
+ * - ENDPOINT_LIMIT : 충전/사용별 동시 처리 한도 초과
+ * - USER_LIMIT : 유저별 동시 처리 한도 초과
+ * - LOCK_TIMEOUT : 유저 락을 제한 시간 안에 얻지 못함
+ * - PERSIST_TIMEOUT : optimistic 모드에서 쌓인 변경의 저장을 제한 시간 안에 기다리지 못함
+ */
+public class PointOverloadedException extends IllegalStateException {
+
+	private final Reason reason;
+
+	public PointOverloadedException(Reason reason, String message) {
+		super(message);
+		this.reason = reason;
+	}
+
+	public Reason getReason() {
+		return reason;
+	}
+
+	public enum Reason {
+		ENDPOINT_LIMIT, USER_LIMIT, LOCK_TIMEOUT, PERSIST_TIMEOUT
+	}
+}
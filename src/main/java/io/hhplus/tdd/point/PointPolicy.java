@@ -0,0 +1,73 @@
+package io.hhplus.tdd.point;
+
+import static io.hhplus.tdd.point.PointService.MAX_POINT;
+
+/**
+ * 포인트 변경 규칙
+ * - CHARGE : 충전 후 잔고가 MAX_POINT 를 넘을 수 없다.
+ * - USE : 잔고보다 많이 사용할 수 없다.
+ * - EXPIRE : 소멸한 만큼 줄이되 잔고가 0 아래로 내려가지 않는다.
+ * - 전송 : 다른 유저에게 0 보다 큰 금액만 보낼 수 있다.
+ * - 유효기간 : 충전 시각 이후여야 한다.
+ */
+final class PointPolicy {
+
+	static final String EXPIRES_AT_NOT_AFTER_CHARGE = "유효기간은 충전 시각 이후여야 합니다";
+
+	private PointPolicy() {
+	}
+
+	static long apply(long point, TransactionType type, long amount) {
+		return switch (type) {
+			case CHARGE -> charge(point, amount);
+			case USE -> use(point, amount);
+			case EXPIRE -> expire(point, amount);
+		};
+	}
+
+	static long charge(long point, long amount) {
+		if (point + amount > MAX_POINT) {
+			throw new PointPolicyException(PointPolicyException.Reason.MAX_POINT, "포인트가 최대 잔고를 초과하였습니다");
+		}
+		return point + amount;
+	}
+
+	static long use(long point, long amount) {
+		if (point < amount) {
+			throw new PointPolicyException(PointPolicyException.Reason.INSUFFICIENT_POINT, "포인트가 부족합니다");
+		}
+		return point - amount;
+	}
+
+	static long expire(long point, long amount) {
+		return Math.max(point - amount, 0L);
+	}
+
+	/**
+	 * 전송 금액이 음수면 받는 유저의 포인트를 보내는 유저에게 옮기게 되므로 락을 잡기 전에 거절한다.
+	 */
+	static void checkTransfer(long fromId, long toId, long amount) {
+		if (fromId == toId) {
+			throw new IllegalArgumentException("자기 자신에게 포인트를 보낼 수 없습니다");
+		}
+		if (amount <= 0) {
+			throw new IllegalArgumentException("전송 금액은 0 보다 커야 합니다");
+		}
+	}
+
+	/**
+	 * 이미 지난 유효기간으로 충전하면 바로 소멸할 묶음만 남으므로 받지 않는다.
+	 */
+	static void checkExpiresAt(long chargedAt, long expiresAt) {
+		if (expiresAt <= chargedAt) {
+			throw new IllegalArgumentException(EXPIRES_AT_NOT_AFTER_CHARGE);
+		}
+	}
+
+	/**
+	 * 내역 하나가 잔고에 더한 금액. 충전은 더하고 사용과 소멸은 뺀다.
+	 */
+	static long delta(TransactionType type, long amount) {
+		return type == TransactionType.CHARGE ? amount : -amount;
+	}
+}
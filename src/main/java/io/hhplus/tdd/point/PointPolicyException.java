@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+/**
+ * PointPolicy 규칙을 어겨 거절된 포인트 변경
+ * - MAX_POINT : 최대 잔고 초과
+ * - INSUFFICIENT_POINT : 잔고 부족
+ */
+public class PointPolicyException extends IllegalArgumentException {
+
+	private final Reason reason;
+
+	public PointPolicyException(Reason reason, String message) {
+		super(message);
+		this.reason = reason;
+	}
+
+	public Reason getReason() {
+		return reason;
+	}
+
+	public enum Reason {
+		MAX_POINT, INSUFFICIENT_POINT
+	}
+}
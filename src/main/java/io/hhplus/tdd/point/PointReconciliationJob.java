@@ -0,0 +1,247 @@
+package io.hhplus.tdd.point;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 유저마다 잔고가 내역의 합(충전 - 사용 - 소멸)과 같은지 대사한다.
+ * 유저마다 전체 내역을 훑지 않고, PointHistoryRepository 에서 유저별 내역을 한번씩만 읽는다.
+ * 내역이 있는 유저의 id 를 정렬한 뒤 구간으로 나눠 ForkJoinPool 에서 병렬로 처리하고,
+ * 잔고가 다른 유저는 찾는 즉시 directory 아래의 CSV 파일에 쓴다.
+ *
+ * 시작할 때 기록 대기 중인 내역을 모두 기록한다. 변경 중인 유저는 잔고 저장과 내역 기록 사이에 읽을 수 있으므로,
+ * 다르게 나온 유저는 기록 대기 중인 내역까지 넣어 한번 더 비교한 뒤에도 다를 때만 남긴다.
+ * 내역이 없는 유저는 UserPointTable 에서 목록을 얻을 수 없어 대사하지 않는다.
+ */
+@Slf4j
+@Component
+public class PointReconciliationJob {
+
+	private static final int LEAF_SIZE = 64;
+
+	private static final String HEADER = "userId,point,historyNet,difference";
+
+	private final PointHistoryRepository historyRepo;
+
+	private final PointHistoryWriter historyWriter;
+
+	private final PointStore pointStore;
+
+	private final PointMetrics metrics;
+
+	private final Path directory;
+
+	private final ForkJoinPool pool;
+
+	private CompletableFuture<PointReconciliationReport> running;
+
+	private volatile Run current;
+
+	public PointReconciliationJob(
+		PointHistoryRepository historyRepo,
+		PointHistoryWriter historyWriter,
+		PointStore pointStore,
+		PointMetrics metrics,
+		@Value("${point.reconciliation.directory:data/reconciliation}") Path directory,
+		@Value("${point.reconciliation.parallelism:8}") int parallelism
+	) {
+		this.historyRepo = historyRepo;
+		this.historyWriter = historyWriter;
+		this.pointStore = pointStore;
+		this.metrics = metrics;
+		this.directory = directory;
+		this.pool = new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("point-reconciliation-" + thread.getPoolIndex());
+			return thread;
+		}, null, false);
+	}
+
+	/**
+	 * 대사를 시작한다. 이미 실행 중이면 새로 시작하지 않고 실행 중인 대사의 결과를 반환한다.
+	 */
+	public synchronized CompletableFuture<PointReconciliationReport> start() {
+		if (running == null || running.isDone()) {
+			running = CompletableFuture.supplyAsync(this::run, pool);
+		}
+		return running;
+	}
+
+	/**
+	 * 실행 중이거나 마지막으로 실행한 대사의 진행 상황
+	 */
+	public PointReconciliationReport progress() {
+		Run run = current;
+		return run == null ? PointReconciliationReport.idle() : run.report();
+	}
+
+	/**
+	 * 대사를 한번 실행하고 결과를 반환한다. 동시에 여러 번 실행하지 않도록 start 를 거쳐 호출한다.
+	 */
+	PointReconciliationReport run() {
+		long startedAt = metrics.start();
+		historyWriter.flush();
+		long[] userIds = historyRepo.userIds();
+		Path file = directory.resolve("reconciliation-" + System.currentTimeMillis() + ".csv");
+		Run run;
+		try {
+			Files.createDirectories(directory);
+			try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+				writer.write(HEADER);
+				writer.newLine();
+				run = new Run(userIds.length, file, writer);
+				current = run;
+				try {
+					pool.invoke(new Partition(run, userIds, 0, userIds.length));
+				} finally {
+					run.finish();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("포인트 대사 결과를 쓸 수 없습니다. file=" + file, e);
+		}
+		metrics.recordReconciliation(startedAt);
+
+		PointReconciliationReport report = run.report();
+		log.info("포인트 대사를 마쳤습니다. users={}, histories={}, mismatches={}, elapsedMillis={}, file={}",
+			report.totalUsers(), report.histories(), report.mismatches(), report.elapsedMillis(), report.reportFile());
+		return report;
+	}
+
+	@PreDestroy
+	public void close() {
+		pool.shutdown();
+	}
+
+	private static long netAmount(List<PointHistory> histories) {
+		long net = 0L;
+		for (PointHistory history : histories) {
+			net += PointPolicy.delta(history.type(), history.amount());
+		}
+		return net;
+	}
+
+	/**
+	 * 정렬된 유저 id 의 [from, to) 구간. LEAF_SIZE 이하가 될 때까지 반으로 나눈다.
+	 */
+	private final class Partition extends RecursiveAction {
+
+		private final Run run;
+
+		private final long[] userIds;
+
+		private final int from;
+
+		private final int to;
+
+		private Partition(Run run, long[] userIds, int from, int to) {
+			this.run = run;
+			this.userIds = userIds;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > LEAF_SIZE) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Partition(run, userIds, from, middle), new Partition(run, userIds, middle, to));
+				return;
+			}
+			long histories = 0L;
+			for (int i = from; i < to; i++) {
+				long userId = userIds[i];
+				histories += historyRepo.countByUserId(userId);
+				long net = historyRepo.netAmountByUserId(userId);
+				long point = pointStore.find(userId).point();
+				if (point == net) {
+					continue;
+				}
+				net = netAmount(pointStore.findHistories(userId));
+				point = pointStore.find(userId).point();
+				if (point != net) {
+					run.mismatch(userId, point, net);
+					metrics.recordReconciliationMismatch();
+				}
+			}
+			run.processed(to - from, histories);
+			metrics.recordReconciled(to - from, histories);
+		}
+	}
+
+	/**
+	 * 대사 한번의 진행 상황. 구간마다 처리한 유저 수와 내역 수를 더하고, 다른 유저는 바로 파일에 쓴다.
+	 */
+	private static final class Run {
+
+		private final long totalUsers;
+
+		private final Path file;
+
+		private final BufferedWriter writer;
+
+		private final long startedNanos = System.nanoTime();
+
+		private final LongAdder processedUsers = new LongAdder();
+
+		private final LongAdder histories = new LongAdder();
+
+		private final LongAdder mismatches = new LongAdder();
+
+		private volatile long finishedNanos;
+
+		private Run(long totalUsers, Path file, BufferedWriter writer) {
+			this.totalUsers = totalUsers;
+			this.file = file;
+			this.writer = writer;
+		}
+
+		private void processed(int users, long histories) {
+			this.processedUsers.add(users);
+			this.histories.add(histories);
+		}
+
+		private void mismatch(long userId, long point, long net) {
+			synchronized (writer) {
+				try {
+					writer.write(userId + "," + point + "," + net + "," + (point - net));
+					writer.newLine();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			mismatches.increment();
+		}
+
+		private void finish() {
+			finishedNanos = System.nanoTime();
+		}
+
+		private PointReconciliationReport report() {
+			long finished = finishedNanos;
+			long elapsedNanos = Math.max((finished == 0L ? System.nanoTime() : finished) - startedNanos, 1L);
+			double elapsedSeconds = elapsedNanos / (double)TimeUnit.SECONDS.toNanos(1);
+			long users = processedUsers.sum();
+			long readHistories = histories.sum();
+			return new PointReconciliationReport(finished == 0L, totalUsers, users, readHistories, mismatches.sum(),
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), users / elapsedSeconds, readHistories / elapsedSeconds,
+				file.toString());
+		}
+	}
+}
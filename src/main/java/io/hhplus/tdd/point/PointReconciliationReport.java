@@ -0,0 +1,23 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 잔고와 내역 대사의 진행 상황과 결과.
+ * 처리량(usersPerSecond, historiesPerSecond)은 시작부터 지금까지(끝났으면 끝날 때까지)의 평균이다.
+ * reportFile 은 잔고가 내역의 합과 다른 유저를 남기는 CSV 파일이며, 한번도 실행하지 않았으면 null 이다.
+ */
+public record PointReconciliationReport(
+	boolean running,
+	long totalUsers,
+	long processedUsers,
+	long histories,
+	long mismatches,
+	long elapsedMillis,
+	double usersPerSecond,
+	double historiesPerSecond,
+	String reportFile
+) {
+
+	public static PointReconciliationReport idle() {
+		return new PointReconciliationReport(false, 0, 0, 0, 0, 0, 0, 0, null);
+	}
+}
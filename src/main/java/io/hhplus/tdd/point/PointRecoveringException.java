@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 시작 시 저널 복구가 끝나지 않아 잔고와 내역을 읽거나 바꿀 수 없다.
+ */
+public class PointRecoveringException extends IllegalStateException {
+
+	public PointRecoveringException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,34 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 시작 시 저널 복구가 끝나야 요청을 받을 수 있다고 알린다. readiness 그룹에 pointRecovery 로 포함한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PointRecoveryHealthIndicator implements HealthIndicator {
+
+	private final PointJournalRecovery recovery;
+
+	@Override
+	public Health health() {
+		CompletableFuture<Void> recovered = recovery.recovered();
+		if (!recovered.isDone()) {
+			return Health.outOfService().withDetail("recovering", true).build();
+		}
+		try {
+			recovered.join();
+			return Health.up().build();
+		} catch (CompletionException e) {
+			return Health.down(e.getCause() instanceof Exception cause ? cause : e).build();
+		}
+	}
+}
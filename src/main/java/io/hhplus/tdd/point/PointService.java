@@ -1,15 +1,15 @@
 package io.hhplus.tdd.point;
 
 import static io.hhplus.tdd.point.TransactionType.CHARGE;
+import static io.hhplus.tdd.point.TransactionType.EXPIRE;
 import static io.hhplus.tdd.point.TransactionType.USE;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.stereotype.Service;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -17,56 +17,132 @@ import lombok.RequiredArgsConstructor;
 public class PointService {
 
 	public static final int MAX_POINT = 1_000_000;
-	private final UserPointTable userPointRepo;
+	private final PointStore pointStore;
 
-	private final PointLockProvider lockProvider;
+	private final PointUpdater pointUpdater;
 
+	private final PointIdempotencyStore idempotencyStore;
 
-	private final PointHistoryTable pointHistoryRepo;
+	private final PointHotUserTracker hotUserTracker;
 
 	public UserPoint get(long id) {
-		return userPointRepo.selectById(id);
+		return pointStore.find(id);
 	}
 
 	public List<PointHistory> getHistoriesBy(long id) {
-		return pointHistoryRepo.selectAllByUserId(id);
+		return pointStore.findHistories(id);
+	}
+
+	/**
+	 * 기록이 끝난 내역만 조회한다. 아직 기록 대기 중인 내역은 id 가 없어 커서로 이어 읽을 수 없다.
+	 */
+	public PointHistoryPage getHistoryPage(long id, PointHistoryQuery query) {
+		return pointStore.findHistoryPage(id, query);
+	}
+
+	/**
+	 * 락 대기가 몰리는 유저를 요청 수가 많은 순서대로 반환한다. lock 모드에서만 집계된다.
+	 */
+	public List<PointHotUserTracker.HotUser> getHotUsers(int limit) {
+		return hotUserTracker.top(limit);
+	}
+
+	/**
+	 * 내역을 합산하지 않고 변경마다 갱신해 둔 누적 집계를 반환한다.
+	 */
+	public PointStats getStats(long id) {
+		return pointStore.findStats(id);
 	}
 
 	public UserPoint charge(long id, long amount, long chargedAt) {
+		return pointUpdater.update(id, CHARGE, amount, chargedAt);
+	}
+
+	public UserPoint use(long id, long amount, long usedAt) {
+		return pointUpdater.update(id, USE, amount, usedAt);
+	}
+
+	/**
+	 * 같은 멱등 키로 다시 요청하면 충전하지 않고 처음 충전한 결과를 반환한다.
+	 */
+	public UserPoint charge(long id, long amount, long chargedAt, String idempotencyKey) {
+		return idempotencyStore.execute(id, idempotencyKey, CHARGE, amount, () -> charge(id, amount, chargedAt));
+	}
 
-		ReentrantLock lock = lockProvider.provide();
+	/**
+	 * 같은 멱등 키로 다시 요청하면 사용하지 않고 처음 사용한 결과를 반환한다.
+	 */
+	public UserPoint use(long id, long amount, long usedAt, String idempotencyKey) {
+		return idempotencyStore.execute(id, idempotencyKey, USE, amount, () -> use(id, amount, usedAt));
+	}
+
+	/**
+	 * expiresAt 에 남은 만큼 소멸하는 포인트를 충전한다. 사용하면 소멸할 포인트부터 충전한 순서대로 차감한다.
+	 * expiresAt 이 충전 시각 이후가 아니면 IllegalArgumentException 이 발생한다.
+	 */
+	public UserPoint chargeWithExpiry(long id, long amount, long chargedAt, long expiresAt) {
+		PointPolicy.checkExpiresAt(chargedAt, expiresAt);
+		return pointUpdater.update(new PointOperation(id, CHARGE, amount, expiresAt), chargedAt);
+	}
+
+	/**
+	 * 같은 멱등 키로 다시 요청하면 충전하지 않고 처음 충전한 결과를 반환한다.
+	 */
+	public UserPoint chargeWithExpiry(long id, long amount, long chargedAt, long expiresAt, String idempotencyKey) {
+		return idempotencyStore.execute(id, idempotencyKey, CHARGE, amount, expiresAt,
+			() -> chargeWithExpiry(id, amount, chargedAt, expiresAt));
+	}
+
+	/**
+	 * fromId 의 포인트를 toId 로 옮긴다. 보내는 유저의 잔고와 받는 유저의 MAX_POINT 를 함께 검증한다.
+	 */
+	public PointTransfer transfer(long fromId, long toId, long amount, long transferredAt) {
+		return pointUpdater.transfer(fromId, toId, amount, transferredAt);
+	}
+
+	/**
+	 * actor 모드에서는 워커가 처리를 마치면 완료되고, 다른 모드에서는 호출한 스레드에서 처리한 뒤 완료된 future 를 반환한다.
+	 */
+	public CompletableFuture<UserPoint> chargeAsync(long id, long amount, long chargedAt) {
+		return pointUpdater.submit(id, CHARGE, amount, chargedAt);
+	}
 
-		try {
-			lock.lock();
-			var userPoint = userPointRepo.selectById(id);
-			if (userPoint.point() + amount > MAX_POINT) {
-				throw new IllegalArgumentException("포인트가 최대 잔고를 초과하였습니다");
-			}
-			var chargedUserPoint = userPointRepo.insertOrUpdate(id, userPoint.point() + amount);
-			pointHistoryRepo.insert(id, amount, CHARGE, chargedAt);
+	public CompletableFuture<UserPoint> useAsync(long id, long amount, long usedAt) {
+		return pointUpdater.submit(id, USE, amount, usedAt);
+	}
 
-			return chargedUserPoint;
-		} finally {
-			lock.unlock();
+	/**
+	 * 한 유저의 여러 변경을 순서대로 적용하고 잔고는 한번만 저장한다.
+	 * 규칙에 어긋난 항목은 실패로 남기고 다음 항목을 계속 적용한다.
+	 * 소멸(EXPIRE)은 만료된 묶음에 대해서만 일어나므로 직접 요청한 항목은 적용하지 않고 실패로 남긴다.
+	 * 유효기간이 updateMillis 이후가 아닌 충전도 적용하지 않고 실패로 남긴다.
+	 */
+	public List<PointOperationResult> applyAll(long id, List<PointOperation> operations, long updateMillis) {
+		if (operations.stream().noneMatch(operation -> rejection(operation, updateMillis) != null)) {
+			return pointUpdater.updateAll(id, operations, updateMillis);
 		}
+		List<PointOperation> requested = operations.stream()
+			.filter(operation -> rejection(operation, updateMillis) == null)
+			.toList();
+		Iterator<PointOperationResult> results = requested.isEmpty()
+			? List.<PointOperationResult>of().iterator()
+			: pointUpdater.updateAll(id, requested, updateMillis).iterator();
+		return operations.stream()
+			.map(operation -> {
+				String rejection = rejection(operation, updateMillis);
+				return rejection != null ? PointOperationResult.failed(operation, rejection) : results.next();
+			})
+			.toList();
 	}
 
-	public UserPoint use(long id, long amount, long usedAt) {
-		ReentrantLock lock = lockProvider.provide();
-
-		try {
-			lock.lock();
-			var userPoint = userPointRepo.selectById(id);
-			if (userPoint.point() < amount) {
-				throw new IllegalArgumentException("포인트가 부족합니다");
-			}
-			UserPoint usedUserPoint = userPointRepo.insertOrUpdate(id, userPoint.point() - amount);
-			pointHistoryRepo.insert(id, amount, USE, usedAt);
-
-			return usedUserPoint;
-		} finally {
-			lock.unlock();
+	private static String rejection(PointOperation operation, long updateMillis) {
+		if (operation.type() == EXPIRE) {
+			return "소멸은 직접 요청할 수 없습니다";
+		}
+		if (operation.expiresAt() != null && operation.expiresAt() <= updateMillis) {
+			return PointPolicy.EXPIRES_AT_NOT_AFTER_CHARGE;
 		}
+		return null;
 	}
 
 }
@@ -0,0 +1,432 @@
+package io.hhplus.tdd.point;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 저널을 주기적으로 접어 파일에 남긴다(스냅샷).
+ * 스냅샷에는 잔고뿐 아니라 저널에서 다시 만들던 상태(내역, 누적 집계, 유효기간 묶음)가 모두 담기므로,
+ * 시작할 때 마지막 스냅샷을 읽고 watermark 뒤의 저널만 재생하면 된다.
+ * 스냅샷은 변경을 멈추지 않고 만든다. 저널 일련번호(watermark)를 받고, 직전 스냅샷에 그 watermark 부터 새 watermark 앞까지의
+ * 레코드를 재생해 접는다. 살아 있는 잔고나 집계를 읽지 않으므로 담긴 상태는 정확히 watermark 앞까지의 레코드를 반영한다.
+ * 파일에 쓰기 전에 저널을 디스크에 반영해, 스냅샷에 담긴 레코드가 저널에도 남아 있도록 한다.
+ * 저널이 꺼져 있으면 스냅샷도 만들지 않는다.
+ *
+ * 파일 (big endian)
+ * magic(4) | version(4) | watermark(8) | createdMillis(8) | users(4) | histories(4) | stats(4) | lots(4) | crc32(4)
+ * | 잔고: userId(8) * users | point(8) * users
+ * | 내역: userId(8) * histories | amount(8) * histories | updateMillis(8) * histories | point(8) * histories
+ * | 누적 집계: (userId, 충전/사용/소멸 금액, 충전/사용/소멸 횟수, 마지막 변경 시각)(8 * 8) * stats
+ * | 묶음: userId(8) * lots | remaining(8) * lots | expiresAt(8) * lots
+ * | 내역 type(1) * histories
+ * crc 는 본문에 대한 값이다. 버전이 다른 스냅샷은 읽지 않으므로 저널 전체를 재생한다.
+ */
+@Slf4j
+@Component
+public class PointSnapshotter {
+
+	private static final int MAGIC = 0x50534E50;
+
+	private static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 44;
+
+	private static final int STATS_FIELDS = 8;
+
+	private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+	private static final TransactionType[] TYPES = TransactionType.values();
+
+	private static final Snapshot EMPTY = new Snapshot(0L, new long[0], new long[0],
+		new Histories(new long[0], new long[0], new TransactionType[0], new long[0], new long[0]), List.of(),
+		new Lots(new long[0], new long[0], new long[0]));
+
+	private final PointJournal journal;
+
+	private final boolean enabled;
+
+	private final Path directory;
+
+	private final long intervalSeconds;
+
+	private final int retain;
+
+	private final ScheduledExecutorService scheduler;
+
+	public PointSnapshotter(
+		PointJournal journal,
+		@Value("${point.snapshot.enabled:false}") boolean enabled,
+		@Value("${point.snapshot.directory:data/snapshot}") Path directory,
+		@Value("${point.snapshot.interval-seconds:60}") long intervalSeconds,
+		@Value("${point.snapshot.retain:2}") int retain
+	) {
+		this.journal = journal;
+		this.enabled = enabled && journal.isEnabled();
+		this.directory = directory;
+		this.intervalSeconds = intervalSeconds;
+		this.retain = Math.max(retain, 1);
+		this.scheduler = this.enabled ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "point-snapshotter");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 주기적인 스냅샷을 시작한다. 복구가 끝난 뒤에 호출한다.
+	 */
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				snapshot();
+			} catch (RuntimeException e) {
+				log.error("포인트 스냅샷 생성에 실패했습니다. directory={}", directory, e);
+			}
+		}, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * 지금 스냅샷을 만들고 오래된 스냅샷을 정리한다.
+	 * 직전 스냅샷이 없으면 저널을 처음부터 접는다.
+	 */
+	public synchronized Snapshot snapshot() {
+		if (!enabled) {
+			throw new IllegalStateException("포인트 스냅샷이 꺼져 있습니다");
+		}
+		long watermark = journal.sequence();
+		Snapshot previous = loadLatest().filter(latest -> latest.watermark() <= watermark).orElse(EMPTY);
+		Compaction compaction = new Compaction(previous);
+		long records = journal.replay(previous.watermark(), watermark, compaction::add);
+		journal.sync();
+
+		Snapshot snapshot = compaction.toSnapshot(watermark);
+		try {
+			write(snapshot);
+			deleteOld();
+		} catch (IOException e) {
+			throw new UncheckedIOException("포인트 스냅샷을 쓸 수 없습니다. directory=" + directory, e);
+		}
+		log.info("포인트 스냅샷 생성. watermark={}, 접은 레코드 {}건, 유저 {}명, 내역 {}건", watermark, records,
+			snapshot.userIds().length, snapshot.histories().size());
+		return snapshot;
+	}
+
+	/**
+	 * 읽을 수 있는 가장 최근 스냅샷. 손상된 스냅샷은 건너뛴다.
+	 */
+	public Optional<Snapshot> loadLatest() {
+		if (!enabled || !Files.isDirectory(directory)) {
+			return Optional.empty();
+		}
+		List<Path> snapshots;
+		try {
+			snapshots = snapshots();
+		} catch (IOException e) {
+			throw new UncheckedIOException("포인트 스냅샷 목록을 읽을 수 없습니다. directory=" + directory, e);
+		}
+		for (int i = snapshots.size() - 1; i >= 0; i--) {
+			try {
+				Optional<Snapshot> snapshot = read(snapshots.get(i));
+				if (snapshot.isPresent()) {
+					return snapshot;
+				}
+				log.warn("손상된 포인트 스냅샷을 건너뜁니다. file={}", snapshots.get(i));
+			} catch (IOException e) {
+				log.warn("포인트 스냅샷을 읽을 수 없어 건너뜁니다. file={}", snapshots.get(i), e);
+			}
+		}
+		return Optional.empty();
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException {
+		if (scheduler != null) {
+			scheduler.shutdown();
+			scheduler.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+
+	private void write(Snapshot snapshot) throws IOException {
+		int users = snapshot.userIds().length;
+		Histories histories = snapshot.histories();
+		int historyCount = histories.size();
+		Lots lots = snapshot.lots();
+		int lotCount = lots.userIds().length;
+		ByteBuffer body = ByteBuffer.allocate(
+			Math.toIntExact(bodySize(users, historyCount, snapshot.stats().size(), lotCount)));
+		body.asLongBuffer()
+			.put(snapshot.userIds()).put(snapshot.points())
+			.put(histories.userIds()).put(histories.amounts()).put(histories.updateMillis()).put(histories.points());
+		body.position((users * 2 + historyCount * 4) * Long.BYTES);
+		for (PointStats stats : snapshot.stats()) {
+			body.putLong(stats.userId()).putLong(stats.totalCharged()).putLong(stats.totalUsed())
+				.putLong(stats.totalExpired()).putLong(stats.chargeCount()).putLong(stats.useCount())
+				.putLong(stats.expireCount()).putLong(stats.lastActivityMillis());
+		}
+		body.asLongBuffer().put(lots.userIds()).put(lots.remaining()).put(lots.expiresAt());
+		body.position(body.position() + lotCount * 3 * Long.BYTES);
+		for (TransactionType type : histories.types()) {
+			body.put((byte)type.ordinal());
+		}
+		body.flip();
+		CRC32 crc = new CRC32();
+		crc.update(body.duplicate());
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+			.putInt(MAGIC)
+			.putInt(VERSION)
+			.putLong(snapshot.watermark())
+			.putLong(System.currentTimeMillis())
+			.putInt(users)
+			.putInt(historyCount)
+			.putInt(snapshot.stats().size())
+			.putInt(lotCount)
+			.putInt((int)crc.getValue())
+			.flip();
+
+		Files.createDirectories(directory);
+		Path temp = directory.resolve(String.format("%020d%s.tmp", snapshot.watermark(), SNAPSHOT_SUFFIX));
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (header.hasRemaining() || body.hasRemaining()) {
+				channel.write(new ByteBuffer[] {header, body});
+			}
+			channel.force(true);
+		}
+		Files.move(temp, directory.resolve(String.format("%020d%s", snapshot.watermark(), SNAPSHOT_SUFFIX)),
+			StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private Optional<Snapshot> read(Path path) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			return Optional.empty();
+		}
+		long watermark = buffer.getLong();
+		buffer.getLong();
+		int users = buffer.getInt();
+		int historyCount = buffer.getInt();
+		int statsCount = buffer.getInt();
+		int lotCount = buffer.getInt();
+		int checksum = buffer.getInt();
+		if (users < 0 || historyCount < 0 || statsCount < 0 || lotCount < 0
+			|| buffer.remaining() != bodySize(users, historyCount, statsCount, lotCount)) {
+			return Optional.empty();
+		}
+		CRC32 crc = new CRC32();
+		crc.update(buffer.duplicate());
+		if ((int)crc.getValue() != checksum) {
+			return Optional.empty();
+		}
+
+		long[] userIds = new long[users];
+		long[] points = new long[users];
+		Histories histories = new Histories(new long[historyCount], new long[historyCount],
+			new TransactionType[historyCount], new long[historyCount], new long[historyCount]);
+		buffer.asLongBuffer().get(userIds).get(points)
+			.get(histories.userIds()).get(histories.amounts()).get(histories.updateMillis()).get(histories.points());
+		buffer.position(buffer.position() + (users * 2 + historyCount * 4) * Long.BYTES);
+		List<PointStats> stats = new ArrayList<>(statsCount);
+		for (int i = 0; i < statsCount; i++) {
+			stats.add(new PointStats(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+				buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong()));
+		}
+		Lots lots = new Lots(new long[lotCount], new long[lotCount], new long[lotCount]);
+		buffer.asLongBuffer().get(lots.userIds()).get(lots.remaining()).get(lots.expiresAt());
+		buffer.position(buffer.position() + lotCount * 3 * Long.BYTES);
+		for (int i = 0; i < historyCount; i++) {
+			int type = buffer.get();
+			if (type < 0 || type >= TYPES.length) {
+				return Optional.empty();
+			}
+			histories.types()[i] = TYPES[type];
+		}
+		return Optional.of(new Snapshot(watermark, userIds, points, histories, stats, lots));
+	}
+
+	private static long bodySize(int users, int histories, int stats, int lots) {
+		return ((long)users * 2 + (long)histories * 4 + (long)stats * STATS_FIELDS + (long)lots * 3) * Long.BYTES
+			+ histories;
+	}
+
+	private void deleteOld() throws IOException {
+		List<Path> snapshots = snapshots();
+		for (int i = 0; i < snapshots.size() - retain; i++) {
+			Files.deleteIfExists(snapshots.get(i));
+		}
+	}
+
+	private List<Path> snapshots() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.getFileName().toString().endsWith(SNAPSHOT_SUFFIX)).sorted().toList();
+		}
+	}
+
+	/**
+	 * watermark 앞까지의 저널 레코드를 접은 상태. userIds 와 points 는 같은 인덱스끼리 짝이다.
+	 */
+	public record Snapshot(long watermark, long[] userIds, long[] points, Histories histories,
+		List<PointStats> stats, Lots lots) {
+	}
+
+	/**
+	 * 저널에 기록된 순서대로의 내역. 배열은 같은 인덱스끼리 한 건이며, point 는 그 변경을 반영한 직후의 잔고다.
+	 */
+	public record Histories(long[] userIds, long[] amounts, TransactionType[] types, long[] updateMillis,
+		long[] points) {
+
+		public int size() {
+			return userIds.length;
+		}
+	}
+
+	/**
+	 * 남은 유효기간 묶음. 한 유저의 묶음은 충전한 순서대로 놓인다.
+	 */
+	public record Lots(long[] userIds, long[] remaining, long[] expiresAt) {
+	}
+
+	/**
+	 * 직전 스냅샷에 그 뒤의 레코드를 더해 다음 스냅샷을 만든다.
+	 * 누적 집계와 묶음은 PointStatsIndex, PointLotLedger 로 접어 복구할 때와 같은 규칙을 따른다.
+	 */
+	private static final class Compaction {
+
+		private final Map<Long, Long> points = new HashMap<>();
+
+		private final PointStatsIndex stats = new PointStatsIndex();
+
+		/**
+		 * 묶음 계산에만 쓰므로 만료 휠 설정은 결과에 영향이 없다.
+		 */
+		private final PointLotLedger lots = new PointLotLedger(1000, 64);
+
+		private long[] historyUserIds;
+
+		private long[] amounts;
+
+		private TransactionType[] types;
+
+		private long[] updateMillis;
+
+		private long[] historyPoints;
+
+		private int histories;
+
+		private Compaction(Snapshot previous) {
+			for (int i = 0; i < previous.userIds().length; i++) {
+				points.put(previous.userIds()[i], previous.points()[i]);
+			}
+			previous.stats().forEach(stats::restore);
+			Lots previousLots = previous.lots();
+			for (int i = 0; i < previousLots.userIds().length; i++) {
+				lots.restore(previousLots.userIds()[i], previousLots.remaining()[i], previousLots.expiresAt()[i]);
+			}
+			Histories previousHistories = previous.histories();
+			int capacity = Math.max(previousHistories.size() * 2, 1024);
+			historyUserIds = Arrays.copyOf(previousHistories.userIds(), capacity);
+			amounts = Arrays.copyOf(previousHistories.amounts(), capacity);
+			types = Arrays.copyOf(previousHistories.types(), capacity);
+			updateMillis = Arrays.copyOf(previousHistories.updateMillis(), capacity);
+			historyPoints = Arrays.copyOf(previousHistories.points(), capacity);
+			histories = previousHistories.size();
+		}
+
+		private void add(long userId, long amount, TransactionType type, long millis, long point, Long expiresAt) {
+			points.put(userId, point);
+			stats.record(userId, type, amount, millis);
+			lots.replay(userId, type, amount, millis, expiresAt);
+			if (histories == historyUserIds.length) {
+				int capacity = histories * 2;
+				historyUserIds = Arrays.copyOf(historyUserIds, capacity);
+				amounts = Arrays.copyOf(amounts, capacity);
+				types = Arrays.copyOf(types, capacity);
+				updateMillis = Arrays.copyOf(updateMillis, capacity);
+				historyPoints = Arrays.copyOf(historyPoints, capacity);
+			}
+			historyUserIds[histories] = userId;
+			amounts[histories] = amount;
+			types[histories] = type;
+			updateMillis[histories] = millis;
+			historyPoints[histories] = point;
+			histories++;
+		}
+
+		private Snapshot toSnapshot(long watermark) {
+			long[] userIds = new long[points.size()];
+			long[] balances = new long[points.size()];
+			int index = 0;
+			for (Map.Entry<Long, Long> entry : points.entrySet()) {
+				userIds[index] = entry.getKey();
+				balances[index] = entry.getValue();
+				index++;
+			}
+			List<PointStats> statsList = new ArrayList<>();
+			stats.forEach(statsList::add);
+			LotColumns lotColumns = new LotColumns();
+			lots.forEachLot(lotColumns::add);
+			Histories folded = new Histories(Arrays.copyOf(historyUserIds, histories),
+				Arrays.copyOf(amounts, histories), Arrays.copyOf(types, histories),
+				Arrays.copyOf(updateMillis, histories), Arrays.copyOf(historyPoints, histories));
+			return new Snapshot(watermark, userIds, balances, folded, statsList, lotColumns.toLots());
+		}
+	}
+
+	private static final class LotColumns {
+
+		private long[] userIds = new long[1024];
+
+		private long[] remaining = new long[1024];
+
+		private long[] expiresAt = new long[1024];
+
+		private int size;
+
+		private void add(long userId, long lotRemaining, long lotExpiresAt) {
+			if (size == userIds.length) {
+				userIds = Arrays.copyOf(userIds, size * 2);
+				remaining = Arrays.copyOf(remaining, size * 2);
+				expiresAt = Arrays.copyOf(expiresAt, size * 2);
+			}
+			userIds[size] = userId;
+			remaining[size] = lotRemaining;
+			expiresAt[size] = lotExpiresAt;
+			size++;
+		}
+
+		private Lots toLots() {
+			return new Lots(Arrays.copyOf(userIds, size), Arrays.copyOf(remaining, size),
+				Arrays.copyOf(expiresAt, size));
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 유저별 누적 충전/사용/소멸 금액과 횟수. lastActivityMillis 는 마지막 변경 시각이며 변경이 없으면 0 이다.
+ */
+public record PointStats(
+	long userId,
+	long totalCharged,
+	long totalUsed,
+	long totalExpired,
+	long chargeCount,
+	long useCount,
+	long expireCount,
+	long lastActivityMillis
+) {
+}
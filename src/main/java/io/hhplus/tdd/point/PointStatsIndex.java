@@ -0,0 +1,201 @@
+package io.hhplus.tdd.point;
+
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 유저별 누적 충전/사용/소멸 금액과 횟수를 변경이 반영될 때마다 갱신한다.
+ * 조회할 때 내역을 다시 합산하지 않으므로 유저의 내역 수와 관계없이 O(1) 로 읽는다.
+ *
+ * 유저 id 로 STRIPES 개의 구역을 나누고, 구역마다 long 키를 그대로 쓰는 open addressing 해시 테이블에 병렬 배열로 값을 담는다.
+ * 구역 단위로 잠그므로 서로 다른 구역의 유저는 동시에 갱신할 수 있다.
+ */
+@Component
+public class PointStatsIndex {
+
+	private static final int STRIPES = 64;
+
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	public PointStatsIndex() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	public void record(long userId, TransactionType type, long amount, long updateMillis) {
+		int hash = hash(userId);
+		stripes[hash & (STRIPES - 1)].record(userId, hash >>> 6, type, amount, updateMillis);
+	}
+
+	public PointStats find(long userId) {
+		int hash = hash(userId);
+		return stripes[hash & (STRIPES - 1)].find(userId, hash >>> 6);
+	}
+
+	/**
+	 * 스냅샷에 담긴 누적 집계로 유저의 값을 덮어쓴다. 복구할 때 저널을 재생하기 전에 호출한다.
+	 */
+	public void restore(PointStats stats) {
+		int hash = hash(stats.userId());
+		stripes[hash & (STRIPES - 1)].restore(stats, hash >>> 6);
+	}
+
+	/**
+	 * 기록된 모든 유저의 누적 집계를 넘긴다. 구역 하나씩 잠그므로 구역 사이의 값은 같은 시점이 아닐 수 있다.
+	 */
+	public void forEach(Consumer<PointStats> consumer) {
+		for (Stripe stripe : stripes) {
+			stripe.forEach(consumer);
+		}
+	}
+
+	private static int hash(long userId) {
+		long mixed = userId * 0x9E3779B97F4A7C15L;
+		return (int)(mixed ^ (mixed >>> 32));
+	}
+
+	private static final class Stripe {
+
+		private static final int INITIAL_CAPACITY = 16;
+
+		private long[] keys = new long[INITIAL_CAPACITY];
+
+		private boolean[] occupied = new boolean[INITIAL_CAPACITY];
+
+		private long[] charged = new long[INITIAL_CAPACITY];
+
+		private long[] used = new long[INITIAL_CAPACITY];
+
+		private long[] expired = new long[INITIAL_CAPACITY];
+
+		private long[] chargeCounts = new long[INITIAL_CAPACITY];
+
+		private long[] useCounts = new long[INITIAL_CAPACITY];
+
+		private long[] expireCounts = new long[INITIAL_CAPACITY];
+
+		private long[] lastActivity = new long[INITIAL_CAPACITY];
+
+		private int size;
+
+		private synchronized void record(long userId, int hash, TransactionType type, long amount, long updateMillis) {
+			int slot = occupy(userId, hash);
+			switch (type) {
+				case CHARGE -> {
+					charged[slot] += amount;
+					chargeCounts[slot]++;
+				}
+				case USE -> {
+					used[slot] += amount;
+					useCounts[slot]++;
+				}
+				case EXPIRE -> {
+					expired[slot] += amount;
+					expireCounts[slot]++;
+				}
+			}
+			lastActivity[slot] = Math.max(lastActivity[slot], updateMillis);
+		}
+
+		private synchronized PointStats find(long userId, int hash) {
+			int slot = slotOf(userId, hash);
+			if (!occupied[slot]) {
+				return new PointStats(userId, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+			}
+			return statsAt(slot);
+		}
+
+		private synchronized void restore(PointStats stats, int hash) {
+			int slot = occupy(stats.userId(), hash);
+			charged[slot] = stats.totalCharged();
+			used[slot] = stats.totalUsed();
+			expired[slot] = stats.totalExpired();
+			chargeCounts[slot] = stats.chargeCount();
+			useCounts[slot] = stats.useCount();
+			expireCounts[slot] = stats.expireCount();
+			lastActivity[slot] = stats.lastActivityMillis();
+		}
+
+		private synchronized void forEach(Consumer<PointStats> consumer) {
+			for (int slot = 0; slot < keys.length; slot++) {
+				if (occupied[slot]) {
+					consumer.accept(statsAt(slot));
+				}
+			}
+		}
+
+		private PointStats statsAt(int slot) {
+			return new PointStats(keys[slot], charged[slot], used[slot], expired[slot], chargeCounts[slot],
+				useCounts[slot], expireCounts[slot], lastActivity[slot]);
+		}
+
+		/**
+		 * userId 가 있는 칸. 없으면 빈 칸을 userId 에 배정한다.
+		 */
+		private int occupy(long userId, int hash) {
+			int slot = slotOf(userId, hash);
+			if (!occupied[slot]) {
+				if ((size + 1) << 1 > keys.length) {
+					resize();
+					slot = slotOf(userId, hash);
+				}
+				keys[slot] = userId;
+				occupied[slot] = true;
+				size++;
+			}
+			return slot;
+		}
+
+		/**
+		 * userId 가 있는 칸, 없으면 userId 가 들어갈 빈 칸.
+		 */
+		private int slotOf(long userId, int hash) {
+			int mask = keys.length - 1;
+			int slot = hash & mask;
+			while (occupied[slot] && keys[slot] != userId) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private void resize() {
+			long[] oldKeys = keys;
+			boolean[] oldOccupied = occupied;
+			long[] oldCharged = charged;
+			long[] oldUsed = used;
+			long[] oldExpired = expired;
+			long[] oldChargeCounts = chargeCounts;
+			long[] oldUseCounts = useCounts;
+			long[] oldExpireCounts = expireCounts;
+			long[] oldLastActivity = lastActivity;
+
+			int capacity = oldKeys.length << 1;
+			keys = new long[capacity];
+			occupied = new boolean[capacity];
+			charged = new long[capacity];
+			used = new long[capacity];
+			expired = new long[capacity];
+			chargeCounts = new long[capacity];
+			useCounts = new long[capacity];
+			expireCounts = new long[capacity];
+			lastActivity = new long[capacity];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (!oldOccupied[i]) {
+					continue;
+				}
+				int slot = slotOf(oldKeys[i], hash(oldKeys[i]) >>> 6);
+				keys[slot] = oldKeys[i];
+				occupied[slot] = true;
+				charged[slot] = oldCharged[i];
+				used[slot] = oldUsed[i];
+				expired[slot] = oldExpired[i];
+				chargeCounts[slot] = oldChargeCounts[i];
+				useCounts[slot] = oldUseCounts[i];
+				expireCounts[slot] = oldExpireCounts[i];
+				lastActivity[slot] = oldLastActivity[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.database.UserPointTable;
+
+/**
+ * 잔고와 내역의 읽기/쓰기 통로.
+ * 잔고는 UserPointCache 를 거쳐 UserPointTable 에, 내역은 PointHistoryWriter 를 거쳐 PointHistoryRepository 에 기록한다.
+ * 저널이 켜져 있으면 변경마다 PointJournal 에도 남긴다. 유저별 누적 집계(PointStatsIndex)와 유효기간 묶음(PointLotLedger)도 함께 갱신한다.
+ * 캐시에 없는 잔고를 여러 스레드가 동시에 조회하면 테이블은 한번만 조회하고 결과를 나눠 받는다(single-flight).
+ * UserPointTable 은 동기화되지 않은 HashMap 이라, 구조가 바뀌는 쓰기(테이블에 없던 유저의 첫 저장)만 한번에 하나씩 하고
+ * 그동안에는 조회하지 않는다. 이미 있는 유저의 저장은 값만 바꾸므로 다른 유저의 저장, 조회와 동시에 한다.
+ * 테이블에 있는 유저는 storedIds 로 기억하며, 복구가 테이블에 직접 넣은 유저는 첫 저장을 한번 더 하나씩 할 뿐이다.
+ * 시작 시 저널을 복구하는 동안에는 테이블이 아직 채워지지 않았으므로 잔고와 내역을 다루지 않고 PointRecoveringException 으로 거절한다.
+ * 그 밖의 유저별 동시성 제어는 호출하는 쪽(PointUpdater)의 책임이다.
+ */
+@Component
+public class PointStore {
+
+	private final UserPointTable userPointRepo;
+
+	private final UserPointCache userPointCache;
+
+	private final PointHistoryRepository historyRepo;
+
+	private final PointHistoryWriter historyWriter;
+
+	private final PointStatsIndex statsIndex;
+
+	private final PointLotLedger lotLedger;
+
+	private final PointJournal journal;
+
+	private final PointMetrics metrics;
+
+	private final ConcurrentHashMap<Long, CompletableFuture<UserPoint>> inFlightSelects = new ConcurrentHashMap<>();
+
+	private final ReadWriteLock tableLock = new ReentrantReadWriteLock();
+
+	private final Set<Long> storedIds = ConcurrentHashMap.newKeySet();
+
+	public PointStore(UserPointTable userPointRepo, UserPointCache userPointCache, PointHistoryRepository historyRepo,
+		PointHistoryWriter historyWriter, PointStatsIndex statsIndex, PointLotLedger lotLedger, PointJournal journal,
+		PointMetrics metrics) {
+		this.userPointRepo = userPointRepo;
+		this.userPointCache = userPointCache;
+		this.historyRepo = historyRepo;
+		this.historyWriter = historyWriter;
+		this.statsIndex = statsIndex;
+		this.lotLedger = lotLedger;
+		this.journal = journal;
+		this.metrics = metrics;
+		metrics.bindCache(userPointCache);
+	}
+
+	public UserPoint find(long id) {
+		checkRecovered();
+		UserPoint cached = userPointCache.get(id);
+		if (cached != null) {
+			return cached;
+		}
+		CompletableFuture<UserPoint> select = new CompletableFuture<>();
+		CompletableFuture<UserPoint> inFlight = inFlightSelects.putIfAbsent(id, select);
+		if (inFlight != null) {
+			metrics.recordCoalescedSelect();
+			return join(inFlight);
+		}
+
+		try {
+			long startedAt = metrics.start();
+			UserPoint userPoint;
+			tableLock.readLock().lock();
+			try {
+				userPoint = userPointRepo.selectById(id);
+			} finally {
+				tableLock.readLock().unlock();
+			}
+			metrics.recordUserPointSelect(startedAt);
+			userPointCache.putIfAbsent(userPoint);
+			select.complete(userPoint);
+			return userPoint;
+		} catch (RuntimeException e) {
+			select.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlightSelects.remove(id, select);
+		}
+	}
+
+	/**
+	 * 저장한 뒤에는 진행 중인 조회를 목록에서 빼서, 이후의 조회가 저장 전 값을 나눠 받지 않게 한다.
+	 */
+	public UserPoint save(long id, long point) {
+		checkRecovered();
+		long startedAt = metrics.start();
+		boolean stored = storedIds.contains(id);
+		Lock lock = stored ? tableLock.readLock() : tableLock.writeLock();
+		UserPoint saved;
+		lock.lock();
+		try {
+			saved = userPointRepo.insertOrUpdate(id, point);
+		} finally {
+			lock.unlock();
+		}
+		if (!stored) {
+			storedIds.add(id);
+		}
+		metrics.recordUserPointInsertOrUpdate(startedAt);
+		userPointCache.put(saved);
+		inFlightSelects.remove(id);
+		return saved;
+	}
+
+	/**
+	 * 적용된 항목마다 저널과 내역을 남기고 누적 집계와 유효기간 묶음을 갱신한다.
+	 * 저널이 디스크에 반영되기를 기다리려면 awaitDurable 을 호출한다.
+	 */
+	public void appendHistories(long id, AppliedOperations applied, long updateMillis) {
+		applied.forEachApplied((operation, point) -> {
+			journal.append(id, operation.amount(), operation.type(), updateMillis, point, operation.expiresAt());
+			historyWriter.append(id, operation.amount(), operation.type(), updateMillis, point);
+			statsIndex.record(id, operation.type(), operation.amount(), updateMillis);
+			lotLedger.record(id, operation);
+		});
+	}
+
+	/**
+	 * expireMillis 까지 만료된 묶음을 빼고 소멸할 금액을 반환한다. 잔고는 바꾸지 않으므로 호출한 쪽이 EXPIRE 로 반영한다.
+	 */
+	public long expireLots(long id, long expireMillis) {
+		return lotLedger.expire(id, expireMillis);
+	}
+
+	/**
+	 * expireMillis 까지 만료된 묶음의 남은 금액 합을 묶음을 빼지 않고 반환한다.
+	 */
+	public long findExpiredLots(long id, long expireMillis) {
+		return lotLedger.expiredPoint(id, expireMillis);
+	}
+
+	/**
+	 * 지금까지 남긴 저널이 디스크에 반영될 때까지 대기한다. 저널이 꺼져 있으면 바로 반환한다.
+	 */
+	public void awaitDurable() {
+		journal.sync();
+	}
+
+	public List<PointHistory> findHistories(long id) {
+		checkRecovered();
+		return historyWriter.readWithPending(id, historyRepo::selectAllByUserId);
+	}
+
+	/**
+	 * 기록이 끝난 내역만 조회한다. 아직 기록 대기 중인 내역은 id 가 없어 커서로 이어 읽을 수 없다.
+	 */
+	public PointHistoryPage findHistoryPage(long id, PointHistoryQuery query) {
+		checkRecovered();
+		return historyRepo.findPage(id, query);
+	}
+
+	public PointStats findStats(long id) {
+		checkRecovered();
+		return statsIndex.find(id);
+	}
+
+	private void checkRecovered() {
+		if (journal.isRecovering()) {
+			throw new PointRecoveringException("포인트 복구 중입니다. 잠시 후 다시 시도해주세요");
+		}
+	}
+
+	private static UserPoint join(CompletableFuture<UserPoint> select) {
+		try {
+			return select.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 잔고와 내역을 함께 조회한 결과. 둘은 병렬로 조회하므로 같은 시점의 값이 아닐 수 있다.
+ */
+public record PointSummary(
+	UserPoint point,
+	List<PointHistory> histories
+) {
+}
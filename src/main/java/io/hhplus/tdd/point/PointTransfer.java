@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 전송한 뒤 보낸 유저와 받은 유저의 잔고
+ */
+public record PointTransfer(
+	UserPoint from,
+	UserPoint to
+) {
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 현재 동시성 모드(point.concurrency.mode)에서는 지원하지 않는 포인트 변경을 요청했다.
+ */
+public class PointUnsupportedException extends UnsupportedOperationException {
+
+	public PointUnsupportedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,55 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 포인트 변경을 적용하는 동시성 전략.
+ * point.concurrency.mode 설정으로 구현을 고른다.
+ * - lock (기본값) : LockPointUpdater, 유저별 락 안에서 읽고 쓴다.
+ * - optimistic : OptimisticPointUpdater, 메모리의 버전 잔고를 CAS 로 갱신한다.
+ * - actor : ActorPointUpdater, 유저별 메일박스를 하나의 워커가 순서대로 처리한다.
+ */
+public interface PointUpdater {
+
+	/**
+	 * 단건 변경. 규칙에 어긋나면 PointPolicyException 을 던진다.
+	 */
+	UserPoint update(PointOperation operation, long updateMillis);
+
+	default UserPoint update(long userId, TransactionType type, long amount, long updateMillis) {
+		return update(new PointOperation(userId, type, amount), updateMillis);
+	}
+
+	/**
+	 * 한 유저의 여러 변경을 순서대로 적용하고 한번에 저장한다. 규칙에 어긋난 항목만 실패로 남긴다.
+	 */
+	List<PointOperationResult> updateAll(long userId, List<PointOperation> operations, long updateMillis);
+
+	/**
+	 * 단건 변경을 비동기로 요청한다. 규칙에 어긋나면 PointPolicyException 으로 실패한 future 를 반환한다.
+	 * 기본 구현은 호출한 스레드에서 update 를 실행한다.
+	 */
+	default CompletableFuture<UserPoint> submit(long userId, TransactionType type, long amount, long updateMillis) {
+		try {
+			return CompletableFuture.completedFuture(update(userId, type, amount, updateMillis));
+		} catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	/**
+	 * expireMillis 까지 유효기간이 지난 묶음을 소멸(EXPIRE)시킨다. 한 유저의 만료된 묶음은 하나의 EXPIRE 로 합친다.
+	 * 소멸할 묶음이 없으면 잔고를 바꾸지 않고 null 을 반환한다.
+	 */
+	UserPoint expire(long userId, long expireMillis);
+
+	/**
+	 * fromId 의 포인트를 toId 로 옮긴다. 두 잔고를 함께 검증하고, 어느 한쪽이라도 규칙에 어긋나면 두 잔고 모두 바꾸지 않는다.
+	 * 보내는 유저에게는 USE, 받는 유저에게는 CHARGE 내역을 남긴다.
+	 * 두 유저를 함께 잠글 수 있는 lock 모드에서만 지원하고, 다른 모드에서는 PointUnsupportedException 을 던진다.
+	 */
+	default PointTransfer transfer(long fromId, long toId, long amount, long updateMillis) {
+		throw new PointUnsupportedException("포인트 전송은 lock 모드에서만 지원합니다");
+	}
+}
@@ -0,0 +1,55 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * PointHistoryTable 의 공개 API 로 기록한다.
+ * PointHistoryTable.selectAllByUserId 는 전체 내역을 훑으므로, 기록한 내역을 PointHistoryIndex 에도 모아 조회는 인덱스에서 한다.
+ */
+@Component
+@ConditionalOnProperty(name = "point.history.store", havingValue = "table", matchIfMissing = true)
+@RequiredArgsConstructor
+public class TablePointHistoryRepository implements PointHistoryRepository {
+
+	private final PointHistoryTable pointHistoryTable;
+
+	private final PointHistoryIndex historyIndex = new PointHistoryIndex();
+
+	@Override
+	public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+		PointHistory written = pointHistoryTable.insert(userId, amount, type, updateMillis);
+		historyIndex.add(written);
+		return written;
+	}
+
+	@Override
+	public List<PointHistory> selectAllByUserId(long userId) {
+		return historyIndex.findAllByUserId(userId);
+	}
+
+	@Override
+	public PointHistoryPage findPage(long userId, PointHistoryQuery query) {
+		return historyIndex.findPage(userId, query);
+	}
+
+	@Override
+	public int countByUserId(long userId) {
+		return historyIndex.countByUserId(userId);
+	}
+
+	@Override
+	public long netAmountByUserId(long userId) {
+		return historyIndex.netAmountByUserId(userId);
+	}
+
+	@Override
+	public long[] userIds() {
+		return historyIndex.userIds();
+	}
+}
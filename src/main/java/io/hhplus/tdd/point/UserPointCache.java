@@ -0,0 +1,76 @@
+package io.hhplus.tdd.point;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * UserPointTable 앞에 두는 LRU 잔고 캐시.
+ * 모든 쓰기는 PointService 를 거치므로 insertOrUpdate 결과를 그대로 저장(write-through)한다.
+ */
+@Component
+public class UserPointCache {
+
+	private final LinkedHashMap<Long, UserPoint> cache;
+
+	private long hits;
+
+	private long misses;
+
+	private long evictions;
+
+	public UserPointCache(@Value("${point.cache.capacity:10000}") int capacity) {
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, UserPoint> eldest) {
+				if (size() > capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * 캐시에 없으면 null 을 반환한다.
+	 */
+	public synchronized UserPoint get(long id) {
+		UserPoint userPoint = cache.get(id);
+		if (userPoint == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return userPoint;
+	}
+
+	public synchronized void put(UserPoint userPoint) {
+		cache.put(userPoint.id(), userPoint);
+	}
+
+	/**
+	 * 테이블에서 읽어온 값은 그 사이 쓰기가 캐시에 반영됐을 수 있으므로 비어 있을 때만 저장한다.
+	 */
+	public synchronized void putIfAbsent(UserPoint userPoint) {
+		cache.putIfAbsent(userPoint.id(), userPoint);
+	}
+
+	public synchronized void evict(long id) {
+		cache.remove(id);
+	}
+
+	public synchronized Stats stats() {
+		return new Stats(hits, misses, evictions, cache.size());
+	}
+
+	public record Stats(
+		long hits,
+		long misses,
+		long evictions,
+		int size
+	) {
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPointCache;
 
 @SpringBootTest
 public class ServiceIntegrationTest {
@@ -20,9 +21,12 @@ public class ServiceIntegrationTest {
 	@Autowired
 	public PointHistoryTable pointHistoryRepo;
 
+	@Autowired
+	public UserPointCache userPointCache;
+
 	@BeforeEach
 	void setUp() {
-		userPointRepo.insertOrUpdate(USER_ID, TEST_INIT_AMOUNT);
+		userPointCache.put(userPointRepo.insertOrUpdate(USER_ID, TEST_INIT_AMOUNT));
 	}
 
 }
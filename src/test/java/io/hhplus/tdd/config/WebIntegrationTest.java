@@ -3,11 +3,18 @@ package io.hhplus.tdd.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 
+import io.hhplus.tdd.point.PointAdmissionControl;
+import io.hhplus.tdd.point.PointAsyncService;
+import io.hhplus.tdd.point.PointBatchService;
+import io.hhplus.tdd.point.PointChangeFeed;
+import io.hhplus.tdd.point.PointReconciliationJob;
 import io.hhplus.tdd.point.PointService;
 
 @WebMvcTest
+@Import({PointAsyncService.class, PointAdmissionControl.class})
 public class WebIntegrationTest {
 
 	@Autowired
@@ -16,4 +23,13 @@ public class WebIntegrationTest {
 	@MockBean
 	public PointService pointService;
 
+	@MockBean
+	public PointBatchService pointBatchService;
+
+	@MockBean
+	public PointReconciliationJob pointReconciliationJob;
+
+	@MockBean
+	public PointChangeFeed pointChangeFeed;
+
 }
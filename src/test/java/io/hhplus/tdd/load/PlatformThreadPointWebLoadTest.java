@@ -0,0 +1,18 @@
+package io.hhplus.tdd.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(
+	webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = {
+		"server.tomcat.threads.max=" + PointWebLoadTest.TOMCAT_MAX_THREADS,
+		"spring.threads.virtual.enabled=false"
+	}
+)
+class PlatformThreadPointWebLoadTest extends PointWebLoadTest {
+
+	@Override
+	boolean boundByRequestThreads() {
+		return true;
+	}
+}
@@ -0,0 +1,83 @@
+package io.hhplus.tdd.load;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * 동시에 CONCURRENT_REQUESTS 개의 잔고 조회 요청을 보내고 모두 끝날 때까지 걸린 시간을 기록한다.
+ * 요청마다 다른 유저를 조회해 캐시를 거치지 않고 UserPointTable 의 지연(0~200ms, 평균 100ms)을 그대로 겪게 한다.
+ * 요청 처리 스레드가 TOMCAT_MAX_THREADS 개로 묶이면 지연의 합을 그 수로 나눈 만큼(약 POOL_BOUND_MILLIS) 걸리고,
+ * 가상 스레드는 요청마다 스레드를 만들므로 가장 긴 지연에 가깝게 끝난다.
+ * 하위 클래스에서 요청 처리 스레드 설정만 바꿔 같은 부하를 비교하고, 걸린 시간이 POOL_BOUND_MILLIS 의 절반을
+ * 넘는지로 스레드 수에 묶였는지를 확인한다.
+ */
+@Tag("load")
+abstract class PointWebLoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(PointWebLoadTest.class);
+
+	static final int TOMCAT_MAX_THREADS = 50;
+
+	static final int CONCURRENT_REQUESTS = 1_000;
+
+	private static final long MEAN_SELECT_DELAY_MILLIS = 100L;
+
+	static final long POOL_BOUND_MILLIS = CONCURRENT_REQUESTS / TOMCAT_MAX_THREADS * MEAN_SELECT_DELAY_MILLIS;
+
+	private static final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	int port;
+
+	/**
+	 * 요청 처리 스레드 수가 동시에 처리할 수 있는 요청 수를 묶는지
+	 */
+	abstract boolean boundByRequestThreads();
+
+	@Test
+	void concurrentBalanceReads() {
+		long userIdOffset = System.nanoTime();
+		HTTP_CLIENT.sendAsync(request(userIdOffset - 1), HttpResponse.BodyHandlers.ofString()).join();
+		long startedAt = System.nanoTime();
+
+		List<CompletableFuture<HttpResponse<String>>> responses = LongStream.range(0, CONCURRENT_REQUESTS)
+			.mapToObj(i -> request(userIdOffset + i))
+			.map(request -> HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+			.toList();
+		CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+
+		long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+		log.info("[{}] {} concurrent requests in {} ms ({} req/s)", getClass().getSimpleName(), CONCURRENT_REQUESTS,
+			elapsedMillis, CONCURRENT_REQUESTS * 1000L / Math.max(elapsedMillis, 1));
+
+		for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+			HttpResponse<String> response = responses.get(i).join();
+			assertThat(response.statusCode()).isEqualTo(200);
+			assertThat(response.body()).contains("\"id\":" + (userIdOffset + i), "\"point\":0");
+		}
+		if (boundByRequestThreads()) {
+			assertThat(elapsedMillis).isGreaterThanOrEqualTo(POOL_BOUND_MILLIS / 2);
+		} else {
+			assertThat(elapsedMillis).isLessThan(POOL_BOUND_MILLIS / 2);
+		}
+	}
+
+	private HttpRequest request(long userId) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/point/" + userId))
+			.GET()
+			.build();
+	}
+}
@@ -0,0 +1,21 @@
+package io.hhplus.tdd.load;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(
+	webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = {
+		"server.tomcat.threads.max=" + PointWebLoadTest.TOMCAT_MAX_THREADS,
+		"spring.threads.virtual.enabled=true"
+	}
+)
+class VirtualThreadPointWebLoadTest extends PointWebLoadTest {
+
+	@Override
+	boolean boundByRequestThreads() {
+		return false;
+	}
+}
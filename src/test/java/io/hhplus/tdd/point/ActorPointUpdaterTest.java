@@ -0,0 +1,226 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+
+class ActorPointUpdaterTest {
+
+	private static final long USER_ID = 1L;
+	private static final int TEST_INIT_AMOUNT = 10000;
+
+	BlockingUserPointTable userPointRepo = new BlockingUserPointTable();
+
+	PointHistoryTable pointHistoryRepo = new PointHistoryTable();
+
+	PointMetrics pointMetrics = PointMetrics.noop();
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(pointHistoryRepo);
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, pointMetrics, 1000, 100);
+
+	PointStore pointStore = new PointStore(userPointRepo, new UserPointCache(100), pointHistoryRepository,
+		pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics);
+
+	ActorPointUpdater pointUpdater = new ActorPointUpdater(pointStore, pointMetrics, 2, 1000, 100);
+
+	@BeforeEach
+	void setUp() {
+		// given
+		userPointRepo.insertOrUpdate(USER_ID, TEST_INIT_AMOUNT);
+		userPointRepo.saves.set(0);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		userPointRepo.release.countDown();
+		pointUpdater.close();
+		pointHistoryWriter.close();
+	}
+
+	@Test
+	@DisplayName("한 유저에게 동시에 충전해도 모든 충전이 잔고와 내역에 반영된다")
+	void concurrentChargeTest() throws InterruptedException {
+		// given
+		userPointRepo.release.countDown();
+		int threadCount = 20;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch doneLatch = new CountDownLatch(threadCount);
+
+		// when
+		for (int i = 0; i < threadCount; i++) {
+			executor.submit(() -> {
+				try {
+					pointUpdater.update(USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis());
+				} finally {
+					doneLatch.countDown();
+				}
+			});
+		}
+		doneLatch.await();
+		executor.shutdown();
+		pointHistoryWriter.flush();
+
+		// then
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 100 * threadCount);
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID)).hasSize(threadCount);
+	}
+
+	@Test
+	@DisplayName("워커가 저장하는 동안 쌓인 같은 유저의 변경은 한번에 저장되고 도착한 순서대로 적용된다")
+	void queuedCommandsCoalescedTest() throws Exception {
+		// given
+		userPointRepo.blocking = true;
+		CompletableFuture<UserPoint> first =
+			pointUpdater.submit(USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis());
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		List<CompletableFuture<UserPoint>> queued = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			queued.add(pointUpdater.submit(USER_ID, TransactionType.USE, 1000, System.currentTimeMillis()));
+		}
+		userPointRepo.release.countDown();
+
+		// then
+		assertThat(first.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+		for (int i = 0; i < queued.size(); i++) {
+			assertThat(queued.get(i).get(5, TimeUnit.SECONDS).point())
+				.isEqualTo(TEST_INIT_AMOUNT + 100 - 1000L * (i + 1));
+		}
+		assertThat(userPointRepo.saves.get()).isEqualTo(2);
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 100 - 5000);
+	}
+
+	@Test
+	@DisplayName("규칙에 어긋난 변경은 잔고를 바꾸지 않고 실패한다")
+	void rejectedCommandTest() {
+		// given
+		userPointRepo.release.countDown();
+
+		// when
+		CompletableFuture<UserPoint> rejected =
+			pointUpdater.submit(USER_ID, TransactionType.USE, TEST_INIT_AMOUNT + 1, System.currentTimeMillis());
+
+		// then
+		assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS))
+			.isInstanceOf(ExecutionException.class)
+			.hasCauseInstanceOf(PointPolicyException.class);
+		assertThatThrownBy(() -> pointUpdater.update(USER_ID, TransactionType.USE, TEST_INIT_AMOUNT + 1,
+			System.currentTimeMillis()))
+			.isInstanceOf(PointPolicyException.class)
+			.hasMessageContaining("포인트가 부족합니다");
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT);
+		assertThat(userPointRepo.saves.get()).isZero();
+	}
+
+	@Test
+	@DisplayName("소멸도 메일박스를 거쳐 먼저 들어온 사용이 묶음을 차감한 뒤에 남은 묶음만 소멸시킨다")
+	void expireAfterQueuedUseTest() throws Exception {
+		// given
+		pointUpdater.update(new PointOperation(USER_ID, TransactionType.CHARGE, 1000, 100L), 10L);
+		userPointRepo.blocking = true;
+		CompletableFuture<UserPoint> first =
+			pointUpdater.submit(USER_ID, TransactionType.CHARGE, 1, System.currentTimeMillis());
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<UserPoint> used =
+			pointUpdater.submit(USER_ID, TransactionType.USE, 600, System.currentTimeMillis());
+
+		// when
+		CompletableFuture<UserPoint> expired = CompletableFuture.supplyAsync(() -> pointUpdater.expire(USER_ID, 200L));
+		while (pointUpdater.pendingCount() < 2) {
+			Thread.sleep(1);
+		}
+		userPointRepo.release.countDown();
+
+		// then
+		first.get(5, TimeUnit.SECONDS);
+		used.get(5, TimeUnit.SECONDS);
+		assertThat(expired.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 1000 + 1 - 600 - 400);
+		pointHistoryWriter.flush();
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID))
+			.filteredOn(history -> history.type() == TransactionType.EXPIRE)
+			.extracting(PointHistory::amount)
+			.containsExactly(400L);
+	}
+
+	@Test
+	@DisplayName("워커가 인터럽트되면 처리하지 못한 변경을 실패로 끝내고 더 이상 변경을 받지 않는다")
+	void interruptedWorkerFailsPendingTest() throws Exception {
+		// given
+		userPointRepo.blocking = true;
+		CompletableFuture<UserPoint> saving = pointUpdater.submit(USER_ID, TransactionType.CHARGE, 100, 10L);
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<UserPoint> queued = pointUpdater.submit(USER_ID, TransactionType.CHARGE, 200, 20L);
+
+		// when
+		userPointRepo.blocked.interrupt();
+
+		// then
+		assertThat(saving.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+		assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS))
+			.isInstanceOf(ExecutionException.class)
+			.hasCauseInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> pointUpdater.update(USER_ID, TransactionType.CHARGE, 300, 30L))
+			.isInstanceOf(IllegalStateException.class);
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+	}
+
+	@Test
+	@DisplayName("종료와 동시에 변경을 넣어도 넣은 변경은 모두 처리되거나 실패로 끝난다")
+	void submitConcurrentWithCloseTest() throws Exception {
+		// given
+		ColumnarPointHistoryRepository historyRepository = new ColumnarPointHistoryRepository();
+		PointHistoryWriter historyWriter = new PointHistoryWriter(historyRepository, pointMetrics, 1000, 100);
+		ActorPointUpdater updater = new ActorPointUpdater(new PointStore(new BlockingUserPointTable(),
+			new UserPointCache(100), historyRepository, historyWriter, new PointStatsIndex(),
+			new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics), pointMetrics, 2, 16, 16);
+		AtomicInteger submitted = new AtomicInteger();
+		List<CompletableFuture<List<CompletableFuture<UserPoint>>>> submitters = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			long userId = i + 2;
+			submitters.add(CompletableFuture.supplyAsync(() -> {
+				List<CompletableFuture<UserPoint>> futures = new ArrayList<>();
+				try {
+					while (true) {
+						futures.add(updater.submit(userId, TransactionType.CHARGE, 1, System.currentTimeMillis()));
+						submitted.incrementAndGet();
+					}
+				} catch (IllegalStateException e) {
+					return futures;
+				}
+			}));
+		}
+		while (submitted.get() < 100) {
+			Thread.sleep(1);
+		}
+
+		// when
+		updater.close();
+
+		// then
+		for (CompletableFuture<List<CompletableFuture<UserPoint>>> submitter : submitters) {
+			List<CompletableFuture<UserPoint>> futures = submitter.get(5, TimeUnit.SECONDS);
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+				.handle((result, e) -> null)
+				.get(5, TimeUnit.SECONDS);
+		}
+		historyWriter.close();
+	}
+}
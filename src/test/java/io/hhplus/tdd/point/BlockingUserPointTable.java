@@ -0,0 +1,44 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.hhplus.tdd.database.UserPointTable;
+
+/**
+ * insertOrUpdate 호출 수를 세는 테이블.
+ * blocking 이면 첫 저장에서 release 될 때까지 대기해 그 사이 들어온 변경이 대기열에 쌓이게 한다.
+ * 대기 중인 스레드는 blocked 에 남기고, 대기 중에 인터럽트되면 저장을 마친 뒤 인터럽트 상태를 되살린다.
+ */
+class BlockingUserPointTable extends UserPointTable {
+
+	final CountDownLatch entered = new CountDownLatch(1);
+
+	final CountDownLatch release = new CountDownLatch(1);
+
+	final AtomicInteger saves = new AtomicInteger();
+
+	volatile boolean blocking;
+
+	volatile Thread blocked;
+
+	@Override
+	public UserPoint insertOrUpdate(long id, long amount) {
+		saves.incrementAndGet();
+		boolean interrupted = false;
+		if (blocking) {
+			blocked = Thread.currentThread();
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		UserPoint saved = super.insertOrUpdate(id, amount);
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return saved;
+	}
+}
@@ -0,0 +1,116 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ColumnarPointHistoryRepositoryTest {
+
+	private static final long USER_ID = 1L;
+	private static final long OTHER_USER_ID = 2L;
+
+	ColumnarPointHistoryRepository pointHistoryRepo = new ColumnarPointHistoryRepository();
+
+	@Test
+	@DisplayName("기록할 때마다 1 부터 순서대로 id 가 발급되고 기록한 값이 그대로 반환된다")
+	void insertTest() {
+		// when
+		PointHistory first = pointHistoryRepo.insert(USER_ID, 100, TransactionType.CHARGE, 10);
+		PointHistory second = pointHistoryRepo.insert(OTHER_USER_ID, 200, TransactionType.USE, 20);
+
+		// then
+		assertThat(first).isEqualTo(new PointHistory(1, USER_ID, 100, TransactionType.CHARGE, 10));
+		assertThat(second).isEqualTo(new PointHistory(2, OTHER_USER_ID, 200, TransactionType.USE, 20));
+		assertThat(pointHistoryRepo.size()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("여러 유저의 내역이 섞여 기록되어도 유저별로 기록한 순서대로 조회된다")
+	void selectAllByUserIdTest() {
+		// given
+		pointHistoryRepo.insert(USER_ID, 100, TransactionType.CHARGE, 10);
+		pointHistoryRepo.insert(OTHER_USER_ID, 200, TransactionType.CHARGE, 20);
+		pointHistoryRepo.insert(USER_ID, 50, TransactionType.USE, 30);
+		pointHistoryRepo.insert(USER_ID, 30, TransactionType.EXPIRE, 40);
+
+		// when
+		List<PointHistory> histories = pointHistoryRepo.selectAllByUserId(USER_ID);
+
+		// then
+		assertThat(histories).containsExactly(
+			new PointHistory(1, USER_ID, 100, TransactionType.CHARGE, 10),
+			new PointHistory(3, USER_ID, 50, TransactionType.USE, 30),
+			new PointHistory(4, USER_ID, 30, TransactionType.EXPIRE, 40));
+		assertThat(pointHistoryRepo.selectAllByUserId(OTHER_USER_ID)).extracting(PointHistory::id)
+			.containsExactly(2L);
+		assertThat(pointHistoryRepo.selectAllByUserId(3L)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("청크 크기를 넘겨 기록해도 모든 행이 id 순서대로 조회된다")
+	void chunkBoundaryTest() {
+		// given
+		int count = 200_000;
+		for (int i = 0; i < count; i++) {
+			pointHistoryRepo.insert(i % 2 == 0 ? USER_ID : OTHER_USER_ID, i, TransactionType.CHARGE, i);
+		}
+
+		// when
+		List<Long> ids = new ArrayList<>();
+		List<Long> amounts = new ArrayList<>();
+		pointHistoryRepo.forEachByUserId(OTHER_USER_ID, (id, amount, type, updateMillis) -> {
+			ids.add(id);
+			amounts.add(amount);
+		});
+
+		// then
+		assertThat(pointHistoryRepo.size()).isEqualTo(count);
+		assertThat(ids).hasSize(count / 2).isSorted();
+		for (int i = 0; i < ids.size(); i++) {
+			assertThat(amounts.get(i)).isEqualTo(ids.get(i) - 1);
+		}
+	}
+
+	@Test
+	@DisplayName("다른 유저의 행이 섞여 있어도 커서 이후의 내역을 조건에 맞는 것만 페이지 크기만큼 조회한다")
+	void findPageTest() {
+		// given
+		for (long id = 1; id <= 10; id++) {
+			TransactionType type = id % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+			pointHistoryRepo.insert(USER_ID, id, type, id * 1000);
+			pointHistoryRepo.insert(OTHER_USER_ID, id, TransactionType.CHARGE, id * 1000);
+		}
+
+		// when
+		PointHistoryPage first = pointHistoryRepo.findPage(USER_ID,
+			new PointHistoryQuery(null, 2, 2000L, 9000L, TransactionType.CHARGE));
+		PointHistoryPage second = pointHistoryRepo.findPage(USER_ID,
+			new PointHistoryQuery(first.nextCursor(), 2, 2000L, 9000L, TransactionType.CHARGE));
+
+		// then
+		assertThat(first.histories()).extracting(PointHistory::id).containsExactly(5L, 9L);
+		assertThat(first.nextCursor()).isEqualTo(9L);
+		assertThat(second.histories()).extracting(PointHistory::id).containsExactly(13L);
+		assertThat(second.nextCursor()).isNull();
+	}
+
+	@Test
+	@DisplayName("유저별 내역 수와 내역의 합, 내역이 있는 유저 목록을 행에서 바로 구한다")
+	void aggregateTest() {
+		// given
+		pointHistoryRepo.insert(OTHER_USER_ID, 500, TransactionType.CHARGE, 10);
+		pointHistoryRepo.insert(USER_ID, 100, TransactionType.CHARGE, 20);
+		pointHistoryRepo.insert(USER_ID, 30, TransactionType.USE, 30);
+		pointHistoryRepo.insert(USER_ID, 20, TransactionType.EXPIRE, 40);
+
+		// when & then
+		assertThat(pointHistoryRepo.countByUserId(USER_ID)).isEqualTo(3);
+		assertThat(pointHistoryRepo.netAmountByUserId(USER_ID)).isEqualTo(50L);
+		assertThat(pointHistoryRepo.countByUserId(3L)).isZero();
+		assertThat(pointHistoryRepo.userIds()).containsExactly(USER_ID, OTHER_USER_ID);
+	}
+}
@@ -0,0 +1,310 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+
+class LockPointUpdaterTest {
+
+	private static final long USER_ID = 1L;
+	private static final long OTHER_USER_ID = 2L;
+	private static final int TEST_INIT_AMOUNT = 10000;
+
+	BlockingUserPointTable userPointRepo = new BlockingUserPointTable();
+
+	PointHistoryTable pointHistoryRepo = new PointHistoryTable();
+
+	PointMetrics pointMetrics = PointMetrics.noop();
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(pointHistoryRepo);
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, pointMetrics, 1000, 100);
+
+	PointStore pointStore = new PointStore(userPointRepo, new UserPointCache(100), pointHistoryRepository,
+		pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics);
+
+	LockPointUpdater pointUpdater = new LockPointUpdater(pointStore, new PointLockProvider(pointMetrics),
+		new PointHotUserTracker(64, 100, 10), pointMetrics, 100, 0, 200, 3000, 16, false);
+
+	ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@BeforeEach
+	void setUp() {
+		// given
+		userPointRepo.insertOrUpdate(USER_ID, TEST_INIT_AMOUNT);
+		userPointRepo.saves.set(0);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		userPointRepo.release.countDown();
+		executor.shutdown();
+		pointUpdater.close();
+		pointHistoryWriter.close();
+	}
+
+	@Test
+	@DisplayName("저장하는 동안 쌓인 같은 유저의 변경은 한번에 저장되고 각자 자기 결과를 받는다")
+	void queuedRequestsCommittedTogetherTest() throws Exception {
+		// given
+		userPointRepo.blocking = true;
+		Future<UserPoint> first = executor.submit(() ->
+			pointUpdater.update(USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis()));
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		List<Future<UserPoint>> queued = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			queued.add(executor.submit(() ->
+				pointUpdater.update(USER_ID, TransactionType.USE, 1000, System.currentTimeMillis())));
+		}
+		while (pointUpdater.pendingCount(USER_ID) < queued.size()) {
+			Thread.sleep(1);
+		}
+		userPointRepo.release.countDown();
+
+		// then
+		assertThat(first.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+		List<Long> points = new ArrayList<>();
+		for (Future<UserPoint> future : queued) {
+			points.add(future.get(5, TimeUnit.SECONDS).point());
+		}
+		assertThat(points).containsExactlyInAnyOrder(9100L, 8100L, 7100L, 6100L, 5100L);
+		assertThat(userPointRepo.saves.get()).isEqualTo(2);
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 100 - 5000);
+		assertThat(pointUpdater.pendingCount(USER_ID)).isZero();
+	}
+
+	@Test
+	@DisplayName("다른 유저의 변경은 한 유저의 저장이 끝나기를 기다리지 않고 동시에 테이블에 저장된다")
+	void differentUsersSavedInParallelTest() throws Exception {
+		// given
+		pointUpdater.update(USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis());
+		pointUpdater.update(OTHER_USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis());
+		userPointRepo.saves.set(0);
+		userPointRepo.blocking = true;
+		Future<UserPoint> first = executor.submit(() ->
+			pointUpdater.update(USER_ID, TransactionType.CHARGE, 200, System.currentTimeMillis()));
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		Future<UserPoint> other = executor.submit(() ->
+			pointUpdater.update(OTHER_USER_ID, TransactionType.CHARGE, 300, System.currentTimeMillis()));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (userPointRepo.saves.get() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		int savesWhileBlocked = userPointRepo.saves.get();
+		userPointRepo.release.countDown();
+
+		// then
+		assertThat(savesWhileBlocked).isEqualTo(2);
+		assertThat(first.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 300);
+		assertThat(other.get(5, TimeUnit.SECONDS).point()).isEqualTo(400);
+	}
+
+	@Test
+	@DisplayName("함께 묶인 변경 중 규칙에 어긋난 변경만 실패하고 나머지는 저장된다")
+	void rejectedRequestInBatchTest() throws Exception {
+		// given
+		userPointRepo.blocking = true;
+		Future<UserPoint> first = executor.submit(() ->
+			pointUpdater.update(USER_ID, TransactionType.USE, TEST_INIT_AMOUNT - 500, System.currentTimeMillis()));
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		Future<UserPoint> rejected = executor.submit(() ->
+			pointUpdater.update(USER_ID, TransactionType.USE, 1000, System.currentTimeMillis()));
+		while (pointUpdater.pendingCount(USER_ID) < 1) {
+			Thread.sleep(1);
+		}
+		Future<UserPoint> accepted = executor.submit(() ->
+			pointUpdater.update(USER_ID, TransactionType.USE, 500, System.currentTimeMillis()));
+		while (pointUpdater.pendingCount(USER_ID) < 2) {
+			Thread.sleep(1);
+		}
+		userPointRepo.release.countDown();
+
+		// then
+		assertThat(first.get(5, TimeUnit.SECONDS).point()).isEqualTo(500);
+		assertThat(accepted.get(5, TimeUnit.SECONDS).point()).isZero();
+		assertThat(rejected).failsWithin(5, TimeUnit.SECONDS)
+			.withThrowableOfType(ExecutionException.class)
+			.withCauseInstanceOf(PointPolicyException.class);
+		assertThat(userPointRepo.saves.get()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("제한 시간 안에 락을 얻지 못한 변경은 대기열에서 빠지고 반영되지 않는다")
+	void lockTimeoutRemovesRequestTest() throws Exception {
+		// given
+		LockPointUpdater timeoutUpdater = new LockPointUpdater(pointStore, new PointLockProvider(pointMetrics),
+			new PointHotUserTracker(64, 100, 10), pointMetrics, 100, 0, 0, 50, 16, false);
+		userPointRepo.blocking = true;
+		Future<UserPoint> first = executor.submit(() ->
+			timeoutUpdater.update(USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis()));
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		Future<UserPoint> timedOut = executor.submit(() ->
+			timeoutUpdater.update(USER_ID, TransactionType.USE, 1000, System.currentTimeMillis()));
+
+		// then
+		assertThat(timedOut).failsWithin(5, TimeUnit.SECONDS)
+			.withThrowableOfType(ExecutionException.class)
+			.withCauseInstanceOf(PointOverloadedException.class);
+		assertThat(timeoutUpdater.pendingCount(USER_ID)).isZero();
+		userPointRepo.release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+	}
+
+	@Test
+	@DisplayName("전송하면 보낸 유저의 잔고가 줄고 받은 유저의 잔고가 늘며, 두 유저에게 각각 내역이 남는다")
+	void transferTest() {
+		// when
+		PointTransfer transfer = pointUpdater.transfer(USER_ID, OTHER_USER_ID, 3000, System.currentTimeMillis());
+		pointHistoryWriter.flush();
+
+		// then
+		assertThat(transfer.from().point()).isEqualTo(TEST_INIT_AMOUNT - 3000);
+		assertThat(transfer.to().point()).isEqualTo(3000);
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT - 3000);
+		assertThat(userPointRepo.selectById(OTHER_USER_ID).point()).isEqualTo(3000);
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID)).extracting(PointHistory::type)
+			.containsExactly(TransactionType.USE);
+		assertThat(pointHistoryRepo.selectAllByUserId(OTHER_USER_ID)).extracting(PointHistory::type)
+			.containsExactly(TransactionType.CHARGE);
+	}
+
+	@Test
+	@DisplayName("받는 유저의 잔고가 최대 잔고를 넘으면 두 유저의 잔고 모두 바뀌지 않는다")
+	void transferRejectedKeepsBothBalancesTest() {
+		// given
+		userPointRepo.insertOrUpdate(OTHER_USER_ID, PointService.MAX_POINT - 100);
+		userPointRepo.saves.set(0);
+
+		// when
+		assertThatThrownBy(() -> pointUpdater.transfer(USER_ID, OTHER_USER_ID, 101, System.currentTimeMillis()))
+			.isInstanceOf(PointPolicyException.class)
+			.hasMessageContaining("최대 잔고");
+
+		// then
+		assertThat(userPointRepo.saves.get()).isZero();
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT);
+		assertThat(userPointRepo.selectById(OTHER_USER_ID).point()).isEqualTo(PointService.MAX_POINT - 100);
+	}
+
+	@Test
+	@DisplayName("두 유저가 서로에게 동시에 전송해도 교착되지 않고 잔고의 합이 유지된다")
+	void oppositeTransfersDoNotDeadlockTest() throws Exception {
+		// given
+		userPointRepo.insertOrUpdate(OTHER_USER_ID, TEST_INIT_AMOUNT);
+		int transferCount = 8;
+
+		// when
+		List<Future<PointTransfer>> transfers = new ArrayList<>();
+		for (int i = 0; i < transferCount; i++) {
+			long fromId = i % 2 == 0 ? USER_ID : OTHER_USER_ID;
+			long toId = i % 2 == 0 ? OTHER_USER_ID : USER_ID;
+			transfers.add(executor.submit(() -> pointUpdater.transfer(fromId, toId, 100, System.currentTimeMillis())));
+		}
+
+		// then
+		for (Future<PointTransfer> transfer : transfers) {
+			transfer.get(30, TimeUnit.SECONDS);
+		}
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT);
+		assertThat(userPointRepo.selectById(OTHER_USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT);
+	}
+
+	@Test
+	@DisplayName("자기 자신에게는 전송할 수 없다")
+	void transferToSelfTest() {
+		assertThatThrownBy(() -> pointUpdater.transfer(USER_ID, USER_ID, 100, System.currentTimeMillis()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("자기 자신");
+	}
+
+	@Test
+	@DisplayName("0 이하의 금액은 전송할 수 없고 두 유저의 잔고 모두 바뀌지 않는다")
+	void transferNonPositiveAmountTest() {
+		// given
+		userPointRepo.saves.set(0);
+
+		// when
+		assertThatThrownBy(() -> pointUpdater.transfer(USER_ID, OTHER_USER_ID, -100, System.currentTimeMillis()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("0 보다 커야");
+		assertThatThrownBy(() -> pointUpdater.transfer(USER_ID, OTHER_USER_ID, 0, System.currentTimeMillis()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessageContaining("0 보다 커야");
+
+		// then
+		assertThat(userPointRepo.saves.get()).isZero();
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT);
+		assertThat(userPointRepo.selectById(OTHER_USER_ID).point()).isZero();
+	}
+
+	@Test
+	@DisplayName("소멸은 먼저 대기열에 들어온 사용이 묶음을 차감한 뒤에 남은 묶음만 소멸시킨다")
+	void expireAfterQueuedUseTest() throws Exception {
+		// given
+		pointUpdater.update(new PointOperation(USER_ID, TransactionType.CHARGE, 1000, 100L), 10L);
+		userPointRepo.blocking = true;
+		Future<UserPoint> first = executor.submit(() ->
+			pointUpdater.update(USER_ID, TransactionType.CHARGE, 1, System.currentTimeMillis()));
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		Future<UserPoint> used = executor.submit(() ->
+			pointUpdater.update(USER_ID, TransactionType.USE, 600, System.currentTimeMillis()));
+		while (pointUpdater.pendingCount(USER_ID) < 1) {
+			Thread.sleep(1);
+		}
+
+		// when
+		Future<UserPoint> expired = executor.submit(() -> pointUpdater.expire(USER_ID, 200L));
+		while (pointUpdater.pendingCount(USER_ID) < 2) {
+			Thread.sleep(1);
+		}
+		userPointRepo.release.countDown();
+
+		// then
+		first.get(5, TimeUnit.SECONDS);
+		used.get(5, TimeUnit.SECONDS);
+		assertThat(expired.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 1000 + 1 - 600 - 400);
+		pointHistoryWriter.flush();
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID))
+			.filteredOn(history -> history.type() == TransactionType.EXPIRE)
+			.extracting(PointHistory::amount)
+			.containsExactly(400L);
+	}
+
+	@Test
+	@DisplayName("잔고보다 많이 소멸하면 잔고는 0 이 되고 내역과 집계에는 실제로 줄어든 금액만 남는다")
+	void expireClampedToBalanceTest() {
+		// when
+		UserPoint expired = pointUpdater.update(USER_ID, TransactionType.EXPIRE, TEST_INIT_AMOUNT + 500, 10L);
+		pointHistoryWriter.flush();
+
+		// then
+		assertThat(expired.point()).isZero();
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID)).extracting(PointHistory::type, PointHistory::amount)
+			.containsExactly(tuple(TransactionType.EXPIRE, (long)TEST_INIT_AMOUNT));
+		assertThat(pointStore.findStats(USER_ID).totalExpired()).isEqualTo(TEST_INIT_AMOUNT);
+	}
+}
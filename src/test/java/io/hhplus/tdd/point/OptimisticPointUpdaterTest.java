@@ -0,0 +1,276 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+
+class OptimisticPointUpdaterTest {
+
+	private static final long USER_ID = 1L;
+	private static final int TEST_INIT_AMOUNT = 10000;
+
+	UserPointTable userPointRepo = new UserPointTable();
+
+	PointHistoryTable pointHistoryRepo = new PointHistoryTable();
+
+	PointMetrics pointMetrics = PointMetrics.noop();
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(pointHistoryRepo);
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, pointMetrics, 1000, 100);
+
+	PointStore pointStore = new PointStore(userPointRepo, new UserPointCache(100), pointHistoryRepository,
+		pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics);
+
+	OptimisticPointUpdater pointUpdater = new OptimisticPointUpdater(pointStore, pointMetrics, 3000, 1000, 60_000);
+
+	@BeforeEach
+	void setUp() {
+		// given
+		userPointRepo.insertOrUpdate(USER_ID, TEST_INIT_AMOUNT);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		pointHistoryWriter.close();
+	}
+
+	@Test
+	@DisplayName("한 유저에게 동시에 충전해도 모든 충전이 잔고와 내역에 반영된다")
+	void concurrentChargeTest() throws InterruptedException {
+		// given
+		int threadCount = 20;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch doneLatch = new CountDownLatch(threadCount);
+
+		// when
+		for (int i = 0; i < threadCount; i++) {
+			executor.submit(() -> {
+				try {
+					pointUpdater.update(USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis());
+				} finally {
+					doneLatch.countDown();
+				}
+			});
+		}
+		doneLatch.await();
+		executor.shutdown();
+		pointHistoryWriter.flush();
+
+		// then
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 100 * threadCount);
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID)).hasSize(threadCount);
+	}
+
+	@Test
+	@DisplayName("동시에 사용해도 잔고보다 많이 사용되지 않는다")
+	void concurrentUseNeverOverdrawsTest() throws InterruptedException {
+		// given
+		int threadCount = 20;
+		AtomicInteger succeeded = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch doneLatch = new CountDownLatch(threadCount);
+
+		// when
+		for (int i = 0; i < threadCount; i++) {
+			executor.submit(() -> {
+				try {
+					pointUpdater.update(USER_ID, TransactionType.USE, 1000, System.currentTimeMillis());
+					succeeded.incrementAndGet();
+				} catch (PointPolicyException ignored) {
+				} finally {
+					doneLatch.countDown();
+				}
+			});
+		}
+		doneLatch.await();
+		executor.shutdown();
+
+		// then
+		assertThat(succeeded.get()).isEqualTo(TEST_INIT_AMOUNT / 1000);
+		assertThat(userPointRepo.selectById(USER_ID).point()).isZero();
+	}
+
+	@Test
+	@DisplayName("규칙에 어긋난 변경은 잔고를 바꾸지 않고 익셉션이 발생한다")
+	void rejectedUpdateKeepsBalanceTest() {
+		// when
+		assertThatThrownBy(() -> pointUpdater.update(USER_ID, TransactionType.USE, TEST_INIT_AMOUNT + 1,
+			System.currentTimeMillis()))
+			.isInstanceOf(PointPolicyException.class)
+			.hasMessageContaining("포인트가 부족합니다");
+
+		// then
+		UserPoint charged = pointUpdater.update(USER_ID, TransactionType.CHARGE, 100, System.currentTimeMillis());
+		assertThat(charged.point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+		assertThat(charged.updateMillis()).isEqualTo(userPointRepo.selectById(USER_ID).updateMillis());
+	}
+
+	@Test
+	@DisplayName("전송은 lock 모드에서만 지원하므로 잔고를 바꾸지 않고 PointUnsupportedException 이 발생한다")
+	void transferUnsupportedTest() {
+		// when
+		assertThatThrownBy(() -> pointUpdater.transfer(USER_ID, 2L, 100, System.currentTimeMillis()))
+			.isInstanceOf(PointUnsupportedException.class)
+			.hasMessageContaining("lock 모드");
+
+		// then
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT);
+	}
+
+	@Test
+	@DisplayName("사용과 동시에 소멸해도 소멸보다 먼저 반영된 사용이 묶음을 차감하고 남은 묶음만 소멸한다")
+	void expireConcurrentWithUseTest() throws InterruptedException {
+		// given
+		pointUpdater.update(new PointOperation(USER_ID, TransactionType.CHARGE, 1000, 100L), 10L);
+		int threadCount = 20;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch doneLatch = new CountDownLatch(threadCount + 1);
+
+		// when
+		for (int i = 0; i < threadCount; i++) {
+			if (i == threadCount / 2) {
+				executor.submit(() -> {
+					try {
+						pointUpdater.expire(USER_ID, 200L);
+					} finally {
+						doneLatch.countDown();
+					}
+				});
+			}
+			executor.submit(() -> {
+				try {
+					pointUpdater.update(USER_ID, TransactionType.USE, 10, System.currentTimeMillis());
+				} finally {
+					doneLatch.countDown();
+				}
+			});
+		}
+		doneLatch.await();
+		executor.shutdown();
+		pointHistoryWriter.flush();
+
+		// then
+		List<PointHistory> histories = pointHistoryRepo.selectAllByUserId(USER_ID);
+		long usedBeforeExpire = 0;
+		long expired = 0;
+		for (PointHistory history : histories) {
+			if (history.type() == TransactionType.EXPIRE) {
+				expired = history.amount();
+				break;
+			}
+			if (history.type() == TransactionType.USE) {
+				usedBeforeExpire += history.amount();
+			}
+		}
+		assertThat(expired).isEqualTo(1000 - usedBeforeExpire);
+		assertThat(userPointRepo.selectById(USER_ID).point())
+			.isEqualTo(TEST_INIT_AMOUNT + 1000 - 10 * threadCount - expired);
+	}
+
+	@Test
+	@DisplayName("저장되지 않은 변경이 한도만큼 쌓여 제한 시간 안에 자리가 나지 않으면 잔고를 바꾸지 않고 PointOverloadedException 이 발생한다")
+	void persistTimeoutTest() throws Exception {
+		// given
+		BlockingUserPointTable blockingRepo = new BlockingUserPointTable();
+		blockingRepo.insertOrUpdate(USER_ID, TEST_INIT_AMOUNT);
+		PointStore blockingStore = new PointStore(blockingRepo, new UserPointCache(100), pointHistoryRepository,
+			pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(),
+			pointMetrics);
+		OptimisticPointUpdater updater = new OptimisticPointUpdater(blockingStore, pointMetrics, 50, 1, 60_000);
+		blockingRepo.blocking = true;
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<UserPoint> first = executor.submit(() -> updater.update(USER_ID, TransactionType.CHARGE, 100, 10L));
+		assertThat(blockingRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when & then
+		assertThatThrownBy(() -> updater.update(USER_ID, TransactionType.CHARGE, 200, 20L))
+			.isInstanceOfSatisfying(PointOverloadedException.class, e ->
+				assertThat(e.getReason()).isEqualTo(PointOverloadedException.Reason.PERSIST_TIMEOUT));
+		blockingRepo.release.countDown();
+		assertThat(first.get(5, TimeUnit.SECONDS).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+		assertThat(blockingRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 100);
+		executor.shutdown();
+	}
+
+	@Test
+	@DisplayName("저장에 실패하면 변경을 되돌려, 실패한 변경은 나중에 저장되지 않고 다음 변경은 저장된 잔고에서 시작한다")
+	void persistFailureRollsBackTest() {
+		// given
+		AtomicBoolean failing = new AtomicBoolean();
+		UserPointTable failingRepo = new UserPointTable() {
+			@Override
+			public UserPoint insertOrUpdate(long id, long amount) {
+				if (failing.get()) {
+					throw new IllegalStateException("저장 실패");
+				}
+				return super.insertOrUpdate(id, amount);
+			}
+		};
+		failingRepo.insertOrUpdate(USER_ID, TEST_INIT_AMOUNT);
+		PointStore failingStore = new PointStore(failingRepo, new UserPointCache(100), pointHistoryRepository,
+			pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(),
+			pointMetrics);
+		OptimisticPointUpdater updater = new OptimisticPointUpdater(failingStore, pointMetrics, 3000, 1000, 60_000);
+		failing.set(true);
+		assertThatThrownBy(() -> updater.update(USER_ID, TransactionType.CHARGE, 100, 10L))
+			.isInstanceOf(IllegalStateException.class);
+
+		// when
+		failing.set(false);
+		UserPoint charged = updater.update(USER_ID, TransactionType.CHARGE, 200, 20L);
+		pointHistoryWriter.flush();
+
+		// then
+		assertThat(charged.point()).isEqualTo(TEST_INIT_AMOUNT + 200);
+		assertThat(failingRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 200);
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID)).extracting(PointHistory::amount)
+			.containsExactly(200L);
+	}
+
+	@Test
+	@DisplayName("쓰이지 않은 유저의 잔고는 메모리에서 내리고, 동시에 변경해도 내린 잔고를 다시 올려 모든 변경이 반영된다")
+	void evictIdleAccountTest() throws InterruptedException {
+		// given
+		OptimisticPointUpdater updater = new OptimisticPointUpdater(pointStore, pointMetrics, 3000, 1000, 0);
+		int threadCount = 20;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch doneLatch = new CountDownLatch(threadCount);
+
+		// when
+		for (int i = 0; i < threadCount; i++) {
+			long userId = USER_ID + i % 2;
+			executor.submit(() -> {
+				try {
+					updater.update(userId, TransactionType.CHARGE, 10, System.currentTimeMillis());
+				} finally {
+					doneLatch.countDown();
+				}
+			});
+		}
+		doneLatch.await();
+		executor.shutdown();
+		updater.update(3L, TransactionType.CHARGE, 10, 10L);
+
+		// then
+		assertThat(updater.accountCount()).isEqualTo(1);
+		assertThat(userPointRepo.selectById(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 10 * threadCount / 2);
+		assertThat(userPointRepo.selectById(USER_ID + 1).point()).isEqualTo(10 * threadCount / 2);
+	}
+}
@@ -0,0 +1,74 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointAdmissionControlTest {
+
+	@Test
+	@DisplayName("충전/사용별 동시 처리 한도를 넘으면 바로 거절하고, 자리를 돌려주면 다시 받는다")
+	void endpointLimitTest() {
+		// given
+		PointAdmissionControl admissionControl = new PointAdmissionControl(true, 2, 1, 10, 10, 1000);
+		PointAdmissionControl.Permit first = admissionControl.acquire(TransactionType.CHARGE, 1L);
+		admissionControl.acquire(TransactionType.CHARGE, 2L);
+
+		// when & then
+		assertThatThrownBy(() -> admissionControl.acquire(TransactionType.CHARGE, 3L))
+			.isInstanceOfSatisfying(PointOverloadedException.class, e ->
+				assertThat(e.getReason()).isEqualTo(PointOverloadedException.Reason.ENDPOINT_LIMIT));
+		admissionControl.acquire(TransactionType.USE, 3L);
+		first.release(null);
+		admissionControl.acquire(TransactionType.CHARGE, 3L);
+	}
+
+	@Test
+	@DisplayName("한 유저의 동시 처리 요청이 유저별 한도를 넘으면 거절한다")
+	void userLimitTest() {
+		// given
+		PointAdmissionControl admissionControl = new PointAdmissionControl(true, 10, 1, 10, 1, 1000);
+		PointAdmissionControl.Permit permit = admissionControl.acquire(TransactionType.CHARGE, 1L);
+
+		// when & then
+		assertThatThrownBy(() -> admissionControl.acquire(TransactionType.USE, 1L))
+			.isInstanceOfSatisfying(PointOverloadedException.class, e ->
+				assertThat(e.getReason()).isEqualTo(PointOverloadedException.Reason.USER_LIMIT));
+		admissionControl.acquire(TransactionType.CHARGE, 2L);
+		permit.release(null);
+		admissionControl.acquire(TransactionType.USE, 1L);
+	}
+
+	@Test
+	@DisplayName("과부하로 실패하면 한도를 줄이고, 목표 시간 안에 끝나면 한도를 늘린다")
+	void adaptiveLimitTest() {
+		// given
+		PointAdmissionControl admissionControl = new PointAdmissionControl(true, 100, 10, 1000, 100, 60_000);
+
+		// when
+		admissionControl.acquire(TransactionType.CHARGE, 1L).release(
+			new PointOverloadedException(PointOverloadedException.Reason.LOCK_TIMEOUT, "timeout"));
+
+		// then
+		assertThat(admissionControl.limit(TransactionType.CHARGE)).isEqualTo(90);
+		for (int i = 0; i < 100; i++) {
+			admissionControl.acquire(TransactionType.CHARGE, 1L).release(null);
+		}
+		assertThat(admissionControl.limit(TransactionType.CHARGE)).isEqualTo(91);
+		assertThat(admissionControl.limit(TransactionType.USE)).isEqualTo(100);
+	}
+
+	@Test
+	@DisplayName("비활성화하면 한도와 관계없이 모두 받는다")
+	void disabledTest() {
+		// given
+		PointAdmissionControl admissionControl = new PointAdmissionControl(false, 1, 1, 1, 1, 1000);
+
+		// when & then
+		for (int i = 0; i < 10; i++) {
+			admissionControl.acquire(TransactionType.CHARGE, 1L);
+		}
+	}
+}
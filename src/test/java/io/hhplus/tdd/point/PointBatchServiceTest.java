@@ -0,0 +1,47 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import io.hhplus.tdd.config.ServiceIntegrationTest;
+
+class PointBatchServiceTest extends ServiceIntegrationTest {
+
+	private static final long OTHER_USER_ID = 2L;
+
+	@Autowired
+	PointBatchService pointBatchService;
+
+	@Autowired
+	PointService pointService;
+
+	@Test
+	@DisplayName("여러 유저의 변경을 유저별로 적용하고 결과를 요청 순서대로 반환한다")
+	void applyAllTest() {
+		// given
+		long userId = USER_ID;
+		long otherUserPoint = pointService.get(OTHER_USER_ID).point();
+		List<PointOperation> operations = List.of(
+			new PointOperation(userId, TransactionType.CHARGE, 100),
+			new PointOperation(OTHER_USER_ID, TransactionType.CHARGE, 300),
+			new PointOperation(userId, TransactionType.USE, TEST_INIT_AMOUNT + 1_000),
+			new PointOperation(userId, TransactionType.USE, 50)
+		);
+
+		// when
+		List<PointOperationResult> results = pointBatchService.applyAll(operations, System.currentTimeMillis());
+
+		// then
+		assertThat(results).extracting(PointOperationResult::userId)
+			.containsExactly(userId, OTHER_USER_ID, userId, userId);
+		assertThat(results).extracting(PointOperationResult::success)
+			.containsExactly(true, true, false, true);
+		assertThat(pointService.get(userId).point()).isEqualTo(TEST_INIT_AMOUNT + 100 - 50);
+		assertThat(pointService.get(OTHER_USER_ID).point()).isEqualTo(otherUserPoint + 300);
+	}
+}
@@ -0,0 +1,130 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+
+class PointBatchServiceUnitTest {
+
+	private static final long USER_ID = 1L;
+	private static final long FAILING_USER_ID = 2L;
+
+	PointMetrics pointMetrics = PointMetrics.noop();
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(new PointHistoryTable());
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, pointMetrics, 100, 10);
+
+	PointStore pointStore = new PointStore(new UserPointTable(), new UserPointCache(100), pointHistoryRepository,
+		pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics);
+
+	OptimisticPointUpdater optimisticPointUpdater = new OptimisticPointUpdater(pointStore, pointMetrics,
+		3000, 1000, 60_000);
+
+	PointService pointService = new PointService(pointStore, new FailingPointUpdater(optimisticPointUpdater),
+		new PointIdempotencyStore(100, Duration.ofMinutes(10)), new PointHotUserTracker(64, 100, 10));
+
+	PointAdmissionControl admissionControl = new PointAdmissionControl(true, 10, 1, 10, 1, 1000);
+
+	PointBatchService pointBatchService = new PointBatchService(pointService, admissionControl, 4, 2, false);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		pointBatchService.close();
+		pointHistoryWriter.close();
+	}
+
+	@Test
+	@DisplayName("한 유저의 처리가 예외로 끝나도 그 유저의 항목만 실패로 남고 다른 유저의 결과는 반환한다")
+	void applyAllWithFailingUserTest() {
+		// given
+		List<PointOperation> operations = List.of(
+			new PointOperation(USER_ID, TransactionType.CHARGE, 100),
+			new PointOperation(FAILING_USER_ID, TransactionType.CHARGE, 300),
+			new PointOperation(USER_ID, TransactionType.USE, 50),
+			new PointOperation(FAILING_USER_ID, TransactionType.USE, 10)
+		);
+
+		// when
+		List<PointOperationResult> results = pointBatchService.applyAll(operations, System.currentTimeMillis());
+
+		// then
+		assertThat(results).extracting(PointOperationResult::userId)
+			.containsExactly(USER_ID, FAILING_USER_ID, USER_ID, FAILING_USER_ID);
+		assertThat(results).extracting(PointOperationResult::success)
+			.containsExactly(true, false, true, false);
+		assertThat(results.get(1).message()).isEqualTo("유저 락을 얻지 못했습니다");
+		assertThat(results.get(3).message()).isEqualTo("유저 락을 얻지 못했습니다");
+		assertThat(pointService.get(USER_ID).point()).isEqualTo(50);
+		assertThat(pointService.get(FAILING_USER_ID).point()).isZero();
+	}
+
+	@Test
+	@DisplayName("항목이 상한을 넘는 일괄 처리는 IllegalArgumentException 으로 거절한다")
+	void applyAllOversizedTest() {
+		// given
+		List<PointOperation> operations = List.of(
+			new PointOperation(USER_ID, TransactionType.CHARGE, 100),
+			new PointOperation(USER_ID, TransactionType.CHARGE, 100),
+			new PointOperation(USER_ID, TransactionType.CHARGE, 100),
+			new PointOperation(USER_ID, TransactionType.CHARGE, 100),
+			new PointOperation(USER_ID, TransactionType.CHARGE, 100)
+		);
+
+		// when & then
+		assertThatThrownBy(() -> pointBatchService.applyAll(operations, System.currentTimeMillis()))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("한번에 처리할 수 있는 항목은 4개 이하입니다");
+		assertThat(pointService.get(USER_ID).point()).isZero();
+	}
+
+	@Test
+	@DisplayName("한 유저라도 자리를 잡지 못하면 아무것도 처리하지 않고 잡은 자리를 돌려준다")
+	void applyAllOverloadedTest() {
+		// given
+		PointAdmissionControl.Permit held = admissionControl.acquire(TransactionType.CHARGE, FAILING_USER_ID);
+		List<PointOperation> operations = List.of(
+			new PointOperation(USER_ID, TransactionType.CHARGE, 100),
+			new PointOperation(FAILING_USER_ID, TransactionType.CHARGE, 300)
+		);
+
+		// when & then
+		assertThatThrownBy(() -> pointBatchService.applyAll(operations, System.currentTimeMillis()))
+			.isInstanceOfSatisfying(PointOverloadedException.class, e ->
+				assertThat(e.getReason()).isEqualTo(PointOverloadedException.Reason.USER_LIMIT));
+		assertThat(pointService.get(USER_ID).point()).isZero();
+
+		held.release(null);
+		admissionControl.acquire(TransactionType.CHARGE, USER_ID).release(null);
+	}
+
+	private record FailingPointUpdater(PointUpdater delegate) implements PointUpdater {
+
+		@Override
+		public UserPoint update(PointOperation operation, long updateMillis) {
+			return delegate.update(operation, updateMillis);
+		}
+
+		@Override
+		public List<PointOperationResult> updateAll(long userId, List<PointOperation> operations, long updateMillis) {
+			if (userId == FAILING_USER_ID) {
+				throw new PointOverloadedException(PointOverloadedException.Reason.LOCK_TIMEOUT, "유저 락을 얻지 못했습니다");
+			}
+			return delegate.updateAll(userId, operations, updateMillis);
+		}
+
+		@Override
+		public UserPoint expire(long userId, long expireMillis) {
+			return delegate.expire(userId, expireMillis);
+		}
+	}
+}
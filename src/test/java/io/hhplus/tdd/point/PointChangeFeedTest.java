@@ -0,0 +1,224 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointChangeFeedTest {
+
+	private static final long USER_ID = 1L;
+	private static final long OTHER_USER_ID = 2L;
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(new ColumnarPointHistoryRepository(),
+		PointMetrics.noop(), 100, 10);
+
+	PointChangeFeed pointChangeFeed = new PointChangeFeed(pointHistoryWriter, 4, 2, Duration.ofMinutes(1),
+		Duration.ofSeconds(10), false);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		pointChangeFeed.close();
+		pointHistoryWriter.close();
+	}
+
+	@Test
+	@DisplayName("구독한 유저의 변경만 기록한 순서대로 변경 직후의 잔고와 함께 받는다")
+	void subscribeByUserTest() throws InterruptedException {
+		// given
+		RecordingSink sink = new RecordingSink();
+		pointChangeFeed.subscribe(USER_ID, null, sink);
+
+		// when
+		pointHistoryWriter.append(USER_ID, 100, TransactionType.CHARGE, 10L, 100L);
+		pointHistoryWriter.append(OTHER_USER_ID, 200, TransactionType.CHARGE, 20L, 200L);
+		pointHistoryWriter.append(USER_ID, 30, TransactionType.USE, 30L, 70L);
+
+		// then
+		assertThat(sink.take(2)).containsExactly(
+			new PointChange(new PointHistory(1L, USER_ID, 100, TransactionType.CHARGE, 10L),
+				new UserPoint(USER_ID, 100L, 10L)),
+			new PointChange(new PointHistory(3L, USER_ID, 30, TransactionType.USE, 30L),
+				new UserPoint(USER_ID, 70L, 30L)));
+	}
+
+	@Test
+	@DisplayName("내역 id 를 주면 그 다음 변경부터 이어 받는다")
+	void resumeAfterIdTest() throws InterruptedException {
+		// given
+		for (int i = 1; i <= 3; i++) {
+			pointHistoryWriter.append(USER_ID, i, TransactionType.CHARGE, i, i);
+		}
+		pointHistoryWriter.flush();
+		RecordingSink sink = new RecordingSink();
+
+		// when
+		pointChangeFeed.subscribe(null, 1L, sink);
+
+		// then
+		assertThat(sink.take(2)).extracting(event -> ((PointChange)event).history().id())
+			.containsExactly(2L, 3L);
+	}
+
+	@Test
+	@DisplayName("느린 구독자가 있어도 기록은 기다리지 않고, 구독자는 덮어쓴 변경을 건너뛴 뒤 lagged 부터 이어 받는다")
+	void slowSubscriberTest() throws InterruptedException {
+		// given
+		RecordingSink slow = new RecordingSink();
+		slow.release = new CountDownLatch(1);
+		pointChangeFeed.subscribe(null, null, slow);
+		pointHistoryWriter.append(USER_ID, 1, TransactionType.CHARGE, 1L, 1L);
+		assertThat(slow.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		for (int i = 2; i <= 10; i++) {
+			pointHistoryWriter.append(USER_ID, 1, TransactionType.CHARGE, i, i);
+		}
+		pointHistoryWriter.flush();
+		slow.release.countDown();
+
+		// then
+		List<Object> events = slow.take(6);
+		assertThat(events.get(0)).isEqualTo(
+			new PointChange(new PointHistory(1L, USER_ID, 1, TransactionType.CHARGE, 1L),
+				new UserPoint(USER_ID, 1L, 1L)));
+		assertThat(events.get(1)).isEqualTo("lagged:7");
+		assertThat(events.subList(2, 6)).extracting(event -> ((PointChange)event).history().id())
+			.containsExactly(7L, 8L, 9L, 10L);
+	}
+
+	@Test
+	@DisplayName("내역 기록에 끝내 실패해 빠진 변경이 있으면 다음 변경 앞에 lagged 를 받는다")
+	void lostHistoryTest() throws InterruptedException {
+		// given
+		PointHistoryWriter writer = new PointHistoryWriter(new ColumnarPointHistoryRepository() {
+			@Override
+			public synchronized PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+				if (amount == 13) {
+					throw new IllegalStateException("내역 테이블에 기록하지 못했습니다");
+				}
+				return super.insert(userId, amount, type, updateMillis);
+			}
+		}, PointMetrics.noop(), 100, 10);
+		PointChangeFeed feed = new PointChangeFeed(writer, 4, 2, Duration.ofMinutes(1), Duration.ofSeconds(10), false);
+		RecordingSink sink = new RecordingSink();
+		feed.subscribe(USER_ID, null, sink);
+
+		// when
+		writer.append(USER_ID, 10, TransactionType.CHARGE, 1L, 10L);
+		writer.append(USER_ID, 13, TransactionType.CHARGE, 2L, 23L);
+		writer.append(USER_ID, 20, TransactionType.CHARGE, 3L, 43L);
+
+		// then
+		List<Object> events = sink.take(3);
+		assertThat(events).containsExactly(
+			new PointChange(new PointHistory(1L, USER_ID, 10, TransactionType.CHARGE, 1L),
+				new UserPoint(USER_ID, 10L, 1L)),
+			"lagged:2",
+			new PointChange(new PointHistory(2L, USER_ID, 20, TransactionType.CHARGE, 3L),
+				new UserPoint(USER_ID, 43L, 3L)));
+		feed.close();
+		writer.close();
+	}
+
+	@Test
+	@DisplayName("보내기에 실패한 구독은 끝내고 구독자에게 오류를 알린다")
+	void failedSendTest() throws InterruptedException {
+		// given
+		RecordingSink sink = new RecordingSink();
+		sink.failure = new IOException("연결이 끊겼습니다");
+		pointChangeFeed.subscribe(null, null, sink);
+
+		// when
+		pointHistoryWriter.append(USER_ID, 100, TransactionType.CHARGE, 10L, 100L);
+
+		// then
+		assertThat(sink.take(1)).containsExactly("failed:연결이 끊겼습니다");
+		assertThat(pointChangeFeed.subscriberCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("보내기가 sendTimeout 을 넘긴 구독자는 끊고, 실행기 스레드를 돌려받아 다른 구독자에게 계속 보낸다")
+	void stuckSubscriberTest() throws InterruptedException {
+		// given
+		PointChangeFeed feed = new PointChangeFeed(pointHistoryWriter, 4, 1, Duration.ofMinutes(1),
+			Duration.ofMillis(200), false);
+		RecordingSink stuck = new RecordingSink();
+		stuck.release = new CountDownLatch(1);
+		feed.subscribe(null, null, stuck);
+		pointHistoryWriter.append(USER_ID, 1, TransactionType.CHARGE, 1L, 1L);
+		assertThat(stuck.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		RecordingSink sink = new RecordingSink();
+		feed.subscribe(null, null, sink);
+
+		// when
+		pointHistoryWriter.append(USER_ID, 2, TransactionType.CHARGE, 2L, 3L);
+
+		// then
+		assertThat(sink.take(1)).extracting(event -> ((PointChange)event).history().id())
+			.containsExactly(2L);
+		assertThat(stuck.take(2)).containsExactly(
+			new PointChange(new PointHistory(1L, USER_ID, 1, TransactionType.CHARGE, 1L),
+				new UserPoint(USER_ID, 1L, 1L)),
+			"failed:변경을 200ms 안에 보내지 못했습니다");
+		assertThat(feed.subscriberCount()).isEqualTo(1);
+		feed.close();
+	}
+
+	private static final class RecordingSink implements PointChangeFeed.Sink {
+
+		private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+
+		private final CountDownLatch entered = new CountDownLatch(1);
+
+		private volatile CountDownLatch release = new CountDownLatch(0);
+
+		private volatile IOException failure;
+
+		@Override
+		public void send(PointChange change) throws IOException {
+			if (failure != null) {
+				throw failure;
+			}
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			events.add(change);
+		}
+
+		@Override
+		public void lagged(long nextId) {
+			events.add("lagged:" + nextId);
+		}
+
+		@Override
+		public void fail(Throwable cause) {
+			events.add("failed:" + cause.getMessage());
+		}
+
+		private List<Object> take(int count) throws InterruptedException {
+			List<Object> taken = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				Object event = events.poll(5, TimeUnit.SECONDS);
+				if (event == null) {
+					break;
+				}
+				taken.add(event);
+			}
+			return taken;
+		}
+	}
+}
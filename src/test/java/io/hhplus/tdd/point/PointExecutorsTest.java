@@ -0,0 +1,60 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+@EnabledForJreRange(max = JRE.JAVA_20)
+class PointExecutorsTest {
+
+	@Test
+	@DisplayName("가상 스레드를 지원하지 않는 런타임에서는 가상 스레드를 요청해도 이름 붙은 고정 스레드 풀로 실행한다")
+	void virtualFallsBackToPlatformThreadsTest() throws Exception {
+		// given
+		ExecutorService executor = PointExecutors.newExecutor("point-test", 2, true);
+
+		// when
+		Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+		executor.shutdown();
+
+		// then
+		assertThat(PointExecutors.isVirtualThreadSupported()).isFalse();
+		assertThat(thread.getName()).startsWith("point-test-");
+		assertThat(thread.isDaemon()).isTrue();
+	}
+
+	@Test
+	@DisplayName("가상 스레드를 지원하지 않는 런타임에서는 대기열을 제한한 고정 스레드 풀로 대신해, 대기열이 차면 거절한다")
+	void boundedFallbackRejectsWhenQueueFullTest() throws InterruptedException {
+		// given
+		ExecutorService executor = PointExecutors.newBoundedExecutor("point-test", 1, 1, true);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		executor.execute(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		executor.execute(() -> {
+		});
+
+		// when & then
+		assertThatThrownBy(() -> executor.execute(() -> {
+		})).isInstanceOf(RejectedExecutionException.class);
+		release.countDown();
+		executor.shutdown();
+	}
+}
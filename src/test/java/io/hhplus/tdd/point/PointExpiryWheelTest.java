@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointExpiryWheelTest {
+
+	private static final long START = 1_000_000L;
+
+	PointExpiryWheel wheel = new PointExpiryWheel(10, 8, START);
+
+	@Test
+	@DisplayName("만료 시각이 든 칸이 끝나야 나오고, 한 tick 안에 같은 유저는 한번만 나온다")
+	void advanceTest() {
+		// given
+		wheel.schedule(1L, START + 15);
+		wheel.schedule(1L, START + 18);
+		wheel.schedule(2L, START + 25);
+
+		// when, then
+		assertThat(wheel.advance(START + 19)).isEmpty();
+		assertThat(wheel.advance(START + 20)).containsExactly(1L);
+		assertThat(wheel.advance(START + 30)).containsExactly(2L);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	@DisplayName("이미 지난 시각으로 등록하면 다음 tick 에 나온다")
+	void pastExpiryTest() {
+		// given
+		wheel.schedule(1L, START - 1000);
+
+		// when, then
+		assertThat(wheel.advance(START + 10)).containsExactly(1L);
+	}
+
+	@Test
+	@DisplayName("휠 한 바퀴보다 먼 만료 시각도 위 휠을 거쳐 늦어도 한 tick 안에 나온다")
+	void overflowTest() {
+		// given
+		SplittableRandom random = new SplittableRandom(1);
+		Map<Long, Long> expiresAtByUser = new HashMap<>();
+		for (long userId = 0; userId < 10_000; userId++) {
+			long expiresAt = START + random.nextLong(1_000_000);
+			expiresAtByUser.put(userId, expiresAt);
+			wheel.schedule(userId, expiresAt);
+		}
+
+		// when
+		Set<Long> expired = new HashSet<>();
+		for (long now = START; now <= START + 1_000_010; now += 10) {
+			for (long userId : wheel.advance(now)) {
+				// then
+				assertThat(expiresAtByUser.get(userId)).isLessThanOrEqualTo(now).isGreaterThan(now - 20);
+				assertThat(expired.add(userId)).isTrue();
+			}
+		}
+		assertThat(expired).hasSize(expiresAtByUser.size());
+		assertThat(wheel.size()).isZero();
+	}
+}
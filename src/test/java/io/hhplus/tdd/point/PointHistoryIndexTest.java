@@ -0,0 +1,65 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointHistoryIndexTest {
+
+	PointHistoryIndex pointHistoryIndex = new PointHistoryIndex();
+
+	@Test
+	@DisplayName("유저별로 추가한 순서대로 내역을 조회한다")
+	void findAllByUserIdTest() {
+		// given
+		PointHistory h1 = new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 10L);
+		PointHistory h2 = new PointHistory(2L, 2L, 200L, TransactionType.CHARGE, 20L);
+		PointHistory h3 = new PointHistory(3L, 1L, 50L, TransactionType.USE, 30L);
+
+		// when
+		pointHistoryIndex.add(h1);
+		pointHistoryIndex.add(h2);
+		pointHistoryIndex.add(h3);
+
+		// then
+		assertThat(pointHistoryIndex.findAllByUserId(1L)).containsExactly(h1, h3);
+		assertThat(pointHistoryIndex.findAllByUserId(2L)).containsExactly(h2);
+		assertThat(pointHistoryIndex.findAllByUserId(3L)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("초기 용량보다 많은 내역도 모두 보관한다")
+	void growTest() {
+		// when
+		for (long id = 1; id <= 100; id++) {
+			pointHistoryIndex.add(new PointHistory(id, 1L, id, TransactionType.CHARGE, id));
+		}
+
+		// then
+		assertThat(pointHistoryIndex.countByUserId(1L)).isEqualTo(100);
+		assertThat(pointHistoryIndex.findAllByUserId(1L).get(99).amount()).isEqualTo(100L);
+	}
+
+	@Test
+	@DisplayName("커서 이후의 내역을 조건에 맞는 것만 페이지 크기만큼 조회한다")
+	void findPageTest() {
+		// given
+		for (long id = 1; id <= 10; id++) {
+			TransactionType type = id % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+			pointHistoryIndex.add(new PointHistory(id, 1L, id, type, id * 1000));
+		}
+
+		// when
+		PointHistoryPage first = pointHistoryIndex.findPage(1L,
+			new PointHistoryQuery(null, 2, 2000L, 9000L, TransactionType.CHARGE));
+		PointHistoryPage second = pointHistoryIndex.findPage(1L,
+			new PointHistoryQuery(first.nextCursor(), 2, 2000L, 9000L, TransactionType.CHARGE));
+
+		// then
+		assertThat(first.histories()).extracting(PointHistory::id).containsExactly(3L, 5L);
+		assertThat(first.nextCursor()).isEqualTo(5L);
+		assertThat(second.histories()).extracting(PointHistory::id).containsExactly(7L);
+		assertThat(second.nextCursor()).isNull();
+	}
+}
@@ -0,0 +1,166 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PointHistoryWriterTest {
+
+	private static final long USER_ID = 1L;
+
+	PointHistoryTable pointHistoryRepo = new PointHistoryTable();
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(pointHistoryRepo);
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, PointMetrics.noop(),
+		100, 10);
+
+	@Test
+	@DisplayName("flush 가 끝나면 append 한 순서대로 내역이 기록되어 있다")
+	void flushWritesInAppendOrderTest() {
+		// given
+		for (int amount = 1; amount <= 5; amount++) {
+			pointHistoryWriter.append(USER_ID, amount, TransactionType.CHARGE, amount, amount * (amount + 1) / 2);
+		}
+
+		// when
+		pointHistoryWriter.flush();
+
+		// then
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID))
+			.extracting(PointHistory::amount)
+			.containsExactly(1L, 2L, 3L, 4L, 5L);
+		assertThat(pointHistoryWriter.pendingCount()).isZero();
+		assertThat(pointHistoryRepository.selectAllByUserId(USER_ID))
+			.isEqualTo(pointHistoryRepo.selectAllByUserId(USER_ID));
+	}
+
+	@Test
+	@DisplayName("기록 중인 내역과 기록된 내역을 중복 없이 순서대로 조회한다")
+	void readWithPendingTest() {
+		// given
+		for (int amount = 1; amount <= 3; amount++) {
+			pointHistoryWriter.append(USER_ID, amount, TransactionType.USE, amount, 100 - amount * (amount + 1) / 2);
+		}
+
+		// when
+		List<PointHistory> histories = pointHistoryWriter.readWithPending(USER_ID,
+			pointHistoryRepository::selectAllByUserId);
+
+		// then
+		assertThat(histories)
+			.extracting(PointHistory::amount)
+			.containsExactly(1L, 2L, 3L);
+	}
+
+	@Test
+	@DisplayName("종료하면 대기 중인 내역을 모두 기록한다")
+	void closeFlushesPendingTest() throws InterruptedException {
+		// given
+		pointHistoryWriter.append(USER_ID, 100, TransactionType.CHARGE, 1L, 100L);
+		pointHistoryWriter.append(USER_ID, 50, TransactionType.USE, 2L, 50L);
+
+		// when
+		pointHistoryWriter.close();
+
+		// then
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID)).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("인터럽트된 스레드가 append 해도 내역을 버리지 않고 기록하며 인터럽트 상태는 유지한다")
+	void appendWhileInterruptedTest() {
+		// when
+		Thread.currentThread().interrupt();
+		pointHistoryWriter.append(USER_ID, 100, TransactionType.CHARGE, 1L, 100L);
+		boolean interrupted = Thread.interrupted();
+		pointHistoryWriter.flush();
+
+		// then
+		assertThat(interrupted).isTrue();
+		assertThat(pointHistoryRepo.selectAllByUserId(USER_ID)).hasSize(1);
+	}
+
+	@Test
+	@DisplayName("종료와 동시에 append 해도 성공한 append 의 내역은 모두 기록된다")
+	void appendConcurrentWithCloseTest() throws Exception {
+		// given
+		ColumnarPointHistoryRepository repository = new ColumnarPointHistoryRepository();
+		PointHistoryWriter writer = new PointHistoryWriter(repository, PointMetrics.noop(), 100, 10);
+		AtomicInteger appended = new AtomicInteger();
+		List<CompletableFuture<Void>> appenders = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			long userId = i + 1;
+			appenders.add(CompletableFuture.runAsync(() -> {
+				try {
+					while (true) {
+						writer.append(userId, 1, TransactionType.CHARGE, 1L, 1L);
+						appended.incrementAndGet();
+					}
+				} catch (IllegalStateException e) {
+					// 종료된 뒤의 append 는 거절된다
+				}
+			}));
+		}
+		while (appended.get() < 100) {
+			Thread.sleep(1);
+		}
+
+		// when
+		writer.close();
+
+		// then
+		CompletableFuture.allOf(appenders.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+		assertThat(repository.size()).isEqualTo(appended.get());
+		writer.flush();
+	}
+
+	@Test
+	@DisplayName("기록에 실패하면 다시 시도하고, 끝내 실패하면 실패 지표를 남기고 다음 내역을 기록한다")
+	void insertRetryTest() {
+		// given
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		FlakyPointHistoryRepository flaky = new FlakyPointHistoryRepository(new PointHistoryTable());
+		PointHistoryWriter writer = new PointHistoryWriter(flaky, new PointMetrics(registry, true), 100, 10);
+		flaky.failures.set(2);
+		writer.append(USER_ID, 100, TransactionType.CHARGE, 1L, 100L);
+		writer.flush();
+		flaky.failures.set(3);
+		writer.append(USER_ID, 50, TransactionType.USE, 2L, 50L);
+		writer.append(USER_ID, 30, TransactionType.USE, 3L, 20L);
+
+		// when
+		writer.flush();
+
+		// then
+		assertThat(flaky.selectAllByUserId(USER_ID)).extracting(PointHistory::amount).containsExactly(100L, 30L);
+		assertThat(registry.get("point.history.insert.failures").counter().count()).isEqualTo(1);
+	}
+
+	private static final class FlakyPointHistoryRepository extends TablePointHistoryRepository {
+
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private FlakyPointHistoryRepository(PointHistoryTable pointHistoryTable) {
+			super(pointHistoryTable);
+		}
+
+		@Override
+		public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+			if (failures.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) > 0) {
+				throw new IllegalStateException("내역 테이블에 기록하지 못했습니다");
+			}
+			return super.insert(userId, amount, type, updateMillis);
+		}
+	}
+}
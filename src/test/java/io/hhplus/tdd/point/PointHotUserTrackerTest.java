@@ -0,0 +1,49 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointHotUserTrackerTest {
+
+	@Test
+	@DisplayName("카운터 수보다 많은 유저가 섞여 있어도 요청이 몰린 유저를 hot 으로 찾는다")
+	void heavyHitterDetectedTest() {
+		// given
+		PointHotUserTracker tracker = new PointHotUserTracker(4, 50, 60);
+
+		// when
+		for (long coldUserId = 100; coldUserId < 200; coldUserId++) {
+			tracker.observe(1L, 1_000L);
+			tracker.observe(coldUserId, 0L);
+		}
+
+		// then
+		assertThat(tracker.isHot(1L)).isTrue();
+		assertThat(tracker.isHot(199L)).isFalse();
+		assertThat(tracker.top(1)).singleElement()
+			.satisfies(hotUser -> {
+				assertThat(hotUser.userId()).isEqualTo(1L);
+				assertThat(hotUser.count()).isGreaterThanOrEqualTo(100L);
+				assertThat(hotUser.averageLockWaitNanos()).isEqualTo(1_000L);
+				assertThat(hotUser.hot()).isTrue();
+			});
+	}
+
+	@Test
+	@DisplayName("decay 주기마다 횟수를 절반으로 줄여 오래전에 몰렸던 유저는 hot 에서 빠진다")
+	void decayTest() {
+		// given
+		PointHotUserTracker tracker = new PointHotUserTracker(4, 3, 0);
+
+		// when
+		for (int i = 0; i < 10; i++) {
+			tracker.observe(1L, 0L);
+		}
+
+		// then
+		assertThat(tracker.isHot(1L)).isFalse();
+		assertThat(tracker.top(10)).extracting(PointHotUserTracker.HotUser::count).containsExactly(1L);
+	}
+}
@@ -0,0 +1,142 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointIdempotencyStoreTest {
+
+	private static final long USER_ID = 1L;
+
+	PointIdempotencyStore idempotencyStore = new PointIdempotencyStore(100, Duration.ofMinutes(10));
+
+	AtomicInteger executions = new AtomicInteger();
+
+	ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	@DisplayName("같은 멱등 키로 다시 요청하면 실행하지 않고 처음 결과를 반환한다")
+	void replayReturnsFirstResultTest() {
+		// given
+		UserPoint first = idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, this::charge);
+
+		// when
+		UserPoint replayed = idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, this::charge);
+
+		// then
+		assertThat(replayed).isEqualTo(first);
+		assertThat(executions.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("처리 중인 키로 동시에 요청하면 한번만 실행하고 같은 결과를 받는다")
+	void concurrentDuplicatesCollapseTest() throws Exception {
+		// given
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<UserPoint> first = executor.submit(() ->
+			idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, () -> {
+				entered.countDown();
+				await(release);
+				return charge();
+			}));
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		Future<UserPoint> duplicate = executor.submit(() ->
+			idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, this::charge));
+		release.countDown();
+
+		// then
+		assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS));
+		assertThat(executions.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("같은 멱등 키로 금액이 다른 요청을 하면 익셉션이 발생한다")
+	void conflictingRequestTest() {
+		// given
+		idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, this::charge);
+
+		// when & then
+		assertThatThrownBy(() -> idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 200L, this::charge))
+			.isInstanceOf(PointIdempotencyException.class);
+		assertThat(executions.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("같은 멱등 키로 유효기간이 다른 충전을 하면 익셉션이 발생한다")
+	void conflictingExpiresAtTest() {
+		// given
+		idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, 1000L, this::charge);
+
+		// when & then
+		assertThat(idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, 1000L, this::charge))
+			.isNotNull();
+		assertThatThrownBy(() -> idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, 2000L,
+			this::charge)).isInstanceOf(PointIdempotencyException.class);
+		assertThatThrownBy(() -> idempotencyStore.execute(USER_ID, "key", TransactionType.CHARGE, 100L, this::charge))
+			.isInstanceOf(PointIdempotencyException.class);
+		assertThat(executions.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("실패한 요청의 키는 남기지 않아 다시 요청하면 실행한다")
+	void failedRequestRetriedTest() {
+		// given
+		assertThatThrownBy(() -> idempotencyStore.execute(USER_ID, "key", TransactionType.USE, 100L, () -> {
+			throw new PointPolicyException(PointPolicyException.Reason.INSUFFICIENT_POINT, "포인트가 부족합니다");
+		})).isInstanceOf(PointPolicyException.class);
+
+		// when
+		idempotencyStore.execute(USER_ID, "key", TransactionType.USE, 100L, this::charge);
+
+		// then
+		assertThat(executions.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("용량을 넘으면 가장 먼저 들어온 키부터 제거한다")
+	void evictEldestTest() {
+		// given
+		PointIdempotencyStore smallStore = new PointIdempotencyStore(2, Duration.ofMinutes(10));
+
+		// when
+		for (int i = 0; i < 3; i++) {
+			smallStore.execute(USER_ID, "key-" + i, TransactionType.CHARGE, 100L, this::charge);
+		}
+		smallStore.execute(USER_ID, "key-0", TransactionType.CHARGE, 100L, this::charge);
+
+		// then
+		assertThat(executions.get()).isEqualTo(4);
+		assertThat(smallStore.size()).isEqualTo(2);
+	}
+
+	private UserPoint charge() {
+		return new UserPoint(USER_ID, 100L * executions.incrementAndGet(), System.nanoTime());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
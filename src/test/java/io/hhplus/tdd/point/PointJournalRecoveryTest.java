@@ -0,0 +1,180 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+
+class PointJournalRecoveryTest {
+
+	@TempDir
+	Path directory;
+
+	PointMetrics pointMetrics = PointMetrics.noop();
+
+	@Test
+	@DisplayName("재시작하면 저널로 잔고와 내역을 복구한다")
+	void recoverAfterRestartTest() throws InterruptedException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, 1024);
+		PointHistoryRepository historyRepository = new TablePointHistoryRepository(new PointHistoryTable());
+		PointHistoryWriter historyWriter = new PointHistoryWriter(historyRepository, pointMetrics, 100, 10);
+		PointStore pointStore = new PointStore(new UserPointTable(), new UserPointCache(100), historyRepository,
+			historyWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), journal, pointMetrics);
+		PointHotUserTracker hotUserTracker = new PointHotUserTracker(64, 100, 10);
+		PointService pointService = new PointService(pointStore,
+			new LockPointUpdater(pointStore, new PointLockProvider(pointMetrics), hotUserTracker, pointMetrics, 100, 0,
+				200, 3000, 16, false),
+			new PointIdempotencyStore(100, Duration.ofMinutes(10)), hotUserTracker);
+		pointService.charge(1L, 1000, 10L);
+		pointService.use(1L, 300, 20L);
+		pointService.charge(2L, 500, 30L);
+		historyWriter.close();
+		journal.close();
+
+		// when
+		PointJournal reopened = new PointJournal(true, directory, 1024);
+		UserPointTable userPointRepo = new UserPointTable();
+		PointHistoryTable pointHistoryRepo = new PointHistoryTable();
+		PointHistoryWriter recoveredWriter = new PointHistoryWriter(new TablePointHistoryRepository(pointHistoryRepo),
+			pointMetrics, 100, 10);
+		PointStatsIndex statsIndex = new PointStatsIndex();
+		new PointJournalRecovery(reopened, new PointSnapshotter(reopened, false, directory, 60, 2), userPointRepo,
+			recoveredWriter, statsIndex, new PointLotLedger(1000, 64), pointMetrics).recover();
+		recoveredWriter.flush();
+
+		// then
+		assertThat(userPointRepo.selectById(1L).point()).isEqualTo(700);
+		assertThat(userPointRepo.selectById(2L).point()).isEqualTo(500);
+		assertThat(pointHistoryRepo.selectAllByUserId(1L))
+			.extracting(PointHistory::type, PointHistory::amount, PointHistory::updateMillis)
+			.containsExactly(
+				tuple(TransactionType.CHARGE, 1000L, 10L),
+				tuple(TransactionType.USE, 300L, 20L));
+		assertThat(statsIndex.find(1L)).isEqualTo(new PointStats(1L, 1000L, 300L, 0L, 1L, 1L, 0L, 20L));
+		recoveredWriter.close();
+		reopened.close();
+	}
+
+	@Test
+	@DisplayName("스냅샷이 있으면 스냅샷의 잔고, 내역, 누적 집계, 묶음에 watermark 뒤의 저널만 재생해 복구한다")
+	void recoverFromSnapshotTest() throws IOException, InterruptedException {
+		// given
+		Path journalDirectory = directory.resolve("journal");
+		Path snapshotDirectory = directory.resolve("snapshot");
+		PointJournal journal = new PointJournal(true, journalDirectory, 1024);
+		PointSnapshotter snapshotter = new PointSnapshotter(journal, true, snapshotDirectory, 60, 2);
+		journal.append(1L, 1000L, TransactionType.CHARGE, 10L, 1000L);
+		journal.append(2L, 500L, TransactionType.CHARGE, 20L, 500L, 5000L);
+		for (long i = 1; i <= 30; i++) {
+			journal.append(3L, 1L, TransactionType.CHARGE, 20L + i, i);
+		}
+		snapshotter.snapshot();
+		journal.append(1L, 300L, TransactionType.USE, 100L, 700L);
+		journal.close();
+		Files.delete(journalDirectory.resolve(String.format("%020d.journal", 0)));
+
+		// when
+		PointJournal reopened = new PointJournal(true, journalDirectory, 1024);
+		PointSnapshotter reopenedSnapshotter = new PointSnapshotter(reopened, true, snapshotDirectory, 60, 2);
+		UserPointTable userPointRepo = new UserPointTable();
+		PointHistoryTable pointHistoryRepo = new PointHistoryTable();
+		PointHistoryWriter recoveredWriter = new PointHistoryWriter(new TablePointHistoryRepository(pointHistoryRepo),
+			pointMetrics, 100, 10);
+		PointStatsIndex statsIndex = new PointStatsIndex();
+		PointLotLedger lotLedger = new PointLotLedger(1000, 64);
+		new PointJournalRecovery(reopened, reopenedSnapshotter, userPointRepo, recoveredWriter, statsIndex,
+			lotLedger, pointMetrics).recover();
+		recoveredWriter.flush();
+
+		// then
+		assertThat(userPointRepo.selectById(1L).point()).isEqualTo(700);
+		assertThat(userPointRepo.selectById(2L).point()).isEqualTo(500);
+		assertThat(userPointRepo.selectById(3L).point()).isEqualTo(30);
+		assertThat(pointHistoryRepo.selectAllByUserId(1L))
+			.extracting(PointHistory::type, PointHistory::amount)
+			.containsExactly(tuple(TransactionType.CHARGE, 1000L), tuple(TransactionType.USE, 300L));
+		assertThat(pointHistoryRepo.selectAllByUserId(3L)).hasSize(30);
+		assertThat(statsIndex.find(1L)).isEqualTo(new PointStats(1L, 1000L, 300L, 0L, 1L, 1L, 0L, 100L));
+		assertThat(statsIndex.find(3L)).isEqualTo(new PointStats(3L, 30L, 0L, 0L, 30L, 0L, 0L, 50L));
+		assertThat(lotLedger.expiringPoint(2L)).isEqualTo(500);
+		assertThat(reopenedSnapshotter.snapshot().points()).hasSize(3);
+		reopenedSnapshotter.close();
+		recoveredWriter.close();
+		reopened.close();
+	}
+
+	@Test
+	@DisplayName("재시작하면 저널로 유효기간 묶음을 다시 쌓아, 사용하고 소멸한 만큼을 뺀 묶음만 남는다")
+	void recoverLotsTest() throws InterruptedException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, 1024);
+		journal.append(1L, 1000L, TransactionType.CHARGE, 10L, 1000L);
+		journal.append(1L, 300L, TransactionType.CHARGE, 20L, 1300L, 100L);
+		journal.append(1L, 200L, TransactionType.CHARGE, 30L, 1500L, 5000L);
+		journal.append(1L, 100L, TransactionType.USE, 40L, 1400L);
+		journal.append(1L, 200L, TransactionType.EXPIRE, 100L, 1200L);
+		journal.close();
+
+		// when
+		PointJournal reopened = new PointJournal(true, directory, 1024);
+		PointHistoryWriter recoveredWriter = new PointHistoryWriter(
+			new TablePointHistoryRepository(new PointHistoryTable()), pointMetrics, 100, 10);
+		PointLotLedger lotLedger = new PointLotLedger(1000, 64);
+		new PointJournalRecovery(reopened, new PointSnapshotter(reopened, false, directory, 60, 2),
+			new UserPointTable(), recoveredWriter, new PointStatsIndex(), lotLedger, pointMetrics).recover();
+
+		// then
+		assertThat(lotLedger.expiringPoint(1L)).isEqualTo(200);
+		assertThat(lotLedger.expire(1L, 5000L)).isEqualTo(200);
+		recoveredWriter.close();
+		reopened.close();
+	}
+
+	@Test
+	@DisplayName("시작하면 별도 스레드에서 복구하고, 복구가 끝날 때까지 잔고 조회와 변경을 거절한다")
+	void recoverInBackgroundTest() throws Exception {
+		// given
+		PointJournal journal = new PointJournal(true, directory, 1024);
+		journal.append(1L, 1000L, TransactionType.CHARGE, 10L, 1000L);
+		journal.close();
+		PointJournal reopened = new PointJournal(true, directory, 1024);
+		BlockingUserPointTable userPointRepo = new BlockingUserPointTable();
+		userPointRepo.blocking = true;
+		PointHistoryRepository historyRepository = new TablePointHistoryRepository(new PointHistoryTable());
+		PointHistoryWriter recoveredWriter = new PointHistoryWriter(historyRepository, pointMetrics, 100, 10);
+		PointStatsIndex statsIndex = new PointStatsIndex();
+		PointLotLedger lotLedger = new PointLotLedger(1000, 64);
+		PointStore pointStore = new PointStore(userPointRepo, new UserPointCache(100), historyRepository,
+			recoveredWriter, statsIndex, lotLedger, reopened, pointMetrics);
+		PointJournalRecovery recovery = new PointJournalRecovery(reopened,
+			new PointSnapshotter(reopened, false, directory, 60, 2), userPointRepo, recoveredWriter, statsIndex,
+			lotLedger, pointMetrics);
+
+		// when
+		recovery.start();
+
+		// then
+		assertThat(userPointRepo.entered.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(recovery.recovered()).isNotDone();
+		assertThatThrownBy(() -> pointStore.find(1L)).isInstanceOf(PointRecoveringException.class);
+		assertThatThrownBy(() -> pointStore.save(1L, 0L)).isInstanceOf(PointRecoveringException.class);
+		userPointRepo.release.countDown();
+		recovery.recovered().get(5, TimeUnit.SECONDS);
+		assertThat(pointStore.find(1L).point()).isEqualTo(1000);
+		recoveredWriter.close();
+		reopened.close();
+	}
+}
@@ -0,0 +1,204 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PointJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	@DisplayName("기록한 레코드를 다시 열어 기록한 순서대로 읽는다")
+	void replayAfterReopenTest() throws InterruptedException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, 1024);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.append(1L, 30L, TransactionType.USE, 20L, 70L);
+		journal.sync();
+		journal.close();
+
+		// when
+		List<String> records = replay(new PointJournal(true, directory, 1024));
+
+		// then
+		assertThat(records).containsExactly("1:100:CHARGE:10:100", "1:30:USE:20:70");
+	}
+
+	@Test
+	@DisplayName("유효기간이 있는 충전은 유효기간과 함께 하나의 레코드로 읽는다")
+	void replayExpiryTest() throws InterruptedException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.append(1L, 50L, TransactionType.CHARGE, 20L, 150L, 1000L);
+		journal.append(1L, 30L, TransactionType.USE, 30L, 120L);
+		journal.close();
+
+		// when
+		List<String> records = replay(new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3));
+
+		// then
+		assertThat(records).containsExactly("1:100:CHARGE:10:100", "1:50:CHARGE:20:150:1000", "1:30:USE:30:120");
+	}
+
+	@Test
+	@DisplayName("세그먼트가 가득 차면 다음 세그먼트에 이어서 기록한다")
+	void rotateSegmentTest() throws InterruptedException, IOException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3);
+
+		// when
+		for (long i = 1; i <= 10; i++) {
+			journal.append(i, i, TransactionType.CHARGE, i, i);
+		}
+		journal.close();
+
+		// then
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.count()).isEqualTo(4);
+		}
+		assertThat(replay(new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3))).hasSize(10);
+	}
+
+	@Test
+	@DisplayName("일련번호 구간을 주면 세그먼트를 넘어 그 구간의 레코드만 읽는다")
+	void replayRangeTest() throws InterruptedException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3);
+		for (long i = 1; i <= 10; i++) {
+			journal.append(i, i, TransactionType.CHARGE, i, i);
+		}
+		journal.close();
+
+		// when
+		PointJournal reopened = new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3);
+		List<Long> userIds = new ArrayList<>();
+		long count = reopened.replay(2L, 7L,
+			(userId, amount, type, updateMillis, point, expiresAt) -> userIds.add(userId));
+		reopened.close();
+
+		// then
+		assertThat(count).isEqualTo(5);
+		assertThat(userIds).containsExactly(3L, 4L, 5L, 6L, 7L);
+	}
+
+	@Test
+	@DisplayName("다시 열면 마지막 레코드 뒤에 이어서 기록한다")
+	void appendAfterReopenTest() throws InterruptedException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, 1024);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.close();
+
+		// when
+		PointJournal reopened = new PointJournal(true, directory, 1024);
+		reopened.append(2L, 200L, TransactionType.CHARGE, 20L, 200L);
+		reopened.close();
+
+		// then
+		assertThat(replay(new PointJournal(true, directory, 1024)))
+			.containsExactly("1:100:CHARGE:10:100", "2:200:CHARGE:20:200");
+	}
+
+	@Test
+	@DisplayName("체크섬이 맞지 않는 레코드부터는 읽지 않는다")
+	void corruptedTailIgnoredTest() throws InterruptedException, IOException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, 1024);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.append(1L, 30L, TransactionType.USE, 20L, 70L);
+		journal.close();
+		try (Stream<Path> files = Files.list(directory);
+			 RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+			file.seek(PointJournal.RECORD_SIZE + 8);
+			file.write(0xFF);
+		}
+
+		// when
+		List<String> records = replay(new PointJournal(true, directory, 1024));
+
+		// then
+		assertThat(records).containsExactly("1:100:CHARGE:10:100");
+	}
+
+	@Test
+	@DisplayName("유효기간 레코드 뒤의 변경 레코드가 남지 않았으면 다시 열 때 유효기간 레코드를 버리고 그 자리에 이어서 기록한다")
+	void orphanExpiryTrimmedTest() throws InterruptedException, IOException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, 1024);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.append(1L, 50L, TransactionType.CHARGE, 20L, 150L, 1000L);
+		journal.close();
+		try (Stream<Path> files = Files.list(directory);
+			 RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+			file.seek(PointJournal.RECORD_SIZE * 2 + 8);
+			file.write(0xFF);
+		}
+
+		// when
+		PointJournal reopened = new PointJournal(true, directory, 1024);
+		long sequence = reopened.sequence();
+		reopened.append(2L, 200L, TransactionType.CHARGE, 30L, 200L);
+		reopened.close();
+
+		// then
+		assertThat(sequence).isEqualTo(1);
+		assertThat(replay(new PointJournal(true, directory, 1024)))
+			.containsExactly("1:100:CHARGE:10:100", "2:200:CHARGE:30:200");
+	}
+
+	@Test
+	@DisplayName("유효기간 레코드와 변경 레코드는 세그먼트를 나눠 기록하지 않는다")
+	void expiryNotSplitAcrossSegmentsTest() throws InterruptedException, IOException {
+		// given
+		PointJournal journal = new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.append(1L, 30L, TransactionType.USE, 20L, 70L);
+
+		// when
+		journal.append(1L, 50L, TransactionType.CHARGE, 30L, 120L, 1000L);
+		journal.close();
+
+		// then
+		try (Stream<Path> files = Files.list(directory)) {
+			assertThat(files.count()).isEqualTo(2);
+		}
+		assertThat(replay(new PointJournal(true, directory, PointJournal.RECORD_SIZE * 3)))
+			.containsExactly("1:100:CHARGE:10:100", "1:30:USE:20:70", "1:50:CHARGE:30:120:1000");
+	}
+
+	@Test
+	@DisplayName("비활성화하면 파일을 만들지 않는다")
+	void disabledWritesNothingTest() throws IOException {
+		// when
+		PointJournal journal = new PointJournal(false, directory.resolve("journal"), 1024);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.sync();
+
+		// then
+		assertThat(Files.exists(directory.resolve("journal"))).isFalse();
+		assertThat(journal.replay((userId, amount, type, updateMillis, point, expiresAt) -> {
+		})).isZero();
+	}
+
+	private List<String> replay(PointJournal journal) throws InterruptedException {
+		List<String> records = new ArrayList<>();
+		journal.replay((userId, amount, type, updateMillis, point, expiresAt) ->
+			records.add(userId + ":" + amount + ":" + type + ":" + updateMillis + ":" + point
+				+ (expiresAt == null ? "" : ":" + expiresAt)));
+		journal.close();
+		return records;
+	}
+}
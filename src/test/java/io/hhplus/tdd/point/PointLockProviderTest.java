@@ -0,0 +1,128 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointLockProviderTest {
+
+	PointLockProvider lockProvider = new PointLockProvider(PointMetrics.noop());
+
+	@Test
+	@DisplayName("서로 다른 유저의 작업은 동시에 실행된다")
+	void differentUsersRunInParallelTest() throws InterruptedException {
+		// given
+		CountDownLatch bothEntered = new CountDownLatch(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		// when
+		for (long userId = 1; userId <= 2; userId++) {
+			long id = userId;
+			executor.submit(() -> lockProvider.executeWithLock(id, () -> {
+				bothEntered.countDown();
+				try {
+					return bothEntered.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					return false;
+				}
+			}));
+		}
+
+		// then
+		assertThat(bothEntered.await(5, TimeUnit.SECONDS)).isTrue();
+		executor.shutdown();
+	}
+
+	@Test
+	@DisplayName("같은 유저의 작업은 한번에 하나씩 실행된다")
+	void sameUserRunsExclusivelyTest() throws InterruptedException {
+		// given
+		int threadCount = 10;
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch doneLatch = new CountDownLatch(threadCount);
+
+		// when
+		for (int i = 0; i < threadCount; i++) {
+			executor.submit(() -> {
+				try {
+					lockProvider.executeWithLock(1L, () -> {
+						maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+						Thread.yield();
+						return running.decrementAndGet();
+					});
+				} finally {
+					doneLatch.countDown();
+				}
+			});
+		}
+		doneLatch.await();
+		executor.shutdown();
+
+		// then
+		assertThat(maxRunning.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("작업이 끝난 유저의 락은 레지스트리에서 제거된다")
+	void idleLockReclaimedTest() {
+		// when
+		for (long userId = 1; userId <= 100; userId++) {
+			lockProvider.executeWithLock(userId, () -> null);
+		}
+
+		// then
+		assertThat(lockProvider.activeLockCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("작업 중 예외가 발생해도 락은 반납된다")
+	void lockReleasedOnExceptionTest() {
+		// when
+		try {
+			lockProvider.executeWithLock(1L, () -> {
+				throw new IllegalArgumentException();
+			});
+		} catch (IllegalArgumentException ignored) {
+		}
+
+		// then
+		assertThat(lockProvider.activeLockCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("제한 시간 안에 락을 얻지 못하면 익셉션이 발생한다")
+	void lockTimeoutTest() throws InterruptedException {
+		// given
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.submit(() -> lockProvider.executeWithLock(1L, () -> {
+			entered.countDown();
+			try {
+				return release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				return false;
+			}
+		}));
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when & then
+		assertThatThrownBy(() -> lockProvider.executeWithLock(1L, TimeUnit.MILLISECONDS.toNanos(50), () -> true))
+			.isInstanceOfSatisfying(PointOverloadedException.class, e ->
+				assertThat(e.getReason()).isEqualTo(PointOverloadedException.Reason.LOCK_TIMEOUT));
+		release.countDown();
+		executor.shutdown();
+		assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(lockProvider.activeLockCount()).isZero();
+	}
+}
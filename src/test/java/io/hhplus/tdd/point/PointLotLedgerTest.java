@@ -0,0 +1,58 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointLotLedgerTest {
+
+	private static final long USER_ID = 1L;
+
+	PointLotLedger pointLotLedger = new PointLotLedger(1000, 64);
+
+	@Test
+	@DisplayName("사용하면 유효기간이 있는 묶음을 충전한 순서대로 차감한다")
+	void consumeFifoTest() {
+		// given
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.CHARGE, 100, 2000L));
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.CHARGE, 500));
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.CHARGE, 200, 1000L));
+
+		// when
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.USE, 150));
+
+		// then
+		assertThat(pointLotLedger.expiringPoint(USER_ID)).isEqualTo(150);
+		assertThat(pointLotLedger.expire(USER_ID, 1000)).isEqualTo(150);
+		assertThat(pointLotLedger.expire(USER_ID, 2000)).isZero();
+	}
+
+	@Test
+	@DisplayName("만료 시각이 지난 묶음만 소멸 금액에 포함하고 목록에서 뺀다")
+	void expireTest() {
+		// given
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.CHARGE, 100, 1000L));
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.CHARGE, 200, 3000L));
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.CHARGE, 300, 2000L));
+
+		// when
+		long expired = pointLotLedger.expire(USER_ID, 2000);
+
+		// then
+		assertThat(expired).isEqualTo(400);
+		assertThat(pointLotLedger.expiringPoint(USER_ID)).isEqualTo(200);
+	}
+
+	@Test
+	@DisplayName("만료 시각이 지난 묶음이 있었던 유저를 휠에서 꺼낸다")
+	void advanceTest() {
+		// given
+		long now = System.currentTimeMillis();
+		pointLotLedger.record(USER_ID, new PointOperation(USER_ID, TransactionType.CHARGE, 100, now + 500));
+		pointLotLedger.record(2L, new PointOperation(2L, TransactionType.CHARGE, 100, now + 60_000));
+
+		// when, then
+		assertThat(pointLotLedger.advance(now + 2000)).containsExactly(USER_ID);
+	}
+}
@@ -0,0 +1,112 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PointMetricsTest {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	PointMetrics pointMetrics = new PointMetrics(registry, true);
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(new PointHistoryTable());
+
+	PointStore pointStore = new PointStore(new UserPointTable(), new UserPointCache(100), pointHistoryRepository,
+		new PointHistoryWriter(pointHistoryRepository, pointMetrics, 100, 10),
+		new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics);
+
+	PointHotUserTracker pointHotUserTracker = new PointHotUserTracker(64, 100, 10);
+
+	PointService pointService = new PointService(pointStore,
+		new LockPointUpdater(pointStore, new PointLockProvider(pointMetrics), pointHotUserTracker, pointMetrics, 100,
+			0, 200, 3000, 16, false),
+		new PointIdempotencyStore(100, Duration.ofMinutes(10)), pointHotUserTracker);
+
+	@Test
+	@DisplayName("충전하면 락 대기, 락 보유, 테이블 호출 시간이 기록된다")
+	void chargeRecordsTimersTest() {
+		// when
+		pointService.charge(1L, 100, System.currentTimeMillis());
+
+		// then
+		assertThat(registry.get("point.lock.wait").timer().count()).isEqualTo(1);
+		assertThat(registry.get("point.lock.hold").timer().count()).isEqualTo(1);
+		assertThat(registry.get("point.table.latency").tag("operation", "select").timer().count()).isEqualTo(1);
+		assertThat(registry.get("point.table.latency").tag("operation", "insert_or_update").timer().count())
+			.isEqualTo(1);
+		assertThat(registry.get("point.group-commit.size").summary().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("규칙을 어겨 거절된 변경은 사유별로 센다")
+	void rejectedCountedByReasonTest() {
+		// when
+		assertThatThrownBy(() -> pointService.use(1L, 100, System.currentTimeMillis()))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> pointService.charge(1L, PointService.MAX_POINT + 1, System.currentTimeMillis()))
+			.isInstanceOf(IllegalArgumentException.class);
+
+		// then
+		assertThat(registry.get("point.rejected").tag("reason", "insufficient_point").counter().count())
+			.isEqualTo(1);
+		assertThat(registry.get("point.rejected").tag("reason", "max_point").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("잔고를 두번 조회하면 캐시 실패와 적중이 한번씩 집계된다")
+	void cacheRequestsExportedTest() {
+		// given
+		pointService.charge(1L, 100, System.currentTimeMillis());
+
+		// when
+		pointService.get(1L);
+
+		// then
+		assertThat(registry.get("point.cache.requests").tag("result", "miss").functionCounter().count())
+			.isEqualTo(1);
+		assertThat(registry.get("point.cache.requests").tag("result", "hit").functionCounter().count())
+			.isEqualTo(1);
+		assertThat(registry.get("point.cache.size").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("용량을 넘어 캐시에서 밀려난 잔고 수를 내보낸다")
+	void cacheEvictionsExportedTest() {
+		// given
+		SimpleMeterRegistry cacheRegistry = new SimpleMeterRegistry();
+		UserPointCache cache = new UserPointCache(1);
+		new PointMetrics(cacheRegistry, true).bindCache(cache);
+
+		// when
+		cache.put(new UserPoint(1L, 100L, 10L));
+		cache.put(new UserPoint(2L, 200L, 20L));
+		cache.put(new UserPoint(3L, 300L, 30L));
+
+		// then
+		assertThat(cacheRegistry.get("point.cache.evictions").functionCounter().count()).isEqualTo(2);
+		assertThat(cacheRegistry.get("point.cache.size").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("비활성화하면 미터를 등록하지 않는다")
+	void disabledRegistersNothingTest() {
+		// given
+		SimpleMeterRegistry disabledRegistry = new SimpleMeterRegistry();
+
+		// when
+		PointMetrics disabled = new PointMetrics(disabledRegistry, false);
+		disabled.recordLockWait(disabled.start());
+
+		// then
+		assertThat(disabledRegistry.getMeters()).isEmpty();
+	}
+}
@@ -0,0 +1,71 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PointReconciliationJobTest {
+
+	@TempDir
+	Path directory;
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	PointMetrics pointMetrics = new PointMetrics(registry, true);
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(new PointHistoryTable());
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, pointMetrics, 100, 10);
+
+	PointStore pointStore = new PointStore(new UserPointTable(), new UserPointCache(100), pointHistoryRepository,
+		pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics);
+
+	OptimisticPointUpdater pointUpdater = new OptimisticPointUpdater(pointStore, pointMetrics, 3000, 1000, 60_000);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		pointHistoryWriter.close();
+	}
+
+	@Test
+	@DisplayName("잔고가 내역의 합(충전 - 사용 - 소멸)과 다른 유저만 파일에 남기고 진행 상황과 지표를 기록한다")
+	void reconcileTest() throws IOException {
+		// given
+		pointUpdater.update(1L, TransactionType.CHARGE, 1000, 10L);
+		pointUpdater.update(1L, TransactionType.USE, 300, 20L);
+		pointUpdater.update(1L, TransactionType.EXPIRE, 200, 30L);
+		pointUpdater.update(2L, TransactionType.CHARGE, 500, 40L);
+		pointHistoryWriter.append(3L, 700, TransactionType.CHARGE, 50L, 700L);
+		PointReconciliationJob job = new PointReconciliationJob(pointHistoryRepository, pointHistoryWriter, pointStore,
+			pointMetrics, directory, 2);
+
+		// when
+		PointReconciliationReport before = job.progress();
+		PointReconciliationReport report = job.start().join();
+		job.close();
+
+		// then
+		assertThat(before).isEqualTo(PointReconciliationReport.idle());
+		assertThat(report.running()).isFalse();
+		assertThat(report.totalUsers()).isEqualTo(3);
+		assertThat(report.processedUsers()).isEqualTo(3);
+		assertThat(report.histories()).isEqualTo(5);
+		assertThat(report.mismatches()).isEqualTo(1);
+		assertThat(job.progress()).isEqualTo(report);
+		assertThat(Files.readAllLines(Path.of(report.reportFile())))
+			.containsExactly("userId,point,historyNet,difference", "3,0,700,-700");
+		assertThat(registry.get("point.reconciliation.users").counter().count()).isEqualTo(3);
+		assertThat(registry.get("point.reconciliation.mismatches").counter().count()).isEqualTo(1);
+	}
+}
@@ -2,7 +2,9 @@ package io.hhplus.tdd.point;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -21,9 +23,28 @@ class PointServiceUnitTest {
 
 	PointHistoryTable pointHistoryRepo = new PointHistoryTable();
 
-	PointLockProvider pointLockProvider = new PointLockProvider();
+	PointMetrics pointMetrics = PointMetrics.noop();
 
-	PointService pointService = new PointService(userPointRepo, pointLockProvider, pointHistoryRepo);
+	PointLockProvider pointLockProvider = new PointLockProvider(pointMetrics);
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(pointHistoryRepo);
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, pointMetrics, 100, 10);
+
+	UserPointCache userPointCache = new UserPointCache(100);
+
+	PointLotLedger pointLotLedger = new PointLotLedger(1000, 64);
+
+	PointStore pointStore = new PointStore(userPointRepo, userPointCache, pointHistoryRepository, pointHistoryWriter,
+		new PointStatsIndex(), pointLotLedger, PointJournal.disabled(), pointMetrics);
+
+	PointHotUserTracker pointHotUserTracker = new PointHotUserTracker(64, 100, 10);
+
+	LockPointUpdater pointUpdater = new LockPointUpdater(pointStore, pointLockProvider, pointHotUserTracker,
+		pointMetrics, 100, 0, 200, 3000, 16, false);
+
+	PointService pointService = new PointService(pointStore, pointUpdater,
+		new PointIdempotencyStore(100, Duration.ofMinutes(10)), pointHotUserTracker);
 
 	@BeforeEach
 	void setUp() {
@@ -61,6 +82,7 @@ class PointServiceUnitTest {
 
 		long chargedAt = System.currentTimeMillis();
 		pointService.charge(USER_ID, 10000, chargedAt);
+		pointHistoryWriter.flush();
 		List<PointHistory> pointHistories = pointHistoryRepo.selectAllByUserId(USER_ID);
 
 		assertThat(pointHistories).filteredOn(
@@ -103,12 +125,25 @@ class PointServiceUnitTest {
 
 	}
 
+	@Test
+	@DisplayName("충전/사용하면 누적 집계가 갱신되고 거절된 변경은 집계하지 않는다")
+	void statsUpdatedWhenCommittedTest() {
+
+		pointService.charge(USER_ID, 1000, 10L);
+		pointService.use(USER_ID, 300, 20L);
+		assertThatThrownBy(() -> pointService.use(USER_ID, TEST_INIT_AMOUNT * 2, 30L))
+			.isInstanceOf(PointPolicyException.class);
+
+		assertThat(pointService.getStats(USER_ID)).isEqualTo(new PointStats(USER_ID, 1000L, 300L, 0L, 1L, 1L, 0L, 20L));
+	}
+
 	@Test
 	@DisplayName("포인트를 사용하면 포인트 히스토리에 사용 기록이 추가된다")
 	void historySavedWhenUseSuccessTest() {
 
 		long usedAt = System.currentTimeMillis();
 		pointService.use(USER_ID, 5000, System.currentTimeMillis());
+		pointHistoryWriter.flush();
 		List<PointHistory> pointHistories = pointHistoryRepo.selectAllByUserId(USER_ID);
 
 		assertThat(pointHistories).filteredOn(
@@ -117,5 +152,135 @@ class PointServiceUnitTest {
 			.hasSizeGreaterThanOrEqualTo(1);
 	}
 
+	@Test
+	@DisplayName("포인트 히스토리가 기록되기 전에도 충전 기록을 조회할 수 있다")
+	void pendingHistoryVisibleTest() {
+
+		long chargedAt = System.currentTimeMillis();
+		pointService.charge(USER_ID, 10000, chargedAt);
+		List<PointHistory> pointHistories = pointService.getHistoriesBy(USER_ID);
+
+		assertThat(pointHistories).filteredOn(
+				pointHistory -> pointHistory.userId() == USER_ID && pointHistory.updateMillis() == chargedAt
+					&& pointHistory.type().equals(TransactionType.CHARGE) && pointHistory.amount() == 10000)
+			.hasSize(1);
+	}
+
+	@Test
+	@DisplayName("충전한 뒤 조회하면 캐시에서 충전된 포인트를 가져온다")
+	void getAfterChargeHitsCacheTest() {
+
+		//given
+		var chargedUserPoint = pointService.charge(USER_ID, 10000, System.currentTimeMillis());
+		long hits = userPointCache.stats().hits();
+
+		//when
+		UserPoint userPoint = pointService.get(USER_ID);
+
+		//then
+		assertThat(userPoint).isEqualTo(chargedUserPoint);
+		assertThat(userPointCache.stats().hits()).isEqualTo(hits + 1);
+	}
+
+	@Test
+	@DisplayName("한 유저의 여러 변경을 순서대로 적용하고 규칙에 어긋난 항목만 실패한다")
+	void applyAllTest() {
+
+		//when
+		List<PointOperationResult> results = pointService.applyAll(USER_ID, List.of(
+			new PointOperation(USER_ID, TransactionType.CHARGE, 1000),
+			new PointOperation(USER_ID, TransactionType.USE, 20000),
+			new PointOperation(USER_ID, TransactionType.USE, 5000)
+		), System.currentTimeMillis());
+
+		//then
+		assertThat(results).extracting(PointOperationResult::success).containsExactly(true, false, true);
+		assertThat(results.get(0).userPoint().point()).isEqualTo(TEST_INIT_AMOUNT + 1000);
+		assertThat(results.get(1).message()).isEqualTo("포인트가 부족합니다");
+		assertThat(results.get(2).userPoint().point()).isEqualTo(TEST_INIT_AMOUNT + 1000 - 5000);
+		assertThat(pointService.get(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 1000 - 5000);
+		assertThat(pointService.getHistoriesBy(USER_ID)).hasSize(2);
+	}
+
+	@Test
+	@DisplayName("유효기간이 있는 충전은 사용할 때 먼저 차감되고, 만료되면 남은 만큼만 소멸한다")
+	void expiringChargeTest() {
+		// given
+		long chargedAt = System.currentTimeMillis();
+		pointService.chargeWithExpiry(USER_ID, 300, chargedAt, chargedAt + 1000);
+		pointService.use(USER_ID, 100, chargedAt);
+
+		// when
+		UserPoint expired = pointUpdater.expire(USER_ID, chargedAt + 1000);
 
-}
\ No newline at end of file
+		// then
+		assertThat(expired.point()).isEqualTo(TEST_INIT_AMOUNT + 300 - 100 - 200);
+		assertThat(pointLotLedger.expiringPoint(USER_ID)).isZero();
+		assertThat(pointService.getHistoriesBy(USER_ID)).extracting(PointHistory::type, PointHistory::amount)
+			.containsExactly(tuple(TransactionType.CHARGE, 300L), tuple(TransactionType.USE, 100L),
+				tuple(TransactionType.EXPIRE, 200L));
+		assertThat(pointUpdater.expire(USER_ID, chargedAt + 2000)).isNull();
+	}
+
+	@Test
+	@DisplayName("소멸은 직접 요청할 수 없어 실패로 남고 나머지 항목은 적용된다")
+	void applyAllRejectsExpireTest() {
+
+		//when
+		List<PointOperationResult> results = pointService.applyAll(USER_ID, List.of(
+			new PointOperation(USER_ID, TransactionType.EXPIRE, 1000),
+			new PointOperation(USER_ID, TransactionType.USE, 500)
+		), System.currentTimeMillis());
+
+		//then
+		assertThat(results).extracting(PointOperationResult::success).containsExactly(false, true);
+		assertThat(results.get(0).message()).isEqualTo("소멸은 직접 요청할 수 없습니다");
+		assertThat(pointService.get(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT - 500);
+	}
+
+	@Test
+	@DisplayName("유효기간이 충전 시각보다 늦지 않으면 충전하지 않고 예외가 발생한다")
+	void chargeWithPastExpiryTest() {
+		// given
+		long chargedAt = System.currentTimeMillis();
+
+		//when //then
+		assertThatThrownBy(() -> pointService.chargeWithExpiry(USER_ID, 300, chargedAt, chargedAt))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("유효기간은 충전 시각 이후여야 합니다");
+		assertThat(pointService.get(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT);
+		assertThat(pointLotLedger.expiringPoint(USER_ID)).isZero();
+	}
+
+	@Test
+	@DisplayName("유효기간이 지난 충전 항목은 실패로 남고 나머지 항목은 적용된다")
+	void applyAllRejectsPastExpiryTest() {
+		// given
+		long updateMillis = System.currentTimeMillis();
+
+		//when
+		List<PointOperationResult> results = pointService.applyAll(USER_ID, List.of(
+			new PointOperation(USER_ID, TransactionType.CHARGE, 1000, updateMillis - 1),
+			new PointOperation(USER_ID, TransactionType.USE, 500)
+		), updateMillis);
+
+		//then
+		assertThat(results).extracting(PointOperationResult::success).containsExactly(false, true);
+		assertThat(results.get(0).message()).isEqualTo("유효기간은 충전 시각 이후여야 합니다");
+		assertThat(pointService.get(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT - 500);
+	}
+
+	@Test
+	@DisplayName("같은 멱등 키로 유효기간만 다른 충전을 다시 요청하면 충전하지 않고 익셉션이 발생한다")
+	void chargeWithExpiryConflictingKeyTest() {
+		// given
+		long chargedAt = System.currentTimeMillis();
+		pointService.chargeWithExpiry(USER_ID, 300, chargedAt, chargedAt + 1000, "key");
+
+		//when //then
+		assertThatThrownBy(() -> pointService.chargeWithExpiry(USER_ID, 300, chargedAt, chargedAt + 2000, "key"))
+			.isInstanceOf(PointIdempotencyException.class);
+		assertThat(pointService.get(USER_ID).point()).isEqualTo(TEST_INIT_AMOUNT + 300);
+		assertThat(pointLotLedger.expiringPoint(USER_ID)).isEqualTo(300);
+	}
+}
@@ -0,0 +1,121 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PointSnapshotterTest {
+
+	@TempDir
+	Path directory;
+
+	PointJournal journal;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		journal.close();
+	}
+
+	@Test
+	@DisplayName("스냅샷에는 유저별 마지막 잔고와 그때까지의 저널 일련번호가 담긴다")
+	void snapshotTest() {
+		// given
+		journal = new PointJournal(true, directory.resolve("journal"), 1024);
+		PointSnapshotter snapshotter = new PointSnapshotter(journal, true, directory.resolve("snapshot"), 60, 2);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		journal.append(1L, 30L, TransactionType.USE, 20L, 70L);
+		journal.append(2L, 500L, TransactionType.CHARGE, 30L, 500L);
+
+		// when
+		snapshotter.snapshot();
+		PointSnapshotter.Snapshot loaded = snapshotter.loadLatest().orElseThrow();
+
+		// then
+		assertThat(loaded.watermark()).isEqualTo(3);
+		assertThat(loaded.userIds()).containsExactlyInAnyOrder(1L, 2L);
+		for (int i = 0; i < loaded.userIds().length; i++) {
+			assertThat(loaded.points()[i]).isEqualTo(loaded.userIds()[i] == 1L ? 70L : 500L);
+		}
+	}
+
+	@Test
+	@DisplayName("스냅샷은 직전 스냅샷에 그 뒤의 저널을 접어 내역, 누적 집계, 유효기간 묶음까지 담는다")
+	void snapshotFoldsDerivedStateTest() {
+		// given
+		journal = new PointJournal(true, directory.resolve("journal"), 1024);
+		PointSnapshotter snapshotter = new PointSnapshotter(journal, true, directory.resolve("snapshot"), 60, 2);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L, 1000L);
+		journal.append(1L, 50L, TransactionType.CHARGE, 20L, 150L, 2000L);
+		snapshotter.snapshot();
+		journal.append(1L, 120L, TransactionType.USE, 30L, 30L);
+
+		// when
+		snapshotter.snapshot();
+		PointSnapshotter.Snapshot loaded = snapshotter.loadLatest().orElseThrow();
+
+		// then
+		assertThat(loaded.watermark()).isEqualTo(5);
+		assertThat(loaded.points()).containsExactly(30L);
+		assertThat(loaded.histories().types())
+			.containsExactly(TransactionType.CHARGE, TransactionType.CHARGE, TransactionType.USE);
+		assertThat(loaded.histories().points()).containsExactly(100L, 150L, 30L);
+		assertThat(loaded.stats()).containsExactly(new PointStats(1L, 150L, 120L, 0L, 2L, 1L, 0L, 30L));
+		assertThat(loaded.lots().remaining()).containsExactly(30L);
+		assertThat(loaded.lots().expiresAt()).containsExactly(2000L);
+	}
+
+	@Test
+	@DisplayName("가장 최근 스냅샷이 손상되었으면 그 이전 스냅샷을 읽는다")
+	void corruptedSnapshotSkippedTest() throws IOException {
+		// given
+		journal = new PointJournal(true, directory.resolve("journal"), 1024);
+		PointSnapshotter snapshotter = new PointSnapshotter(journal, true, directory.resolve("snapshot"), 60, 2);
+		journal.append(1L, 100L, TransactionType.CHARGE, 10L, 100L);
+		snapshotter.snapshot();
+		journal.append(1L, 50L, TransactionType.CHARGE, 20L, 150L);
+		snapshotter.snapshot();
+		try (Stream<Path> files = Files.list(directory.resolve("snapshot"));
+			 RandomAccessFile file = new RandomAccessFile(
+				 files.max(Comparator.naturalOrder()).orElseThrow().toFile(), "rw")) {
+			file.seek(file.length() - 1);
+			file.write(0xFF);
+		}
+
+		// when
+		PointSnapshotter.Snapshot loaded = snapshotter.loadLatest().orElseThrow();
+
+		// then
+		assertThat(loaded.watermark()).isEqualTo(1);
+		assertThat(loaded.points()).containsExactly(100L);
+	}
+
+	@Test
+	@DisplayName("보관 개수를 넘는 오래된 스냅샷은 지운다")
+	void oldSnapshotDeletedTest() throws IOException {
+		// given
+		journal = new PointJournal(true, directory.resolve("journal"), 1024);
+		PointSnapshotter snapshotter = new PointSnapshotter(journal, true, directory.resolve("snapshot"), 60, 2);
+
+		// when
+		for (long i = 1; i <= 4; i++) {
+			journal.append(1L, 1L, TransactionType.CHARGE, i, i);
+			snapshotter.snapshot();
+		}
+
+		// then
+		try (Stream<Path> files = Files.list(directory.resolve("snapshot"))) {
+			assertThat(files.count()).isEqualTo(2);
+		}
+		assertThat(snapshotter.loadLatest().orElseThrow().watermark()).isEqualTo(4);
+	}
+}
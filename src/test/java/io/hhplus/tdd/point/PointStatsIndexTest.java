@@ -0,0 +1,41 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PointStatsIndexTest {
+
+	PointStatsIndex pointStatsIndex = new PointStatsIndex();
+
+	@Test
+	@DisplayName("유저별로 충전/사용 금액과 횟수를 누적하고 마지막 변경 시각을 남긴다")
+	void recordTest() {
+		// when
+		pointStatsIndex.record(1L, TransactionType.CHARGE, 100L, 10L);
+		pointStatsIndex.record(1L, TransactionType.CHARGE, 200L, 30L);
+		pointStatsIndex.record(1L, TransactionType.USE, 50L, 20L);
+		pointStatsIndex.record(2L, TransactionType.USE, 70L, 40L);
+
+		// then
+		assertThat(pointStatsIndex.find(1L)).isEqualTo(new PointStats(1L, 300L, 50L, 0L, 2L, 1L, 0L, 30L));
+		assertThat(pointStatsIndex.find(2L)).isEqualTo(new PointStats(2L, 0L, 70L, 0L, 0L, 1L, 0L, 40L));
+		assertThat(pointStatsIndex.find(3L)).isEqualTo(new PointStats(3L, 0L, 0L, 0L, 0L, 0L, 0L, 0L));
+	}
+
+	@Test
+	@DisplayName("초기 용량보다 많은 유저도 모두 보관한다")
+	void growTest() {
+		// when
+		for (long userId = -5_000; userId < 5_000; userId++) {
+			pointStatsIndex.record(userId, TransactionType.CHARGE, Math.abs(userId), userId);
+		}
+
+		// then
+		for (long userId = -5_000; userId < 5_000; userId++) {
+			assertThat(pointStatsIndex.find(userId).totalCharged()).isEqualTo(Math.abs(userId));
+			assertThat(pointStatsIndex.find(userId).chargeCount()).isEqualTo(1L);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PointStoreTest {
+
+	private static final long USER_ID = 1L;
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	PointMetrics pointMetrics = new PointMetrics(registry, true);
+
+	CountDownLatch selectEntered = new CountDownLatch(1);
+
+	CountDownLatch selectRelease = new CountDownLatch(1);
+
+	AtomicInteger selects = new AtomicInteger();
+
+	AtomicInteger writers = new AtomicInteger();
+
+	AtomicInteger maxWriters = new AtomicInteger();
+
+	volatile CountDownLatch overlap = new CountDownLatch(0);
+
+	UserPointTable userPointRepo = new UserPointTable() {
+		@Override
+		public UserPoint selectById(Long id) {
+			selects.incrementAndGet();
+			selectEntered.countDown();
+			try {
+				selectRelease.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.selectById(id);
+		}
+
+		@Override
+		public UserPoint insertOrUpdate(long id, long amount) {
+			maxWriters.accumulateAndGet(writers.incrementAndGet(), Math::max);
+			try {
+				overlap.countDown();
+				overlap.await(5, TimeUnit.SECONDS);
+				return super.insertOrUpdate(id, amount);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			} finally {
+				writers.decrementAndGet();
+			}
+		}
+	};
+
+	PointHistoryRepository pointHistoryRepository = new TablePointHistoryRepository(new PointHistoryTable());
+
+	PointHistoryWriter pointHistoryWriter = new PointHistoryWriter(pointHistoryRepository, pointMetrics, 100, 10);
+
+	PointStore pointStore = new PointStore(userPointRepo, new UserPointCache(100), pointHistoryRepository,
+		pointHistoryWriter, new PointStatsIndex(), new PointLotLedger(1000, 64), PointJournal.disabled(), pointMetrics);
+
+	ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		selectRelease.countDown();
+		executor.shutdown();
+		pointHistoryWriter.close();
+	}
+
+	@Test
+	@DisplayName("캐시에 없는 잔고를 동시에 조회하면 테이블은 한번만 조회하고 같은 결과를 나눠 받는다")
+	void concurrentSelectsCoalescedTest() throws Exception {
+		// given
+		Future<UserPoint> first = executor.submit(() -> pointStore.find(USER_ID));
+		assertThat(selectEntered.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// when
+		List<Future<UserPoint>> waiting = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			waiting.add(executor.submit(() -> pointStore.find(USER_ID)));
+		}
+		while (registry.get("point.table.coalesced").counter().count() < waiting.size()) {
+			Thread.sleep(1);
+		}
+		selectRelease.countDown();
+
+		// then
+		UserPoint selected = first.get(5, TimeUnit.SECONDS);
+		for (Future<UserPoint> future : waiting) {
+			assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(selected);
+		}
+		assertThat(selects.get()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("조회가 끝나면 다음 조회는 캐시에서 읽는다")
+	void selectedPointCachedTest() {
+		// given
+		selectRelease.countDown();
+		pointStore.find(USER_ID);
+
+		// when
+		pointStore.find(USER_ID);
+
+		// then
+		assertThat(selects.get()).isEqualTo(1);
+		assertThat(registry.get("point.table.coalesced").counter().count()).isZero();
+	}
+
+	@Test
+	@DisplayName("테이블에 없던 여러 유저의 잔고를 동시에 처음 저장하면 테이블에는 한번에 하나씩 쓰고 모든 유저의 잔고가 남는다")
+	void concurrentSavesSerializedTest() throws Exception {
+		// given
+		selectRelease.countDown();
+		int userCount = 16;
+
+		// when
+		List<Future<UserPoint>> saves = new ArrayList<>();
+		for (int i = 1; i <= userCount; i++) {
+			long userId = i;
+			saves.add(executor.submit(() -> pointStore.save(userId, userId * 100)));
+		}
+		for (Future<UserPoint> save : saves) {
+			save.get(30, TimeUnit.SECONDS);
+		}
+
+		// then
+		assertThat(maxWriters.get()).isEqualTo(1);
+		for (long userId = 1; userId <= userCount; userId++) {
+			assertThat(userPointRepo.selectById(userId).point()).isEqualTo(userId * 100);
+		}
+	}
+
+	@Test
+	@DisplayName("테이블에 있는 두 유저의 잔고는 한 유저의 저장이 끝나기를 기다리지 않고 동시에 저장한다")
+	void storedUsersSavedInParallelTest() throws Exception {
+		// given
+		selectRelease.countDown();
+		pointStore.save(USER_ID, 100);
+		pointStore.save(USER_ID + 1, 200);
+		maxWriters.set(0);
+		overlap = new CountDownLatch(2);
+
+		// when
+		Future<UserPoint> first = executor.submit(() -> pointStore.save(USER_ID, 300));
+		Future<UserPoint> second = executor.submit(() -> pointStore.save(USER_ID + 1, 400));
+
+		// then
+		assertThat(first.get(10, TimeUnit.SECONDS).point()).isEqualTo(300);
+		assertThat(second.get(10, TimeUnit.SECONDS).point()).isEqualTo(400);
+		assertThat(maxWriters.get()).isEqualTo(2);
+		assertThat(pointStore.find(USER_ID).point()).isEqualTo(300);
+		assertThat(pointStore.find(USER_ID + 1).point()).isEqualTo(400);
+	}
+}
@@ -1,18 +1,31 @@
 package io.hhplus.tdd.point;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.hhplus.tdd.config.WebIntegrationTest;
 
@@ -32,7 +45,11 @@ class PointWebIntegrationTest extends WebIntegrationTest {
 		when(pointService.get(userId)).thenReturn(mockUserPoint);
 
 		//then
-		mockMvc.perform(get("/point/{id}", userId))
+		MvcResult mvcResult = mockMvc.perform(get("/point/{id}", userId))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("$.id").value(userId))
 			.andExpect(jsonPath("$.point").value(point))
@@ -55,7 +72,11 @@ class PointWebIntegrationTest extends WebIntegrationTest {
 		when(pointService.getHistoriesBy(userId)).thenReturn(mockHistories);
 
 		//then
-		mockMvc.perform(get("/point/{id}/histories", userId))
+		MvcResult mvcResult = mockMvc.perform(get("/point/{id}/histories", userId))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("$[0].id").value(h1.id()))
 			.andExpect(jsonPath("$[0].userId").value(h1.userId()))
@@ -81,15 +102,69 @@ class PointWebIntegrationTest extends WebIntegrationTest {
 		when(pointService.charge(eq(userId), eq(amount), anyLong())).thenReturn(updatedUserPoint);
 
 		// then
-		mockMvc.perform(patch("/point/{id}/charge", userId)
+		MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
 				.contentType(MediaType.APPLICATION_JSON)
 				.content(String.valueOf(amount)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("$.id").value(userId))
 			.andExpect(jsonPath("$.point").value(700L))
 			.andExpect(jsonPath("$.updateMillis").value(updatedAt));
 	}
 
+	@Test
+	@DisplayName("point/{id}/charge 주소로 expiresAt 과 함께 Patch 요청을 보내면 유효기간이 있는 포인트를 충전한다")
+	void chargeExpiringPoint() throws Exception {
+		// given
+		long userId = 3L;
+		long amount = 200L;
+		long expiresAt = System.currentTimeMillis() + 60_000;
+		UserPoint updatedUserPoint = new UserPoint(userId, 700L, System.currentTimeMillis());
+
+		when(pointService.chargeWithExpiry(eq(userId), eq(amount), anyLong(), eq(expiresAt)))
+			.thenReturn(updatedUserPoint);
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
+				.param("expiresAt", String.valueOf(expiresAt))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(String.valueOf(amount)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.point").value(700L));
+	}
+
+	@Test
+	@DisplayName("point/{id}/charge 주소로 지난 expiresAt 과 함께 Patch 요청을 보내면 400 을 반환한다")
+	void chargeWithPastExpiry() throws Exception {
+		// given
+		long userId = 3L;
+		long amount = 200L;
+		long expiresAt = 1L;
+
+		when(pointService.chargeWithExpiry(eq(userId), eq(amount), anyLong(), eq(expiresAt)))
+			.thenThrow(new IllegalArgumentException("유효기간은 충전 시각 이후여야 합니다"));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
+				.param("expiresAt", String.valueOf(expiresAt))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(String.valueOf(amount)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.code").value("400"))
+			.andExpect(jsonPath("$.message").value("유효기간은 충전 시각 이후여야 합니다"));
+	}
+
 	@Test
 	@DisplayName("point/{id}/use 주소로 Patch 요청을 보내면 해당하는 포인트를 사용하고 변경된 포인트를 반환한다")
 	void usePoint() throws Exception {
@@ -102,9 +177,13 @@ class PointWebIntegrationTest extends WebIntegrationTest {
 		when(pointService.use(eq(userId), eq(amount), anyLong())).thenReturn(updatedUserPoint);
 
 		// then
-		mockMvc.perform(patch("/point/{id}/use", userId)
+		MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/use", userId)
 				.contentType(MediaType.APPLICATION_JSON)
 				.content(String.valueOf(amount)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
 			.andExpect(status().isOk())
 			.andExpect(jsonPath("$.id").value(userId))
 			.andExpect(jsonPath("$.point").value(400L))
@@ -112,4 +191,374 @@ class PointWebIntegrationTest extends WebIntegrationTest {
 
 	}
 
-}
\ No newline at end of file
+	@Test
+	@DisplayName("Idempotency-Key 헤더와 함께 충전을 요청하면 멱등 키를 서비스에 넘긴다")
+	void chargePointWithIdempotencyKey() throws Exception {
+		// given
+		long userId = 3L;
+		long amount = 200L;
+		long updatedAt = System.currentTimeMillis();
+		UserPoint updatedUserPoint = new UserPoint(userId, 700L, updatedAt);
+
+		when(pointService.charge(eq(userId), eq(amount), anyLong(), eq("retry-1"))).thenReturn(updatedUserPoint);
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/charge", userId)
+				.header("Idempotency-Key", "retry-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(String.valueOf(amount)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.point").value(700L))
+			.andExpect(jsonPath("$.updateMillis").value(updatedAt));
+	}
+
+	@Test
+	@DisplayName("이미 다른 요청에 사용된 멱등 키로 사용을 요청하면 409 를 반환한다")
+	void usePointWithConflictingIdempotencyKey() throws Exception {
+		// given
+		long userId = 4L;
+		long amount = 50L;
+
+		when(pointService.use(eq(userId), eq(amount), anyLong(), eq("retry-1")))
+			.thenThrow(new PointIdempotencyException("같은 멱등 키로 다른 요청이 들어왔습니다"));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/use", userId)
+				.header("Idempotency-Key", "retry-1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(String.valueOf(amount)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isConflict())
+			.andExpect(jsonPath("$.code").value("409"));
+	}
+
+	@Test
+	@DisplayName("point/hot-users 주소로 Get 요청을 보내면 요청이 몰리는 유저와 락 대기 시간을 가져온다")
+	void getHotUsers() throws Exception {
+		//when
+		when(pointService.getHotUsers(5)).thenReturn(List.of(
+			new PointHotUserTracker.HotUser(9L, 300L, 10L, 2_000L, 9_000L, true)));
+
+		//then
+		mockMvc.perform(get("/point/hot-users").param("limit", "5"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].userId").value(9L))
+			.andExpect(jsonPath("$[0].count").value(300L))
+			.andExpect(jsonPath("$[0].averageLockWaitNanos").value(2_000L))
+			.andExpect(jsonPath("$[0].hot").value(true));
+	}
+
+	@Test
+	@DisplayName("point/hot-users 주소로 1 보다 작은 limit 을 보내면 400 을 반환한다")
+	void getHotUsersWithInvalidLimit() throws Exception {
+		//then
+		mockMvc.perform(get("/point/hot-users").param("limit", "-1"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.code").value("400"))
+			.andExpect(jsonPath("$.message").value("조회할 유저 수는 1 이상이어야 합니다"));
+		verify(pointService, never()).getHotUsers(anyInt());
+	}
+
+	@Test
+	@DisplayName("point/{id}/stats 주소로 Get 요청을 보내면 누적 충전/사용 집계를 가져온다")
+	void getStats() throws Exception {
+		//given
+		long userId = 8L;
+
+		//when
+		when(pointService.getStats(userId)).thenReturn(new PointStats(userId, 1000L, 300L, 0L, 2L, 1L, 0L, 30L));
+
+		//then
+		mockMvc.perform(get("/point/{id}/stats", userId))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.totalCharged").value(1000L))
+			.andExpect(jsonPath("$.totalUsed").value(300L))
+			.andExpect(jsonPath("$.chargeCount").value(2L))
+			.andExpect(jsonPath("$.useCount").value(1L))
+			.andExpect(jsonPath("$.lastActivityMillis").value(30L));
+	}
+
+	@Test
+	@DisplayName("유저 락을 제한 시간 안에 얻지 못하면 429 를 반환한다")
+	void usePointOverloaded() throws Exception {
+		// given
+		long userId = 4L;
+		long amount = 50L;
+
+		when(pointService.use(eq(userId), eq(amount), anyLong())).thenThrow(
+			new PointOverloadedException(PointOverloadedException.Reason.LOCK_TIMEOUT, "유저 락을 얻지 못했습니다"));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(patch("/point/{id}/use", userId)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(String.valueOf(amount)))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isTooManyRequests())
+			.andExpect(header().string("Retry-After", "1"))
+			.andExpect(jsonPath("$.code").value("429"));
+	}
+
+	@Test
+	@DisplayName("시작 시 복구가 끝나지 않았으면 503 을 반환한다")
+	void getUserWhileRecovering() throws Exception {
+		// given
+		long userId = 4L;
+
+		when(pointService.get(userId)).thenThrow(new PointRecoveringException("포인트 복구 중입니다. 잠시 후 다시 시도해주세요"));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(get("/point/{id}", userId))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(header().string("Retry-After", "1"))
+			.andExpect(jsonPath("$.code").value("503"));
+	}
+
+	@Test
+	@DisplayName("point/{id}/summary 주소로 Get 요청을 보내면 잔고와 포인트 히스토리를 함께 가져온다")
+	void getSummary() throws Exception {
+		//given
+		long userId = 7L;
+		long now = System.currentTimeMillis();
+		PointHistory h1 = new PointHistory(1L, userId, 50L, TransactionType.CHARGE, now);
+
+		//when
+		when(pointService.get(userId)).thenReturn(new UserPoint(userId, 50L, now));
+		when(pointService.getHistoriesBy(userId)).thenReturn(List.of(h1));
+
+		//then
+		MvcResult mvcResult = mockMvc.perform(get("/point/{id}/summary", userId))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.point.id").value(userId))
+			.andExpect(jsonPath("$.point.point").value(50L))
+			.andExpect(jsonPath("$.histories[0].id").value(h1.id()))
+			.andExpect(jsonPath("$.histories[0].amount").value(h1.amount()));
+	}
+
+	@Test
+	@DisplayName("point/{id}/histories 주소로 size 를 함께 보내면 커서 기반으로 포인트 히스토리 페이지를 가져온다")
+	void getHistoryPage() throws Exception {
+		//given
+		long userId = 5L;
+		long now = System.currentTimeMillis();
+		PointHistory h1 = new PointHistory(11L, userId, 50L, TransactionType.CHARGE, now);
+		PointHistory h2 = new PointHistory(12L, userId, 20L, TransactionType.CHARGE, now + 1000);
+
+		//when
+		when(pointService.getHistoryPage(eq(userId), argThat(query ->
+			query.cursor() == 10L && query.size() == 2 && query.type() == TransactionType.CHARGE)))
+			.thenReturn(new PointHistoryPage(List.of(h1, h2), h2.id()));
+
+		//then
+		mockMvc.perform(get("/point/{id}/histories", userId)
+				.param("cursor", "10")
+				.param("size", "2")
+				.param("type", "CHARGE"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.histories[0].id").value(h1.id()))
+			.andExpect(jsonPath("$.histories[1].id").value(h2.id()))
+			.andExpect(jsonPath("$.nextCursor").value(h2.id()));
+	}
+
+	@Test
+	@DisplayName("point/{id}/histories 주소로 범위를 벗어난 size 를 보내면 400 을 반환한다")
+	void getHistoryPageWithInvalidSize() throws Exception {
+		//then
+		mockMvc.perform(get("/point/{id}/histories", 5L)
+				.param("size", String.valueOf(PointHistoryQuery.MAX_SIZE + 1)))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.code").value("400"))
+			.andExpect(jsonPath("$.message").value("페이지 크기는 1 이상 1000 이하여야 합니다"));
+		verify(pointService, never()).getHistoryPage(anyLong(), any());
+	}
+
+	@Test
+	@DisplayName("point/{id}/histories 주소로 NDJSON 을 요청하면 포인트 히스토리를 한줄씩 내보낸다")
+	void exportHistories() throws Exception {
+		//given
+		long userId = 6L;
+		long now = System.currentTimeMillis();
+		PointHistory h1 = new PointHistory(1L, userId, 50L, TransactionType.CHARGE, now);
+		PointHistory h2 = new PointHistory(2L, userId, 20L, TransactionType.USE, now + 1000);
+
+		//when
+		when(pointService.getHistoryPage(eq(userId), any()))
+			.thenReturn(new PointHistoryPage(List.of(h1, h2), null));
+
+		//then
+		MvcResult mvcResult = mockMvc.perform(get("/point/{id}/histories", userId)
+				.accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(content().string(
+				"{\"id\":1,\"userId\":6,\"amount\":50,\"type\":\"CHARGE\",\"updateMillis\":" + now + "}\n"
+					+ "{\"id\":2,\"userId\":6,\"amount\":20,\"type\":\"USE\",\"updateMillis\":" + (now + 1000)
+					+ "}\n"));
+	}
+
+	@Test
+	@DisplayName("point/batch 주소로 Post 요청을 보내면 여러 유저의 포인트를 변경하고 항목별 결과를 반환한다")
+	void batch() throws Exception {
+		// given
+		long updatedAt = System.currentTimeMillis();
+		PointOperation charge = new PointOperation(7L, TransactionType.CHARGE, 100L);
+		PointOperation use = new PointOperation(8L, TransactionType.USE, 500L);
+
+		when(pointBatchService.applyAll(eq(List.of(charge, use)), anyLong())).thenReturn(List.of(
+			PointOperationResult.succeeded(charge, new UserPoint(7L, 100L, updatedAt)),
+			PointOperationResult.failed(use, "포인트가 부족합니다")
+		));
+
+		// then
+		mockMvc.perform(post("/point/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+					[{"userId":7,"type":"CHARGE","amount":100},{"userId":8,"type":"USE","amount":500}]
+					"""))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].success").value(true))
+			.andExpect(jsonPath("$[0].userPoint.point").value(100L))
+			.andExpect(jsonPath("$[1].success").value(false))
+			.andExpect(jsonPath("$[1].message").value("포인트가 부족합니다"));
+	}
+
+	@Test
+	@DisplayName("point/{id}/transfer 주소로 Post 요청을 보내면 포인트를 다른 유저에게 보내고 두 유저의 잔고를 반환한다")
+	void transfer() throws Exception {
+		// given
+		long updatedAt = System.currentTimeMillis();
+		when(pointService.transfer(eq(9L), eq(10L), eq(300L), anyLong())).thenReturn(new PointTransfer(
+			new UserPoint(9L, 700L, updatedAt), new UserPoint(10L, 300L, updatedAt)));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(post("/point/{id}/transfer", 9L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+					{"toId":10,"amount":300}
+					"""))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.from.id").value(9L))
+			.andExpect(jsonPath("$.from.point").value(700L))
+			.andExpect(jsonPath("$.to.id").value(10L))
+			.andExpect(jsonPath("$.to.point").value(300L));
+	}
+
+	@Test
+	@DisplayName("받는 유저 없이 전송을 요청하면 400 을 반환한다")
+	void transferWithoutToId() throws Exception {
+		// then
+		mockMvc.perform(post("/point/{id}/transfer", 9L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+					{"amount":300}
+					"""))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.code").value("400"));
+		verify(pointService, never()).transfer(anyLong(), anyLong(), anyLong(), anyLong());
+	}
+
+	@Test
+	@DisplayName("0 이하의 금액으로 전송을 요청하면 400 을 반환한다")
+	void transferNonPositiveAmount() throws Exception {
+		// given
+		when(pointService.transfer(eq(9L), eq(10L), eq(-300L), anyLong()))
+			.thenThrow(new IllegalArgumentException("전송 금액은 0 보다 커야 합니다"));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(post("/point/{id}/transfer", 9L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+					{"toId":10,"amount":-300}
+					"""))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.code").value("400"))
+			.andExpect(jsonPath("$.message").value("전송 금액은 0 보다 커야 합니다"));
+	}
+
+	@Test
+	@DisplayName("전송을 지원하지 않는 동시성 모드에서 전송을 요청하면 400 을 반환한다")
+	void transferUnsupported() throws Exception {
+		// given
+		when(pointService.transfer(eq(9L), eq(10L), eq(300L), anyLong()))
+			.thenThrow(new PointUnsupportedException("포인트 전송은 lock 모드에서만 지원합니다"));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(post("/point/{id}/transfer", 9L)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("""
+					{"toId":10,"amount":300}
+					"""))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$.code").value("400"))
+			.andExpect(jsonPath("$.message").value("포인트 전송은 lock 모드에서만 지원합니다"));
+	}
+
+	@Test
+	@DisplayName("point/changes 주소로 Get 요청을 보내면 Last-Event-ID 다음의 변경부터 SSE 로 구독한다")
+	void changes() throws Exception {
+		// given
+		when(pointChangeFeed.subscribe(7L, 3L)).thenReturn(new SseEmitter());
+
+		// then
+		mockMvc.perform(get("/point/changes")
+				.param("userId", "7")
+				.header("Last-Event-ID", "3")
+				.accept(MediaType.TEXT_EVENT_STREAM))
+			.andExpect(request().asyncStarted());
+		verify(pointChangeFeed).subscribe(7L, 3L);
+	}
+
+	@Test
+	@DisplayName("point/reconciliation 주소로 Post 요청을 보내면 대사가 끝난 뒤 결과를 반환한다")
+	void reconcile() throws Exception {
+		// given
+		PointReconciliationReport report = new PointReconciliationReport(false, 3L, 3L, 10L, 1L, 5L, 600.0, 2000.0,
+			"data/reconciliation/reconciliation-1.csv");
+		when(pointReconciliationJob.start()).thenReturn(CompletableFuture.completedFuture(report));
+
+		// then
+		MvcResult mvcResult = mockMvc.perform(post("/point/reconciliation"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		mockMvc.perform(asyncDispatch(mvcResult))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.running").value(false))
+			.andExpect(jsonPath("$.processedUsers").value(3L))
+			.andExpect(jsonPath("$.mismatches").value(1L))
+			.andExpect(jsonPath("$.reportFile").value(report.reportFile()));
+	}
+
+}
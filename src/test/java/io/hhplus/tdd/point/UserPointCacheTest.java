@@ -0,0 +1,56 @@
+package io.hhplus.tdd.point;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UserPointCacheTest {
+
+	UserPointCache userPointCache = new UserPointCache(2);
+
+	@Test
+	@DisplayName("용량을 넘으면 가장 오래 사용하지 않은 유저를 제거한다")
+	void evictLeastRecentlyUsedTest() {
+		// given
+		userPointCache.put(new UserPoint(1L, 100L, 0L));
+		userPointCache.put(new UserPoint(2L, 200L, 0L));
+		userPointCache.get(1L);
+
+		// when
+		userPointCache.put(new UserPoint(3L, 300L, 0L));
+
+		// then
+		assertThat(userPointCache.get(2L)).isNull();
+		assertThat(userPointCache.get(1L)).isNotNull();
+		assertThat(userPointCache.stats().evictions()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("조회 결과에 따라 hit, miss 횟수를 센다")
+	void hitAndMissCountTest() {
+		// given
+		userPointCache.put(new UserPoint(1L, 100L, 0L));
+
+		// when
+		userPointCache.get(1L);
+		userPointCache.get(2L);
+
+		// then
+		assertThat(userPointCache.stats().hits()).isEqualTo(1);
+		assertThat(userPointCache.stats().misses()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("이미 캐시된 값은 테이블에서 읽은 값으로 덮어쓰지 않는다")
+	void putIfAbsentKeepsWrittenValueTest() {
+		// given
+		userPointCache.put(new UserPoint(1L, 200L, 2L));
+
+		// when
+		userPointCache.putIfAbsent(new UserPoint(1L, 100L, 1L));
+
+		// then
+		assertThat(userPointCache.get(1L).point()).isEqualTo(200L);
+	}
+}